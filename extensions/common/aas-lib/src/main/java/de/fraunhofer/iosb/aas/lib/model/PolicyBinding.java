@@ -16,6 +16,7 @@
 package de.fraunhofer.iosb.aas.lib.model;
 
 import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
@@ -29,24 +30,36 @@ import static de.fraunhofer.iosb.constants.AasConstants.DEFAULT_POLICY_DEFINITIO
 
 
 /**
- * Binds an AAS element to access and usage policy. If any of the policies are null, a default policy is to be used.
+ * Binds an AAS element to access and usage policy. If any of the policies are null, a default policy is to be used. If includeDescendants is set, the binding also applies to all
+ * descendants of the element (e.g., all elements of a submodel) that are not bound themselves. Policy bindings are compared by the {@link ReferenceKey} of their referred
+ * element, so they can be used as keys of hash based collections without walking the reference.
  */
 @JsonDeserialize(builder = PolicyBinding.Builder.class)
 public record PolicyBinding(Reference referredElement, @JsonAlias("accessPolicyId") String accessPolicyDefinitionId,
-        @JsonAlias("usagePolicyId") String contractPolicyDefinitionId) {
+        @JsonAlias("usagePolicyId") String contractPolicyDefinitionId, boolean includeDescendants, @JsonIgnore ReferenceKey referredElementKey) {
+    public PolicyBinding {
+        Objects.requireNonNull(referredElement);
+        Objects.requireNonNull(referredElementKey);
+    }
+
+
     public PolicyBinding(Reference referredElement, String accessPolicyDefinitionId, String contractPolicyDefinitionId) {
-        this.referredElement = Objects.requireNonNull(referredElement);
-        this.accessPolicyDefinitionId = accessPolicyDefinitionId;
-        this.contractPolicyDefinitionId = contractPolicyDefinitionId;
+        this(referredElement, accessPolicyDefinitionId, contractPolicyDefinitionId, false);
+    }
+
+
+    public PolicyBinding(Reference referredElement, String accessPolicyDefinitionId, String contractPolicyDefinitionId, boolean includeDescendants) {
+        this(referredElement, accessPolicyDefinitionId, contractPolicyDefinitionId, includeDescendants, ReferenceKey.of(Objects.requireNonNull(referredElement)));
     }
 
 
     public static PolicyBinding ofDefaults(Reference reference) {
-        return new Builder()
-                .withReferredElement(ReferenceHelper.asString(reference))
-                .withAccessPolicyDefinitionId(DEFAULT_POLICY_DEFINITION_ID)
-                .withContractPolicyDefinitionId(DEFAULT_POLICY_DEFINITION_ID)
-                .build();
+        return new PolicyBinding(reference, DEFAULT_POLICY_DEFINITION_ID, DEFAULT_POLICY_DEFINITION_ID);
+    }
+
+
+    public static PolicyBinding ofDefaults(ReferenceKey referenceKey) {
+        return new PolicyBinding(referenceKey.reference(), DEFAULT_POLICY_DEFINITION_ID, DEFAULT_POLICY_DEFINITION_ID, false, referenceKey);
     }
 
 
@@ -68,10 +81,30 @@ public record PolicyBinding(Reference referredElement, @JsonAlias("accessPolicyI
     }
 
 
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof PolicyBinding otherBinding &&
+                referredElementKey.equals(otherBinding.referredElementKey) &&
+                Objects.equals(accessPolicyDefinitionId, otherBinding.accessPolicyDefinitionId) &&
+                Objects.equals(contractPolicyDefinitionId, otherBinding.contractPolicyDefinitionId) &&
+                includeDescendants == otherBinding.includeDescendants;
+    }
+
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(referredElementKey, accessPolicyDefinitionId, contractPolicyDefinitionId, includeDescendants);
+    }
+
+
     public static class Builder {
         private Reference referredElement;
         private String accessPolicyDefinitionId;
         private String contractPolicyDefinitionId;
+        private boolean includeDescendants;
 
 
         // Use String because of deserialization with jakarta fails for aas4j-references
@@ -95,8 +128,14 @@ public record PolicyBinding(Reference referredElement, @JsonAlias("accessPolicyI
         }
 
 
+        public Builder withIncludeDescendants(boolean includeDescendants) {
+            this.includeDescendants = includeDescendants;
+            return this;
+        }
+
+
         public PolicyBinding build() {
-            return new PolicyBinding(referredElement, accessPolicyDefinitionId, contractPolicyDefinitionId);
+            return new PolicyBinding(referredElement, accessPolicyDefinitionId, contractPolicyDefinitionId, includeDescendants);
         }
     }
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.aas.lib.model;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Compact, interned key of an AAS reference to be used in hash based collections. The hash code and equality of an aas4j reference walk its keys on every call, a reference key
+ * stores a canonical path of the reference and its hash code. Keys of equal references are the same instance as long as the key is in use.
+ */
+public final class ReferenceKey {
+
+    // Keys are held weakly, so keys of removed AAS elements are dropped by the garbage collector
+    private static final Map<String, InternedKey> INTERNED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ReferenceKey> COLLECTED = new ReferenceQueue<>();
+
+    private final String path;
+    private final int hash;
+    private final Reference reference;
+
+
+    private ReferenceKey(String path, Reference reference) {
+        this.path = path;
+        this.hash = path.hashCode();
+        this.reference = reference;
+    }
+
+
+    /**
+     * Returns the key of a reference. The reference must not be modified afterward.
+     *
+     * @param reference The reference.
+     * @return The interned key of the reference.
+     */
+    public static ReferenceKey of(@NotNull Reference reference) {
+        return intern(path(Objects.requireNonNull(reference)), reference);
+    }
+
+
+    /**
+     * Returns the key of a reference to a child of an element whose key is already known. Only the path segment of the child's key is built, which saves walking all keys of
+     * the reference when mapping nested elements. The reference must not be modified afterward.
+     *
+     * @param parent Key of the parent's reference.
+     * @param reference The reference to the child, i.e., the parent's reference extended by one key.
+     * @return The interned key of the reference.
+     */
+    public static ReferenceKey of(@NotNull ReferenceKey parent, @NotNull Reference reference) {
+        List<Key> keys = Objects.requireNonNull(reference).getKeys();
+        if (reference.getType() != parent.reference.getType() || keys.size() != parent.reference.getKeys().size() + 1) {
+            return of(reference);
+        }
+        var builder = new StringBuilder(parent.path.length() + 32).append(parent.path);
+        appendKey(builder, keys.get(keys.size() - 1));
+        return intern(builder.toString(), reference);
+    }
+
+
+    private static ReferenceKey intern(String path, Reference reference) {
+        expungeCollected();
+
+        while (true) {
+            InternedKey interned = INTERNED.get(path);
+            ReferenceKey existing = interned == null ? null : interned.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            ReferenceKey created = new ReferenceKey(path, reference);
+            InternedKey createdInterned = new InternedKey(path, created);
+            if (interned == null ? INTERNED.putIfAbsent(path, createdInterned) == null : INTERNED.replace(path, interned, createdInterned)) {
+                return created;
+            }
+        }
+    }
+
+
+    /**
+     * Returns the reference this key was created for.
+     *
+     * @return The reference.
+     */
+    public Reference reference() {
+        return reference;
+    }
+
+
+    /**
+     * Returns the canonical path of the reference consisting of the reference type and the type and value of each key.
+     *
+     * @return The canonical path.
+     */
+    public String path() {
+        return path;
+    }
+
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        return other instanceof ReferenceKey otherKey && hash == otherKey.hash && path.equals(otherKey.path);
+    }
+
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+
+    @Override
+    public String toString() {
+        return path;
+    }
+
+
+    private static String path(Reference reference) {
+        var builder = new StringBuilder().append(reference.getType());
+        for (Key key: reference.getKeys()) {
+            appendKey(builder, key);
+        }
+        return builder.toString();
+    }
+
+
+    private static void appendKey(StringBuilder builder, Key key) {
+        // Separators can't be part of an AAS identifier or idShort
+        builder.append('\u0000').append(key.getType()).append('\u0001').append(key.getValue());
+    }
+
+
+    private static void expungeCollected() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            INTERNED.remove(((InternedKey) collected).path, collected);
+        }
+    }
+
+
+    private static final class InternedKey extends WeakReference<ReferenceKey> {
+        private final String path;
+
+
+        private InternedKey(String path, ReferenceKey key) {
+            super(key, COLLECTED);
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.aas.lib.model;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+
+class ReferenceKeyTest {
+
+    @Test
+    void test_of_equalReferencesInterned() {
+        var key = ReferenceKey.of(reference("submodel", "property"));
+
+        assertSame(key, ReferenceKey.of(reference("submodel", "property")));
+        assertEquals(reference("submodel", "property"), key.reference());
+    }
+
+
+    @Test
+    void test_of_differentReferences() {
+        var key = ReferenceKey.of(reference("submodel", "property"));
+
+        assertNotEquals(key, ReferenceKey.of(reference("submodel", "otherProperty")));
+        assertNotEquals(key, ReferenceKey.of(reference("submodel")));
+        // Values must not be concatenated ambiguously
+        assertNotEquals(ReferenceKey.of(reference("a", "bc")), ReferenceKey.of(reference("ab", "c")));
+    }
+
+
+    @Test
+    void test_of_childSameAsFullPath() {
+        var parent = ReferenceKey.of(reference("submodel", "collection"));
+
+        assertSame(ReferenceKey.of(reference("submodel", "collection", "property")), ReferenceKey.of(parent, reference("submodel", "collection", "property")));
+        // Not a child of the parent, falls back to the full path
+        assertSame(ReferenceKey.of(reference("submodel")), ReferenceKey.of(parent, reference("submodel")));
+    }
+
+
+    @Test
+    void test_policyBinding_equalByReferenceKey() {
+        var policyBinding = new PolicyBinding(reference("submodel", "property"), "access", "contract");
+
+        assertEquals(policyBinding, new PolicyBinding(reference("submodel", "property"), "access", "contract"));
+        assertEquals(policyBinding.hashCode(), new PolicyBinding(reference("submodel", "property"), "access", "contract").hashCode());
+        assertNotEquals(policyBinding, new PolicyBinding(reference("submodel", "property"), "access", "otherContract"));
+    }
+
+
+    private static Reference reference(String submodelId, String... idShortPath) {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value(submodelId).build())
+                .build();
+        List.of(idShortPath).forEach(idShort -> reference.getKeys().add(new DefaultKey.Builder().type(KeyTypes.PROPERTY).value(idShort).build()));
+        return reference;
+    }
+}
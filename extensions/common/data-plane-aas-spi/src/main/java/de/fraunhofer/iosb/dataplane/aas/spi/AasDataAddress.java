@@ -18,6 +18,9 @@ package de.fraunhofer.iosb.dataplane.aas.spi;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
 import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
@@ -32,12 +35,16 @@ import org.eclipse.edc.spi.types.domain.DataAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
 import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toMap;
 import static org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes.ASSET_ADMINISTRATION_SHELL;
 import static org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes.CONCEPT_DESCRIPTION;
@@ -49,6 +56,10 @@ import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
 
 /**
  * Inspired by org.eclipse.edc.connector.dataplane.http.spi.HttpDataAddress Enables more specific communication with AAS services
+ * <p>
+ * Path, reference and additional headers are derived from the properties once and cached. Only changes made through the
+ * {@link Builder} reset these views, properties must not be modified through {@link #getProperties()} after the address
+ * has been read.
  */
 @JsonTypeName
 @JsonDeserialize(builder = DataAddress.Builder.class)
@@ -63,8 +74,31 @@ public class AasDataAddress extends DataAddress {
     public static final String METHOD = EDC_NAMESPACE + "method";
     public static final String REFERENCE = AAS_V30_NAMESPACE + "reference";
     public static final String PATH = EDC_NAMESPACE + "path";
+    public static final String ATTACHMENT = AAS_V30_NAMESPACE + "attachment";
+    public static final String ATTACHMENT_OFFSET = AAS_V30_NAMESPACE + "attachmentOffset";
+    // https://faaast-service.readthedocs.io/en/latest/interfaces/endpoint.html#serialization-modifiers
+    public static final String CONTENT_MODIFIER = AAS_V30_NAMESPACE + "content";
+    public static final String LEVEL = AAS_V30_NAMESPACE + "level";
+    public static final String EXTENT = AAS_V30_NAMESPACE + "extent";
+    // Batch transfers: JSON array of reference strings, all within the reference of the transferred asset
+    public static final String REFERENCES = AAS_V30_NAMESPACE + "references";
+    public static final String BATCH_MODE = AAS_V30_NAMESPACE + "batchMode";
+    public static final String BATCH_MODE_PARTS = "parts";
+    public static final String BATCH_MODE_AGGREGATED = "aggregated";
 
     private static final List<KeyTypes> IDENTIFIABLE_KEY_TYPES = List.of(ASSET_ADMINISTRATION_SHELL, SUBMODEL, CONCEPT_DESCRIPTION);
+    private static final List<String> CONTENT_MODIFIERS = List.of("value", "metadata", "reference", "path");
+    private static final List<String> LEVELS = List.of("core", "deep");
+    private static final List<String> EXTENTS = List.of("withBlobValue", "withoutBlobValue");
+    private static final List<String> BATCH_MODES = List.of(BATCH_MODE_PARTS, BATCH_MODE_AGGREGATED);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+
+    // Views derived from the properties. Computed on first use, reset by the builder whenever a property changes.
+    // Changes through getProperties() bypass the reset and leave stale views.
+    private volatile String path;
+    private volatile Reference reference;
+    private volatile Map<String, String> additionalHeaders;
 
 
     private AasDataAddress() {
@@ -116,6 +150,67 @@ public class AasDataAddress extends DataAddress {
     }
 
 
+    /**
+     * Whether a reference points to the same element as another reference or to one of its descendants.
+     *
+     * @param ancestor The reference of the possible ancestor.
+     * @param reference The reference to check.
+     * @return True if all keys of the ancestor are a prefix of the keys of the reference.
+     */
+    public static boolean isSameOrDescendant(Reference ancestor, Reference reference) {
+        var ancestorKeys = ancestor.getKeys();
+        var keys = reference.getKeys();
+        if (ancestorKeys == null || keys == null || ancestorKeys.isEmpty() || keys.size() < ancestorKeys.size()) {
+            return false;
+        }
+        for (int i = 0; i < ancestorKeys.size(); i++) {
+            if (ancestorKeys.get(i).getType() != keys.get(i).getType() ||
+                    !Objects.equals(ancestorKeys.get(i).getValue(), keys.get(i).getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Validate the serialization modifiers (content, level, extent) of this address. Modifiers address the
+     * representation of the referenced element, so they cannot be combined with an operation invocation or a proxy path.
+     *
+     * @return List of problems, empty if the modifiers are valid or not set.
+     */
+    public List<String> validateModifiers() {
+        List<String> problems = new ArrayList<>();
+        checkAllowed(CONTENT_MODIFIER, CONTENT_MODIFIERS, problems);
+        checkAllowed(LEVEL, LEVELS, problems);
+        checkAllowed(EXTENT, EXTENTS, problems);
+        checkAllowed(BATCH_MODE, BATCH_MODES, problems);
+
+        if (isAttachment() && getStringProperty(CONTENT_MODIFIER) != null) {
+            problems.add("content modifier cannot be combined with attachment");
+        }
+        if (hasModifiers() && (hasProperty(PROXY_OPERATION) || hasProperty(PROXY_PATH))) {
+            problems.add("serialization modifiers and attachment cannot be combined with proxy operation or proxy path");
+        }
+        return problems;
+    }
+
+
+    /**
+     * Validate the serialization modifiers of this address as the destination of a transfer. Modifiers only apply
+     * when reading from an AAS service, so a destination must not contain any.
+     *
+     * @return List of problems, empty if no modifiers are set.
+     */
+    public List<String> validateDestinationModifiers() {
+        List<String> problems = validateModifiers();
+        if (hasModifiers()) {
+            problems.add("serialization modifiers and attachment cannot be used in a destination address");
+        }
+        return problems;
+    }
+
+
     @JsonIgnore
     public String getBaseUrl() {
         return getStringProperty(BASE_URL);
@@ -128,11 +223,163 @@ public class AasDataAddress extends DataAddress {
     }
 
 
+    /**
+     * Returns the additional headers stored in this DataAddress, computed once and cached.
+     *
+     * @return Unmodifiable map of header names to values.
+     */
     @JsonIgnore
     public Map<String, String> getAdditionalHeaders() {
-        return getProperties().entrySet().stream()
-                .filter(entry -> entry.getKey().startsWith(ADDITIONAL_HEADER))
-                .collect(toMap(entry -> entry.getKey().replace(ADDITIONAL_HEADER, ""), it -> String.valueOf(it.getValue())));
+        var headers = additionalHeaders;
+        if (headers == null) {
+            headers = Collections.unmodifiableMap(getProperties().entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(ADDITIONAL_HEADER))
+                    .collect(toMap(entry -> entry.getKey().replace(ADDITIONAL_HEADER, ""), it -> String.valueOf(it.getValue()))));
+            additionalHeaders = headers;
+        }
+        return headers;
+    }
+
+
+    /**
+     * Whether the binary content of a File or Blob element is requested instead of its JSON representation.
+     *
+     * @return True if the attachment endpoint of the referenced element is to be used.
+     */
+    @JsonIgnore
+    public boolean isAttachment() {
+        return Boolean.parseBoolean(getStringProperty(ATTACHMENT));
+    }
+
+
+    /**
+     * Byte offset an attachment transfer starts at. Allows resuming an interrupted attachment transfer.
+     *
+     * @return The offset of the first byte to transfer, 0 if not set.
+     */
+    @JsonIgnore
+    public long getAttachmentOffset() {
+        return Optional.ofNullable(getStringProperty(ATTACHMENT_OFFSET)).map(Long::parseLong).orElse(0L);
+    }
+
+
+    /**
+     * Whether this address requests several elements at once.
+     *
+     * @return True if a list of references is stored in this address.
+     */
+    @JsonIgnore
+    public boolean isBatch() {
+        return getStringProperty(REFERENCES) != null;
+    }
+
+
+    /**
+     * Whether the elements of a batch transfer are to be aggregated into one JSON document instead of one part each.
+     *
+     * @return True if the batch mode is "aggregated".
+     */
+    @JsonIgnore
+    public boolean isAggregated() {
+        return BATCH_MODE_AGGREGATED.equals(getStringProperty(BATCH_MODE));
+    }
+
+
+    /**
+     * Returns the references of a batch transfer.
+     *
+     * @return The references or an empty list if this is no batch address.
+     */
+    @JsonIgnore
+    public List<Reference> getReferences() {
+        var references = getStringProperty(REFERENCES);
+        if (references == null) {
+            return List.of();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(references, new TypeReference<List<String>>() {
+                    }).stream()
+                    .map(referenceString -> (Reference) ReferenceHelper.parseReference(referenceString, DefaultReference.class))
+                    .toList();
+        }
+        catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalStateException("Malformed references in AasDataAddress: %s".formatted(references), e);
+        }
+    }
+
+
+    /**
+     * Returns the addresses of the single elements of a batch transfer.
+     *
+     * @return Map of reference string to element address in the order of the references.
+     */
+    @JsonIgnore
+    public Map<String, AasDataAddress> getElementAddresses() {
+        Map<String, AasDataAddress> elementAddresses = new LinkedHashMap<>();
+        getReferences().forEach(elementReference ->
+                elementAddresses.put(ReferenceHelper.asString(elementReference), forReference(elementReference)));
+        return elementAddresses;
+    }
+
+
+    /**
+     * Validate the references of a batch transfer: Each must point to the element referenced by this address or one of
+     * its descendants, as the agreement only covers this element.
+     *
+     * @return List of problems, empty if this is no batch address or all references are valid.
+     */
+    public List<String> validateBatch() {
+        List<String> problems = new ArrayList<>();
+        if (!isBatch()) {
+            return problems;
+        }
+        if (getStringProperty(REFERENCE) == null) {
+            problems.add("batch transfers require a reference-based data address");
+            return problems;
+        }
+        try {
+            var ancestor = getReference();
+            getReferences().stream()
+                    .filter(elementReference -> !isSameOrDescendant(ancestor, elementReference))
+                    .forEach(elementReference -> problems.add("reference %s is not within %s"
+                            .formatted(ReferenceHelper.asString(elementReference), ReferenceHelper.asString(ancestor))));
+        }
+        catch (IllegalStateException malformedReferences) {
+            problems.add(malformedReferences.getMessage());
+        }
+        return problems;
+    }
+
+
+    /**
+     * Create the address of a single element of a batch transfer. All properties except the batch properties are
+     * retained.
+     *
+     * @param elementReference Reference to the element.
+     * @return Address of the element.
+     */
+    public AasDataAddress forReference(Reference elementReference) {
+        var builder = Builder.newInstance();
+        getProperties().forEach((key, value) -> {
+            if (value != null && !REFERENCES.equals(key) && !BATCH_MODE.equals(key) && !REFERENCE.equals(key)) {
+                builder.property(key, value);
+            }
+        });
+        return builder.reference(elementReference).build();
+    }
+
+
+    /**
+     * Query parameters selecting the level and extent of the serialized AAS element.
+     *
+     * @return Map of query parameter name to value, empty if no modifier is set.
+     */
+    @JsonIgnore
+    public Map<String, String> getQueryParameters() {
+        Map<String, String> queryParameters = new LinkedHashMap<>();
+        Optional.ofNullable(getStringProperty(LEVEL)).ifPresent(level -> queryParameters.put("level", level));
+        Optional.ofNullable(getStringProperty(EXTENT)).ifPresent(extent -> queryParameters.put("extent", extent));
+        return queryParameters;
     }
 
 
@@ -141,51 +388,98 @@ public class AasDataAddress extends DataAddress {
      * <p>
      * build and returns the HTTP URL path required to access this AAS data at the AAS service. Example: Reference: [Submodel x, SubmodelElementCollection y, SubmodelElement z] -->
      * path: submodels/base64(x)/submodel-elements/y.z
+     * <p>
+     * If this address points to an attachment, "/attachment" is appended to the path. If a content modifier is set,
+     * "/$modifier" is appended to the path (e.g., submodels/base64(x)/$value). This applies to explicit paths as well.
      *
      * @return Explicitly defined path or path correlating to reference stored in this DataAddress (no leading '/').
+     * @throws IllegalStateException If the modifiers or, without explicit path, the reference are invalid.
      */
     public String getPath() {
-        // Explicitly stored path takes precedence
+        var aasPath = path;
+        if (aasPath == null) {
+            aasPath = buildPath();
+            path = aasPath;
+        }
+        return aasPath;
+    }
+
+
+    /**
+     * Returns the reference stored in this DataAddress. The returned instance is shared between calls and must not be
+     * modified.
+     *
+     * @return The reference or an empty reference if none is stored.
+     */
+    public Reference getReference() {
+        var aasReference = reference;
+        if (aasReference == null) {
+            aasReference = Optional.ofNullable(getStringProperty(REFERENCE))
+                    .map(referenceString -> ReferenceHelper.parseReference(referenceString, DefaultReference.class))
+                    .orElseGet(DefaultReference::new);
+            reference = aasReference;
+        }
+        return aasReference;
+    }
+
+
+    private String buildPath() {
+        // Explicitly stored path takes precedence, modifiers still apply to it
         String explicitlyStoredPath = getStringProperty(PATH);
         if (explicitlyStoredPath != null) {
-            return explicitlyStoredPath;
+            List<String> problems = validateModifiers();
+            if (!problems.isEmpty()) {
+                throw new IllegalStateException(String.format("Invalid modifiers in AasDataAddress with path %s: %s", explicitlyStoredPath,
+                        String.join(", ", problems)));
+            }
+            return appendModifiers(explicitlyStoredPath.endsWith("/") ?
+                    explicitlyStoredPath.substring(0, explicitlyStoredPath.length() - 1) :
+                    explicitlyStoredPath);
         }
 
-        Reference reference = this.getReference();
+        Reference aasReference = this.getReference();
 
-        List<String> problems = validate(reference);
+        List<String> problems = validate(aasReference);
+        if (isAttachment() && aasReference.getKeys().size() < 2) {
+            problems.add("attachments can only be requested for submodel elements");
+        }
+        problems.addAll(validateModifiers());
         if (!problems.isEmpty()) {
-            throw new IllegalStateException(String.format("Malformed reference in AasDataAddress: %s \n problems:\n\t%s", reference,
+            throw new IllegalStateException(String.format("Malformed reference in AasDataAddress: %s \n problems:\n\t%s", aasReference,
                     String.join("\n\t- ", problems)));
         }
 
-        Key root = ReferenceHelper.getRoot(reference);
+        Key root = ReferenceHelper.getRoot(aasReference);
 
         String path = switch (root.getType()) {
             case SUBMODEL -> "submodels/";
             case ASSET_ADMINISTRATION_SHELL -> "shells/";
             case CONCEPT_DESCRIPTION -> "concept-descriptions/";
-            default -> throw new IllegalStateException(String.format("Malformed reference in AasDataAddress: %s", reference));
+            default -> throw new IllegalStateException(String.format("Malformed reference in AasDataAddress: %s", aasReference));
         };
 
         path = path.concat(Base64.getUrlEncoder().encodeToString(root.getValue().getBytes(StandardCharsets.UTF_8)));
 
-        if (reference.getKeys().size() > 1) {
+        if (aasReference.getKeys().size() > 1) {
             path = path.concat("/submodel-elements/")
-                    .concat(ReferenceHelper.toPath(reference));
+                    .concat(ReferenceHelper.toPath(aasReference));
         }
 
-        return path;
+        return appendModifiers(path);
     }
 
 
-    public Reference getReference() {
-        var referenceString = Optional.ofNullable(getStringProperty(REFERENCE));
-        if (referenceString.isEmpty()) {
-            return new DefaultReference();
+    private String appendModifiers(String path) {
+        if (isAttachment()) {
+            path = path.concat("/attachment");
         }
 
-        return ReferenceHelper.parseReference(getStringProperty(REFERENCE), DefaultReference.class);
+        var contentModifier = getStringProperty(CONTENT_MODIFIER);
+        if (contentModifier != null) {
+            path = path.concat("/$").concat(contentModifier);
+        }
+
+        return path;
     }
 
 
@@ -193,6 +487,13 @@ public class AasDataAddress extends DataAddress {
         HttpDataAddress.Builder httpDataAddress = HttpDataAddress.Builder.newInstance();
         this.getAdditionalHeaders().forEach(httpDataAddress::addAdditionalHeader);
 
+        var queryParameters = this.getQueryParameters();
+        if (!queryParameters.isEmpty()) {
+            httpDataAddress.queryParams(queryParameters.entrySet().stream()
+                    .map(entry -> entry.getKey() + "=" + entry.getValue())
+                    .collect(joining("&")));
+        }
+
         return httpDataAddress
                 .baseUrl(this.getBaseUrl())
                 .method(this.getMethod())
@@ -201,6 +502,26 @@ public class AasDataAddress extends DataAddress {
     }
 
 
+    private void resetDerivedViews() {
+        path = null;
+        reference = null;
+        additionalHeaders = null;
+    }
+
+
+    private boolean hasModifiers() {
+        return isAttachment() || hasProperty(CONTENT_MODIFIER) || hasProperty(LEVEL) || hasProperty(EXTENT);
+    }
+
+
+    private void checkAllowed(String property, List<String> allowed, List<String> problems) {
+        var value = getStringProperty(property);
+        if (value != null && !allowed.contains(value)) {
+            problems.add("%s must be one of %s but was %s".formatted(property, allowed, value));
+        }
+    }
+
+
     @JsonPOJOBuilder(withPrefix = "")
     public static final class Builder extends DataAddress.Builder<AasDataAddress, Builder> {
 
@@ -217,6 +538,13 @@ public class AasDataAddress extends DataAddress {
         }
 
 
+        @Override
+        public Builder property(String key, Object value) {
+            address.resetDerivedViews();
+            return super.property(key, value);
+        }
+
+
         public Builder baseUrl(String baseUrl) {
             this.property(BASE_URL, baseUrl);
             return this;
@@ -265,6 +593,74 @@ public class AasDataAddress extends DataAddress {
         }
 
 
+        public Builder attachment(boolean attachment) {
+            this.property(ATTACHMENT, String.valueOf(attachment));
+            return this;
+        }
+
+
+        public Builder attachmentOffset(long attachmentOffset) {
+            this.property(ATTACHMENT_OFFSET, String.valueOf(attachmentOffset));
+            return this;
+        }
+
+
+        /**
+         * Request only a projection of the referenced element, see
+         * <a href="https://faaast-service.readthedocs.io/en/latest/interfaces/endpoint.html#serialization-modifiers">serialization modifiers</a>.
+         *
+         * @param contentModifier One of value, metadata, reference, path.
+         * @return the builder
+         */
+        public Builder contentModifier(String contentModifier) {
+            this.property(CONTENT_MODIFIER, contentModifier);
+            return this;
+        }
+
+
+        public Builder level(String level) {
+            this.property(LEVEL, level);
+            return this;
+        }
+
+
+        public Builder extent(String extent) {
+            this.property(EXTENT, extent);
+            return this;
+        }
+
+
+        /**
+         * Request several elements in one transfer. Each reference is validated like {@link #reference(Reference)}.
+         *
+         * @param references References to the requested elements.
+         * @return the builder
+         */
+        public Builder references(List<Reference> references) {
+            references.forEach(reference -> {
+                List<String> problems = validate(reference);
+                if (!problems.isEmpty()) {
+                    throw new IllegalStateException(String.format("AasDataAddress.Builder received malformed reference: %s \n problems:\n\t%s", reference,
+                            String.join("\n\t", problems)));
+                }
+            });
+
+            try {
+                this.property(REFERENCES, OBJECT_MAPPER.writeValueAsString(references.stream().map(ReferenceHelper::asString).toList()));
+            }
+            catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Could not serialize references", e);
+            }
+            return this;
+        }
+
+
+        public Builder batchMode(String batchMode) {
+            this.property(BATCH_MODE, batchMode);
+            return this;
+        }
+
+
         /**
          * As we only store the reference for this element and do not know the information of the parent element, the "value" of each key cannot be null. In case no idShort exists,
          * the value must be the list indexer.
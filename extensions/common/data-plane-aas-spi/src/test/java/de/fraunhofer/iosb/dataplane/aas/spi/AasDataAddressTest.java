@@ -10,9 +10,15 @@ import org.junit.jupiter.api.Test;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 class AasDataAddressTest {
@@ -116,6 +122,168 @@ class AasDataAddressTest {
     }
 
 
+    @Test
+    void test_build_returnAttachmentPath() {
+        String smId = "sm";
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(getKey(KeyTypes.SUBMODEL, smId), getKey(KeyTypes.FILE, "cad")))
+                .build();
+
+        var address = AasDataAddress.Builder.newInstance().reference(reference).attachment(true).build();
+
+        assertEquals("submodels/%s/submodel-elements/cad/attachment".formatted(Encoder.encodeBase64(smId)),
+                address.getPath());
+    }
+
+
+    @Test
+    void test_build_attachmentOfIdentifiableThrows() {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(getKey(KeyTypes.SUBMODEL, "sm"))
+                .build();
+
+        var address = AasDataAddress.Builder.newInstance().reference(reference).attachment(true).build();
+
+        assertThrows(IllegalStateException.class, address::getPath);
+    }
+
+
+    @Test
+    void test_build_returnValueOnlyPathAndModifiers() {
+        String smId = "sm";
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(getKey(KeyTypes.SUBMODEL, smId), getKey(KeyTypes.PROPERTY, "temperature")))
+                .build();
+
+        var address = AasDataAddress.Builder.newInstance()
+                .reference(reference)
+                .contentModifier("value")
+                .level("core")
+                .extent("withoutBlobValue")
+                .build();
+
+        assertEquals("submodels/%s/submodel-elements/temperature/$value".formatted(Encoder.encodeBase64(smId)),
+                address.getPath());
+        assertEquals(Map.of("level", "core", "extent", "withoutBlobValue"), address.getQueryParameters());
+    }
+
+
+    @Test
+    void test_build_invalidContentModifierThrows() {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(getKey(KeyTypes.SUBMODEL, "sm"))
+                .build();
+
+        var address = AasDataAddress.Builder.newInstance().reference(reference).contentModifier("values").build();
+
+        assertThrows(IllegalStateException.class, address::getPath);
+    }
+
+
+    @Test
+    void test_build_explicitPathWithModifiers() {
+        var valueOnly = AasDataAddress.Builder.newInstance().path("submodels/c20/submodel-elements/temperature/")
+                .contentModifier("value")
+                .build();
+        var attachment = AasDataAddress.Builder.newInstance().path("submodels/c20/submodel-elements/manual")
+                .attachment(true)
+                .build();
+        var invalid = AasDataAddress.Builder.newInstance().path("submodels/c20")
+                .contentModifier("values")
+                .build();
+
+        assertEquals("submodels/c20/submodel-elements/temperature/$value", valueOnly.getPath());
+        assertEquals("submodels/c20/submodel-elements/manual/attachment", attachment.getPath());
+        assertThrows(IllegalStateException.class, invalid::getPath);
+    }
+
+
+    @Test
+    void test_validateModifiers_rejectsProxyCombinations() {
+        var withOperation = AasDataAddress.Builder.newInstance().path("submodels/c20/submodel-elements/op")
+                .proxyOperation("{}")
+                .contentModifier("value")
+                .build();
+        var withProxyPath = AasDataAddress.Builder.newInstance().path("submodels/c20")
+                .proxyPath("submodel-elements/temperature")
+                .attachment(true)
+                .build();
+        var proxyOnly = AasDataAddress.Builder.newInstance().path("submodels/c20")
+                .proxyPath("submodel-elements/temperature")
+                .build();
+
+        assertFalse(withOperation.validateModifiers().isEmpty());
+        assertThrows(IllegalStateException.class, withOperation::getPath);
+        assertFalse(withProxyPath.validateModifiers().isEmpty());
+        assertThrows(IllegalStateException.class, withProxyPath::getPath);
+        assertTrue(proxyOnly.validateModifiers().isEmpty());
+    }
+
+
+    @Test
+    void test_validateDestinationModifiers() {
+        var withModifier = AasDataAddress.Builder.newInstance().path("submodels/c20")
+                .level("core")
+                .build();
+        var plain = AasDataAddress.Builder.newInstance().path("submodels/c20").build();
+
+        assertTrue(withModifier.validateModifiers().isEmpty());
+        assertFalse(withModifier.validateDestinationModifiers().isEmpty());
+        assertTrue(plain.validateDestinationModifiers().isEmpty());
+    }
+
+
+    @Test
+    void test_getPath_memoizedUntilPropertyChanges() {
+        var builder = AasDataAddress.Builder.newInstance()
+                .reference(new DefaultReference.Builder()
+                        .type(ReferenceTypes.MODEL_REFERENCE)
+                        .keys(getKey(KeyTypes.SUBMODEL, "sm"))
+                        .build())
+                .additionalHeaders(Map.of("x-api-key", "a"));
+        var address = builder.build();
+
+        var path = address.getPath();
+        assertSame(path, address.getPath());
+        assertSame(address.getReference(), address.getReference());
+        assertSame(address.getAdditionalHeaders(), address.getAdditionalHeaders());
+
+        builder.contentModifier("value").additionalHeaders(Map.of("x-api-key", "b"));
+
+        assertEquals(path + "/$value", address.getPath());
+        assertEquals(Map.of("x-api-key", "b"), address.getAdditionalHeaders());
+    }
+
+
+    @Test
+    void test_validateBatch_rejectsReferencesOutsideOfAddress() {
+        var submodel = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(getKey(KeyTypes.SUBMODEL, "sm"))
+                .build();
+        var inside = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(getKey(KeyTypes.SUBMODEL, "sm"), getKey(KeyTypes.PROPERTY, "p")))
+                .build();
+        var outside = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(getKey(KeyTypes.SUBMODEL, "other"), getKey(KeyTypes.PROPERTY, "p")))
+                .build();
+
+        var valid = AasDataAddress.Builder.newInstance().reference(submodel).references(List.of(inside)).build();
+        var invalid = AasDataAddress.Builder.newInstance().reference(submodel).references(List.of(inside, outside)).build();
+
+        assertTrue(valid.validateBatch().isEmpty());
+        assertEquals(1, invalid.validateBatch().size());
+        assertEquals(List.of("submodels/%s/submodel-elements/p".formatted(Encoder.encodeBase64("sm"))),
+                valid.getElementAddresses().values().stream().map(AasDataAddress::getPath).toList());
+    }
+
+
     private Key getKey(KeyTypes keyType, String idShort) {
         return new DefaultKey.Builder()
                 .type(keyType)
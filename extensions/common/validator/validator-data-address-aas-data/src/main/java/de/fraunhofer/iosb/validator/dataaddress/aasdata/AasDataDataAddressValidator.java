@@ -38,6 +38,25 @@ import static org.eclipse.edc.validator.spi.Violation.violation;
 public class AasDataDataAddressValidator implements Validator<DataAddress> {
 
     private final List<String> allowedMethods = List.of("GET", "POST", "PUT", "DELETE", "PATCH");
+    private final boolean destination;
+
+
+    /**
+     * Validator for source addresses.
+     */
+    public AasDataDataAddressValidator() {
+        this(false);
+    }
+
+
+    /**
+     * Validator for source or destination addresses.
+     *
+     * @param destination Whether destination addresses are validated. These must not contain serialization modifiers.
+     */
+    public AasDataDataAddressValidator(boolean destination) {
+        this.destination = destination;
+    }
 
 
     @Override
@@ -59,8 +78,16 @@ public class AasDataDataAddressValidator implements Validator<DataAddress> {
 
         String path;
         if (dataAddress.getType().equalsIgnoreCase(AAS_DATA_TYPE)) {
+            var aasDataAddress = AasDataAddress.Builder.newInstance().copyFrom(dataAddress).build();
+            var modifierProblems = destination ?
+                    aasDataAddress.validateDestinationModifiers() :
+                    aasDataAddress.validateModifiers();
+            if (!modifierProblems.isEmpty()) {
+                var violation = violation(String.join(", ", modifierProblems), "modifiers", baseUrl);
+                return ValidationResult.failure(violation);
+            }
             try {
-                path = AasDataAddress.Builder.newInstance().copyFrom(dataAddress).build().getPath();
+                path = aasDataAddress.getPath();
             }
             catch (IllegalStateException illegalStateException) {
                 var violation = violation(illegalStateException.getMessage(), "path", baseUrl);
@@ -35,8 +35,9 @@ public class AasDataDataAddressValidatorExtension implements ServiceExtension {
 
     @Override
     public void initialize(ServiceExtensionContext context) {
-        var validator = new AasDataDataAddressValidator();
-        dataAddressValidatorRegistry.registerSourceValidator(AasDataAddress.AAS_DATA_TYPE, validator);
-        dataAddressValidatorRegistry.registerDestinationValidator(AasDataAddress.AAS_DATA_TYPE, validator);
+        dataAddressValidatorRegistry.registerSourceValidator(AasDataAddress.AAS_DATA_TYPE,
+                new AasDataDataAddressValidator(false));
+        dataAddressValidatorRegistry.registerDestinationValidator(AasDataAddress.AAS_DATA_TYPE,
+                new AasDataDataAddressValidator(true));
     }
 }
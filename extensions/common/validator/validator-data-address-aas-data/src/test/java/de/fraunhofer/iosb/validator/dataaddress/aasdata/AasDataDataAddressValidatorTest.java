@@ -56,6 +56,46 @@ class AasDataDataAddressValidatorTest {
     }
 
 
+    @Test
+    void shouldFail_whenAasDataLevelNotValid() {
+        var dataAddress = AasDataAddress.Builder.newInstance()
+                .baseUrl("http://this.is/valid/url")
+                .path("path")
+                .level("shallow")
+                .build();
+
+        var result = validator.validate(dataAddress);
+
+        assertTrue(result.failed());
+    }
+
+
+    @Test
+    void shouldFail_whenDestinationHasModifiers() {
+        var dataAddress = AasDataAddress.Builder.newInstance()
+                .baseUrl("http://this.is/valid/url")
+                .path("path")
+                .contentModifier("value")
+                .build();
+
+        assertTrue(validator.validate(dataAddress).succeeded());
+        assertTrue(new AasDataDataAddressValidator(true).validate(dataAddress).failed());
+    }
+
+
+    @Test
+    void shouldFail_whenModifierCombinedWithProxyOperation() {
+        var dataAddress = AasDataAddress.Builder.newInstance()
+                .baseUrl("http://this.is/valid/url")
+                .path("path")
+                .proxyOperation("{}")
+                .contentModifier("value")
+                .build();
+
+        assertTrue(validator.validate(dataAddress).failed());
+    }
+
+
     @Test
     void shouldFail_whenAasDataBaseUriNotValid() {
         var dataAddress = DataAddress.Builder.newInstance()
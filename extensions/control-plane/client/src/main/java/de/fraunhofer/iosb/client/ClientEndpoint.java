@@ -25,7 +25,6 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractRequest;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.offer.ContractOffer;
 import org.eclipse.edc.spi.monitor.Monitor;
@@ -33,8 +32,14 @@ import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.types.domain.DataAddress;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 import static org.eclipse.edc.protocol.dsp.http.spi.types.HttpMessageProtocol.DATASPACE_PROTOCOL_HTTP;
 
@@ -57,6 +62,7 @@ public class ClientEndpoint {
     public static final String MISSING_REQUEST_BODY_MESSAGE = "Missing request body of type %s";
     private static final String NEGOTIATE_CONTRACT_PATH = "negotiateContract";
     private static final String NEGOTIATE_PATH = "negotiate";
+    private static final String NEGOTIATE_BULK_PATH = "negotiateBulk";
     private final Monitor monitor;
 
     private final NegotiationController negotiationController;
@@ -86,15 +92,15 @@ public class ClientEndpoint {
      */
     @POST
     @Path(NEGOTIATE_PATH)
-    public Response negotiateContract(@QueryParam("providerUrl") URI counterPartyUri,
-                                      @QueryParam("providerId") String counterPartyId,
-                                      @QueryParam("assetId") String assetId,
-                                      DataAddress dataAddress) {
+    public CompletionStage<Response> negotiateContract(@QueryParam("providerUrl") URI counterPartyUri,
+                                                       @QueryParam("providerId") String counterPartyId,
+                                                       @QueryParam("assetId") String assetId,
+                                                       DataAddress dataAddress) {
         monitor.info("POST /%s".formatted(NEGOTIATE_PATH));
         if (counterPartyUri == null || counterPartyId == null || assetId == null ||
                 assetId.isEmpty()) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(MISSING_QUERY_PARAMETER_MESSAGE.formatted("providerUrl, providerId, assetId")).build();
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(MISSING_QUERY_PARAMETER_MESSAGE.formatted("providerUrl, providerId, assetId")).build());
         }
 
         Result<ContractOffer> contractOfferResult =
@@ -103,9 +109,9 @@ public class ClientEndpoint {
         if (contractOfferResult.failed()) {
             monitor.severe("Getting policies failed for provider %s and asset %s: %s".formatted(
                     counterPartyUri, assetId, contractOfferResult.getFailureDetail()));
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+            return CompletableFuture.completedFuture(Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity(contractOfferResult.getFailureDetail())
-                    .build();
+                    .build());
         }
 
         var contractRequest = ContractRequest.Builder.newInstance()
@@ -114,16 +120,82 @@ public class ClientEndpoint {
                 .contractOffer(contractOfferResult.getContent())
                 .build();
 
-        Result<ContractAgreement> agreementResult = negotiationController.negotiateContract(contractRequest);
+        // Continue off the thread that completed the negotiation (e.g., the negotiation state machine)
+        return negotiationController.negotiateContract(contractRequest)
+                .thenComposeAsync(agreementResult -> {
+                    if (agreementResult.failed()) {
+                        monitor.severe("Negotiation failed for provider %s and contractOffer %s: %s".formatted(
+                                counterPartyUri, contractOfferResult.getContent().getId(),
+                                agreementResult.getFailureDetail()));
+
+                        return CompletableFuture.completedFuture(
+                                Response.serverError().entity(agreementResult.getFailureDetail()).build());
+                    }
+
+                    return transferController.getData(counterPartyUri, agreementResult.getContent().getId(),
+                            dataAddress);
+                });
+    }
+
+
+    /**
+     * Negotiate contract agreements for several assets of one provider. The provider's catalog is requested once and
+     * the negotiations run in parallel.
+     *
+     * @param counterPartyUri Provider EDCs URI (DSP endpoint)
+     * @param counterPartyId Provider EDCs ID
+     * @param assetIds IDs of the assets to negotiate
+     * @return Per asset ID either its agreementId or the reason of failure, in order of completion
+     */
+    @POST
+    @Path(NEGOTIATE_BULK_PATH)
+    public CompletionStage<Response> negotiateContracts(@QueryParam("providerUrl") URI counterPartyUri,
+                                                        @QueryParam("providerId") String counterPartyId,
+                                                        String[] assetIds) {
+        monitor.info("POST /%s".formatted(NEGOTIATE_BULK_PATH));
+        if (counterPartyUri == null || counterPartyId == null) {
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(MISSING_QUERY_PARAMETER_MESSAGE.formatted("providerUrl, providerId")).build());
+        }
+        if (assetIds == null || assetIds.length == 0) {
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(MISSING_REQUEST_BODY_MESSAGE.formatted("String[]")).build());
+        }
 
-        if (agreementResult.failed()) {
-            monitor.severe("Negotiation failed for provider %s and contractOffer %s: %s".formatted(
-                    counterPartyUri, contractOfferResult.getContent().getId(), agreementResult.getFailureDetail()));
+        var offersResult = policyController.getAcceptableContractOffersForAssetIds(counterPartyId, counterPartyUri,
+                new LinkedHashSet<>(List.of(assetIds)));
 
-            return Response.serverError().entity(agreementResult.getFailureDetail()).build();
+        if (offersResult.failed()) {
+            monitor.severe("Getting policies failed for provider %s: %s".formatted(
+                    counterPartyUri, offersResult.getFailureDetail()));
+            return CompletableFuture.completedFuture(Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity(offersResult.getFailureDetail())
+                    .build());
         }
 
-        return transferController.getData(counterPartyUri, agreementResult.getContent().getId(), dataAddress);
+        var results = new LinkedHashMap<String, Map<String, String>>();
+        var contractRequests = new ArrayList<ContractRequest>();
+        offersResult.getContent().forEach((assetId, offerResult) -> {
+            if (offerResult.failed()) {
+                results.put(assetId, Map.of("error", offerResult.getFailureDetail()));
+            }
+            else {
+                contractRequests.add(ContractRequest.Builder.newInstance()
+                        .protocol(DATASPACE_PROTOCOL_HTTP)
+                        .counterPartyAddress(counterPartyUri.toString())
+                        .contractOffer(offerResult.getContent())
+                        .build());
+            }
+        });
+
+        return negotiationController.negotiateContracts(contractRequests)
+                .thenApply(agreementResults -> {
+                    agreementResults.forEach((assetId, agreementResult) -> results.put(assetId,
+                            agreementResult.succeeded() ?
+                                    Map.of("agreementId", agreementResult.getContent().getId()) :
+                                    Map.of("error", agreementResult.getFailureDetail())));
+                    return Response.ok(results).build();
+                });
     }
 
 
@@ -135,24 +207,25 @@ public class ClientEndpoint {
      */
     @POST
     @Path(NEGOTIATE_CONTRACT_PATH)
-    public Response negotiateContract(ContractRequest contractRequest) {
+    public CompletionStage<Response> negotiateContract(ContractRequest contractRequest) {
         monitor.info("POST /%s".formatted(NEGOTIATE_CONTRACT_PATH));
         if (Objects.isNull(contractRequest)) {
-            return Response.status(Response.Status.BAD_REQUEST)
-                    .entity(MISSING_REQUEST_BODY_MESSAGE.formatted("ContractRequest")).build();
-        }
-
-        Result<ContractAgreement> agreementResult = negotiationController.negotiateContract(contractRequest);
-
-        if (agreementResult.failed()) {
-            monitor.severe("Negotiation failed for provider %s and contractOffer %s: %s".formatted(
-                    contractRequest.getProviderId(), contractRequest.getContractOffer().getId(),
-                    agreementResult.getFailureDetail()));
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                    .entity(agreementResult.getFailureDetail()).build();
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
+                    .entity(MISSING_REQUEST_BODY_MESSAGE.formatted("ContractRequest")).build());
         }
 
-        return Response.ok(Map.of("agreementId", agreementResult.getContent().getId())).build();
+        return negotiationController.negotiateContract(contractRequest)
+                .thenApply(agreementResult -> {
+                    if (agreementResult.failed()) {
+                        monitor.severe("Negotiation failed for provider %s and contractOffer %s: %s".formatted(
+                                contractRequest.getProviderId(), contractRequest.getContractOffer().getId(),
+                                agreementResult.getFailureDetail()));
+                        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                .entity(agreementResult.getFailureDetail()).build();
+                    }
+
+                    return Response.ok(Map.of("agreementId", agreementResult.getContent().getId())).build();
+                });
     }
 
 
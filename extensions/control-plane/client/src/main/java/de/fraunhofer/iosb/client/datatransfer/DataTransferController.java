@@ -38,11 +38,13 @@ import org.eclipse.edc.spi.system.configuration.Config;
 import org.eclipse.edc.spi.types.domain.DataAddress;
 import org.eclipse.edc.web.spi.WebService;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -57,9 +59,11 @@ public class DataTransferController {
     static final String DATA_TRANSFER_API_KEY = "data-transfer-api-key";
     static final String TRANSFER_PATH = "transfer";
     private static final int WAIT_FOR_TRANSFER_TIMEOUT_DEFAULT = 20;
+    private static final long TRANSFER_MEMORY_THRESHOLD_DEFAULT = 1024 * 1024;
+    private static final long MAX_TRANSFER_SIZE_DEFAULT = 1024L * 1024 * 1024;
     private final Config config;
 
-    private final DataTransferObservable<String> dataTransferObservable;
+    private final DataTransferObservable<TransferredData> dataTransferObservable;
     private final TransferInitiator transferInitiator;
     private final Monitor monitor;
 
@@ -90,7 +94,9 @@ public class DataTransferController {
         transferInitiator = new TransferInitiator(monitor, config, hostname, transferProcessManager, participantContext);
         dataTransferEndpointManager = new DataTransferEndpointManager(publicApiManagementService);
         dataTransferObservable = new DataTransferObservable<>(monitor);
-        var dataTransferEndpoint = new DataTransferEndpoint(monitor, dataTransferObservable);
+        var dataTransferEndpoint = new DataTransferEndpoint(monitor, dataTransferObservable,
+                this.config.getLong("transferMemoryThreshold", TRANSFER_MEMORY_THRESHOLD_DEFAULT),
+                this.config.getLong("maxTransferSize", MAX_TRANSFER_SIZE_DEFAULT));
         nonNullNonEmptyObjectMapper = new ObjectMapper()
                 .setDefaultPropertyInclusion(
                         JsonInclude.Value.construct(
@@ -105,7 +111,8 @@ public class DataTransferController {
 
     /**
      * Submits a data transfer request to the providerUrl. In the future this could be replaced with the
-     * <a href="https://www.ietf.org/archive/id/draft-ietf-httpbis-safe-method-w-body-02.html">HTTP QUERY method</a>
+     * <a href="https://www.ietf.org/archive/id/draft-ietf-httpbis-safe-method-w-body-02.html">HTTP QUERY method</a>.
+     * The request thread is released while waiting for the provider's data.
      *
      * @param providerUrl The data provider's url
      * @param agreementId The basis of the data transfer.
@@ -114,52 +121,76 @@ public class DataTransferController {
      */
     @POST
     @Path(TRANSFER_PATH)
-    public Response getData(@QueryParam("providerUrl") URI providerUrl,
-                            @QueryParam("agreementId") String agreementId,
-                            DataAddress dataAddress) {
+    public CompletionStage<Response> getData(@QueryParam("providerUrl") URI providerUrl,
+                                             @QueryParam("agreementId") String agreementId,
+                                             DataAddress dataAddress) {
         monitor.info("POST /%s".formatted(TRANSFER_PATH));
         if (providerUrl == null || agreementId == null) {
-            return Response.status(Response.Status.BAD_REQUEST)
+            return CompletableFuture.completedFuture(Response.status(Response.Status.BAD_REQUEST)
                     .entity(MISSING_QUERY_PARAMETER_MESSAGE.formatted("providerUrl, agreementId"))
-                    .build();
+                    .build());
         }
         monitor.debug("providerUrl: %s".formatted(providerUrl.toString()));
         monitor.debug("agreementId: %s".formatted(agreementId));
 
-        try {
-            if (dataAddress == null) {
-                var tpResult = initiateTransferProcess(providerUrl, agreementId);
-                return tpResult.succeeded() ? Response.ok(tpResult.getContent()).build() :
-                        Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                                .entity(tpResult.getFailureDetail())
-                                .build();
-            }
+        if (dataAddress == null) {
+            return initiateTransferProcess(providerUrl, agreementId)
+                    .thenApply(tpResult -> tpResult.succeeded() ? toResponse(tpResult.getContent()) :
+                            Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                                    .entity(tpResult.getFailureDetail())
+                                    .build())
+                    .exceptionally(failure -> transferFailed(providerUrl, agreementId, failure));
+        }
 
-            var op = dataAddress.getProperties().get("operation");
-            if (op != null) {
-                try {
-                    dataAddress = serializeOperation(dataAddress);
-                }
-                catch (JsonProcessingException e) {
-                    // Operation invocation is required by client -> return
-                    return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
-                }
+        var op = dataAddress.getProperties().get("operation");
+        if (op != null) {
+            try {
+                dataAddress = serializeOperation(dataAddress);
+            }
+            catch (JsonProcessingException e) {
+                // Operation invocation is required by client -> return
+                return CompletableFuture.completedFuture(
+                        Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
             }
+        }
 
-            var dataResult = initiateTransferProcess(providerUrl, agreementId, dataAddress);
+        var dataResult = initiateTransferProcess(providerUrl, agreementId, dataAddress);
 
-            if (dataResult.succeeded()) {
-                return Response.ok(dataResult.getContent()).build();
-            }
-            return Response.status(Response.Status.EXPECTATION_FAILED).entity(dataResult.getFailureDetail()).build();
+        if (dataResult.succeeded()) {
+            return CompletableFuture.completedFuture(Response.ok().build());
+        }
+        return CompletableFuture.completedFuture(
+                Response.status(Response.Status.EXPECTATION_FAILED).entity(dataResult.getFailureDetail()).build());
+    }
+
+
+    private Response transferFailed(URI providerUrl, String agreementId, Throwable failure) {
+        var cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        monitor.severe("Data transfer failed for provider %s and agreementId %s".formatted(providerUrl,
+                agreementId), cause);
+        return Response.serverError()
+                .entity(Objects.requireNonNullElse(cause.getMessage(), "No error message"))
+                .build();
+    }
+
+
+    /* Stream received data back to the caller without buffering it again */
+    private Response toResponse(TransferredData data) {
+        if (data == null) {
+            return Response.ok().build();
+        }
+        return Response.ok(data.asStreamingOutput(), data.mediaType()).build();
+    }
 
+
+    private void discardIfUnwritten(TransferredData data, String agreementId) {
+        try {
+            if (data.discardIfUnwritten()) {
+                monitor.warning("Discarded data of agreement %s: It was not sent to the client in time".formatted(agreementId));
+            }
         }
-        catch (InterruptedException | ExecutionException futureException) {
-            monitor.severe("Data transfer failed for provider %s and agreementId %s".formatted(providerUrl,
-                    agreementId), futureException);
-            return Response.serverError()
-                    .entity(futureException.getMessage())
-                    .build();
+        catch (IOException e) {
+            monitor.warning("Could not delete spooled data of agreement %s".formatted(agreementId), e);
         }
     }
 
@@ -180,31 +211,24 @@ public class DataTransferController {
 
 
     /**
-     * Initiates the transfer process defined by the arguments. The data of the transfer will be sent to {@link DataTransferEndpoint#RECEIVE_DATA_PATH}.
+     * Initiates the transfer process defined by the arguments. The data of the transfer will be sent to the given data
+     * sink, so there is nothing to wait for.
      *
      * @param providerUri The provider from whom the data is to be fetched.
      * @param agreementId Non-null ContractAgreement of the negotiation process.
-     * @param dataSinkAddress DataAddress the result of the transfer should be sent to. (If null, send to extension and print in log)
-     * @return StatusResult containing error message or data or null on remote destination address
-     * @throws InterruptedException If the data transfer was interrupted
-     * @throws ExecutionException If the data transfer process failed
+     * @param dataSinkAddress Non-null DataAddress the result of the transfer should be sent to.
+     * @return StatusResult containing null as there is no data to wait for
      */
-    private StatusResult<String> initiateTransferProcess(URI providerUri, String agreementId,
-                                                         DataAddress dataSinkAddress)
-            throws InterruptedException, ExecutionException {
-        if (dataSinkAddress == null) {
-            return initiateTransferProcess(providerUri, agreementId);
-        }
-
+    private StatusResult<Void> initiateTransferProcess(URI providerUri, String agreementId,
+                                                       DataAddress dataSinkAddress) {
         transferInitiator.initiateTransferProcess(providerUri, agreementId, dataSinkAddress);
         // Don't have to wait for data
         return StatusResult.success(null);
     }
 
 
-    /* Send result of transferProcess to extension endpoint */
-    private StatusResult<String> initiateTransferProcess(URI providerUri, String agreementId)
-            throws ExecutionException, InterruptedException {
+    /* Send result of transferProcess to extension endpoint, see DataTransferEndpoint#RECEIVE_DATA_PATH */
+    private CompletableFuture<StatusResult<TransferredData>> initiateTransferProcess(URI providerUri, String agreementId) {
         // Prepare for incoming data
         var providerDataFuture = dataTransferObservable.register(agreementId);
 
@@ -213,26 +237,39 @@ public class DataTransferController {
 
         var initiateResult = transferInitiator.initiateTransferProcess(providerUri, agreementId, apiKey);
 
-        return initiateResult.succeeded() ? waitForProviderData(providerDataFuture, agreementId) :
-                StatusResult.failure(initiateResult.getFailure().status(), initiateResult.getFailureDetail());
+        if (initiateResult.failed()) {
+            dataTransferObservable.unregister(agreementId);
+            return CompletableFuture.completedFuture(
+                    StatusResult.failure(initiateResult.getFailure().status(), initiateResult.getFailureDetail()));
+        }
+        return waitForProviderData(providerDataFuture, agreementId);
     }
 
 
-    private StatusResult<String> waitForProviderData(CompletableFuture<String> dataFuture, String agreementId)
-            throws InterruptedException, ExecutionException {
+    private CompletableFuture<StatusResult<TransferredData>> waitForProviderData(
+            CompletableFuture<TransferredData> dataFuture, String agreementId) {
+        // Fetch TransferTimeout everytime to adapt to runtime config changes
         var waitForTransferTimeout = config.getInteger("waitForTransferTimeout",
                 WAIT_FOR_TRANSFER_TIMEOUT_DEFAULT);
-        try {
-            // Fetch TransferTimeout everytime to adapt to runtime config changes
-            var providerData = dataFuture.get(waitForTransferTimeout, TimeUnit.SECONDS);
-            dataTransferObservable.unregister(agreementId);
-            return StatusResult.success(providerData);
-        }
-        catch (TimeoutException futureException) {
-            dataTransferObservable.unregister(agreementId);
 
-            var errorMessage = Objects.requireNonNullElse(futureException.getMessage(), "No error message");
-            return StatusResult.failure(ResponseStatus.FATAL_ERROR, errorMessage);
-        }
+        // The observer is removed in any case. Data arriving after the timeout is discarded by the endpoint.
+        return dataFuture.orTimeout(waitForTransferTimeout, TimeUnit.SECONDS)
+                .handle((providerData, failure) -> {
+                    dataTransferObservable.unregister(agreementId);
+                    if (failure == null) {
+                        if (providerData != null && providerData.isSpooled()) {
+                            // The spool file is deleted after the response is written. If that never happens, e.g.,
+                            // because the client disconnected, delete it after another timeout period.
+                            CompletableFuture.delayedExecutor(waitForTransferTimeout, TimeUnit.SECONDS)
+                                    .execute(() -> discardIfUnwritten(providerData, agreementId));
+                        }
+                        return StatusResult.success(providerData);
+                    }
+                    if (failure instanceof TimeoutException) {
+                        return StatusResult.failure(ResponseStatus.FATAL_ERROR,
+                                "Timed out while waiting for data of agreement %s".formatted(agreementId));
+                    }
+                    throw new CompletionException(failure);
+                });
     }
 }
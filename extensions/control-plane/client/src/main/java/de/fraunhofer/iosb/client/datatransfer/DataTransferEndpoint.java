@@ -17,14 +17,18 @@ package de.fraunhofer.iosb.client.datatransfer;
 
 import de.fraunhofer.iosb.client.ClientEndpoint;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.edc.spi.monitor.Monitor;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Objects;
 
 import static java.lang.String.format;
@@ -47,30 +51,78 @@ public class DataTransferEndpoint {
     static final String RECEIVE_DATA_PATH = "receiveData";
 
     private final Monitor monitor;
-    private final DataTransferObservable<String> observable;
+    private final DataTransferObservable<TransferredData> observable;
+    private final long memoryThreshold;
+    private final long maxSize;
 
 
-    DataTransferEndpoint(Monitor monitor, DataTransferObservable<String> dataTransferObservable) {
+    DataTransferEndpoint(Monitor monitor, DataTransferObservable<TransferredData> dataTransferObservable,
+                         long memoryThreshold, long maxSize) {
         this.monitor = monitor;
         this.observable = dataTransferObservable;
+        this.memoryThreshold = memoryThreshold;
+        this.maxSize = maxSize;
     }
 
 
     /**
-     * Receive data of an agreement.
+     * Receive data of an agreement. The data is streamed into memory or, if larger than the memory threshold, into a
+     * temporary file. The body is only read if somebody is still waiting for the data.
      *
      * @param agreementId The agreement ID corresponding to the data in the request body.
+     * @param contentType The content type of the request body.
      * @param requestBody The asset data of a transfer request.
-     * @return OK as response.
+     * @return OK as response, NOT_FOUND if nobody waits for data of the agreement, CONFLICT if the data was already
+     *         received.
      */
     @POST
     @Path("receiveData/{agreement}")
-    public Response receiveData(@PathParam("agreement") String agreementId, String requestBody) {
+    public Response receiveData(@PathParam("agreement") String agreementId,
+                                @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                InputStream requestBody) {
         monitor.info(format("Receiving data for agreement %s...", agreementId));
         Objects.requireNonNull(agreementId);
         Objects.requireNonNull(requestBody);
-        observable.update(agreementId, requestBody);
+
+        if (!observable.isRegistered(agreementId)) {
+            monitor.warning(format("Rejected data for unknown agreement %s", agreementId));
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        if (observable.isCompleted(agreementId)) {
+            monitor.warning(format("Rejected data for agreement %s: Data was already received", agreementId));
+            return Response.status(Response.Status.CONFLICT).build();
+        }
+
+        TransferredData data;
+        try {
+            data = TransferredData.receive(requestBody, contentType, memoryThreshold, maxSize);
+        }
+        catch (TransferredData.SizeLimitExceededException sizeLimitExceeded) {
+            monitor.severe(format("Rejected data for agreement %s: %s", agreementId, sizeLimitExceeded.getMessage()));
+            observable.updateExceptionally(agreementId, sizeLimitExceeded);
+            return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).build();
+        }
+        catch (IOException readFailure) {
+            monitor.severe(format("Failed receiving data for agreement %s", agreementId), readFailure);
+            observable.updateExceptionally(agreementId, readFailure);
+            return Response.serverError().build();
+        }
+
+        if (!observable.update(agreementId, data)) {
+            // The observer was unregistered or completed while the body was read
+            closeQuietly(data);
+        }
         return Response.ok().build();
     }
 
+
+    private void closeQuietly(TransferredData data) {
+        try {
+            data.close();
+        }
+        catch (IOException e) {
+            monitor.warning("Could not delete spooled transfer data", e);
+        }
+    }
+
 }
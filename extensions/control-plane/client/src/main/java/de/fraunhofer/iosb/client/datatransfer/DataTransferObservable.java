@@ -67,21 +67,57 @@ class DataTransferObservable<T> implements TransferProcessListener {
     }
 
 
+    /**
+     * Returns whether an observer waits for data of an agreement.
+     *
+     * @param agreementId The agreementId coming with a provider's data transfer
+     * @return True if an observer is registered for the agreement.
+     */
+    boolean isRegistered(String agreementId) {
+        return observers.containsKey(agreementId);
+    }
+
+
+    /**
+     * Returns whether the observer of an agreement already received data or a failure.
+     *
+     * @param agreementId The agreementId coming with a provider's data transfer
+     * @return True if an observer is registered for the agreement and its future is done.
+     */
+    boolean isCompleted(String agreementId) {
+        var observer = observers.get(agreementId);
+        return observer != null && observer.isDone();
+    }
+
+
     /**
      * Notifies an observer if the agreementID matches any of the observer's agreementID.
      *
      * @param agreementId The agreementId coming with a provider's data transfer
      * @param data Any data by a provider connector
+     * @return True if an observer received the data.
      */
-    void update(String agreementId, T data) {
-        if (!observers.containsKey(agreementId)) {
+    boolean update(String agreementId, T data) {
+        var observer = observers.get(agreementId);
+        if (observer == null) {
             monitor.warning(format(
                     "A POST request to the client's data transfer endpoint with an unknown agreementID was caught. " +
                             "AgreementID: %s",
                     agreementId));
-            return;
+            return false;
         }
-        observers.get(agreementId).complete(data);
+        return observer.complete(data);
+    }
+
+
+    /**
+     * Notifies an observer that the data transfer for its agreement failed.
+     *
+     * @param agreementId The agreementId coming with a provider's data transfer
+     * @param failure Reason of the failure
+     */
+    void updateExceptionally(String agreementId, Throwable failure) {
+        Optional.ofNullable(observers.get(agreementId)).ifPresent(observer -> observer.completeExceptionally(failure));
     }
 
 
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.datatransfer;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * Data received from a provider. Payloads up to the memory threshold are kept on the heap, larger ones are spooled to a
+ * temporary file. The file is deleted once the data has been written to the client, discarded because it was not
+ * written in time, or closed. As a last resort, it is deleted when the JVM exits.
+ */
+class TransferredData implements Closeable {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final byte[] bytes;
+    private final Path spoolFile;
+    private final String mediaType;
+    private final long size;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    // Set once the data is being written to the client or discarded, whichever comes first
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
+
+
+    private TransferredData(byte[] bytes, Path spoolFile, String mediaType, long size) {
+        this.bytes = bytes;
+        this.spoolFile = spoolFile;
+        this.mediaType = mediaType;
+        this.size = size;
+    }
+
+
+    /**
+     * Read the body of a provider's data transfer.
+     *
+     * @param body The request body.
+     * @param mediaType Content type of the request body, can be null.
+     * @param memoryThreshold Bodies larger than this amount of bytes are spooled to disk.
+     * @param maxSize Bodies larger than this amount of bytes are rejected.
+     * @return The received data.
+     * @throws SizeLimitExceededException If the body is larger than maxSize.
+     * @throws IOException If reading the body or writing the spool file fails.
+     */
+    static TransferredData receive(InputStream body, String mediaType, long memoryThreshold, long maxSize)
+            throws IOException {
+        var memory = new ByteArrayOutputStream();
+        OutputStream out = memory;
+        Path spoolFile = null;
+        long size = 0;
+
+        try (body) {
+            var chunk = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new SizeLimitExceededException(maxSize);
+                }
+                if (spoolFile == null && size > memoryThreshold) {
+                    spoolFile = Files.createTempFile("edc-client-transfer-", ".tmp");
+                    spoolFile.toFile().deleteOnExit();
+                    out = Files.newOutputStream(spoolFile);
+                    memory.writeTo(out);
+                }
+                out.write(chunk, 0, read);
+            }
+            out.close();
+        }
+        catch (IOException e) {
+            if (spoolFile != null) {
+                out.close();
+                Files.deleteIfExists(spoolFile);
+            }
+            throw e;
+        }
+
+        return spoolFile == null ?
+                new TransferredData(memory.toByteArray(), null, mediaType, size) :
+                new TransferredData(null, spoolFile, mediaType, size);
+    }
+
+
+    String mediaType() {
+        return mediaType;
+    }
+
+
+    long size() {
+        return size;
+    }
+
+
+    boolean isSpooled() {
+        return spoolFile != null;
+    }
+
+
+    /**
+     * Stream the data to a client. Afterwards, the data is closed.
+     *
+     * @return StreamingOutput writing the data. Fails if the data was discarded before.
+     */
+    StreamingOutput asStreamingOutput() {
+        return output -> {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new IOException("Transferred data was discarded before it was written");
+            }
+            try {
+                if (spoolFile == null) {
+                    output.write(bytes);
+                }
+                else {
+                    Files.copy(spoolFile, output);
+                }
+            }
+            finally {
+                close();
+            }
+        };
+    }
+
+
+    /**
+     * Close the data if it has not been written to a client yet, e.g., because the client disconnected before the
+     * response was written. Data that is being written is left to the writer.
+     *
+     * @return True if the data was discarded.
+     * @throws IOException If deleting the spool file fails.
+     */
+    boolean discardIfUnwritten() throws IOException {
+        if (!claimed.compareAndSet(false, true)) {
+            return false;
+        }
+        close();
+        return true;
+    }
+
+
+    @Override
+    public void close() throws IOException {
+        if (closed.compareAndSet(false, true) && spoolFile != null) {
+            Files.deleteIfExists(spoolFile);
+        }
+    }
+
+
+    /**
+     * Thrown if a provider sends more data than allowed.
+     */
+    static class SizeLimitExceededException extends IOException {
+        SizeLimitExceededException(long maxSize) {
+            super("Transferred data exceeds the maximum size of %s bytes".formatted(maxSize));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.negotiation;
+
+import org.eclipse.edc.connector.controlplane.contract.spi.negotiation.observe.ContractNegotiationListener;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiation;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Index of the newest usable contract agreement per (assetId, providerId). Finalized negotiations add their agreement,
+ * terminated negotiations remove theirs. Agreements older than the configured maximum age are treated as expired.
+ */
+class AgreementIndex implements ContractNegotiationListener {
+
+    private final Map<Key, ContractAgreement> agreements = new ConcurrentHashMap<>();
+    private final long maxAgeSeconds;
+    private final Clock clock;
+
+
+    /**
+     * Class constructor
+     *
+     * @param maxAgeSeconds Agreements signed longer ago than this are not reused. Zero or less disables expiry.
+     * @param clock Current time for the expiry check.
+     */
+    AgreementIndex(long maxAgeSeconds, Clock clock) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.clock = clock;
+    }
+
+
+    @Override
+    public void finalized(ContractNegotiation negotiation) {
+        Optional.ofNullable(negotiation.getContractAgreement()).ifPresent(this::put);
+    }
+
+
+    @Override
+    public void terminated(ContractNegotiation negotiation) {
+        Optional.ofNullable(negotiation.getContractAgreement())
+                .ifPresent(agreement -> agreements.remove(keyOf(agreement), agreement));
+    }
+
+
+    /**
+     * Get the indexed agreement for an asset of a provider if it is still valid.
+     *
+     * @param assetId ID of the asset.
+     * @param providerId ID of the provider.
+     * @return The agreement or empty if none is indexed or it has expired.
+     */
+    Optional<ContractAgreement> get(String assetId, String providerId) {
+        if (assetId == null || providerId == null) {
+            return Optional.empty();
+        }
+        var key = new Key(assetId, providerId);
+        var agreement = agreements.get(key);
+        if (agreement != null && !isValid(agreement)) {
+            agreements.remove(key, agreement);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(agreement);
+    }
+
+
+    /**
+     * Index an agreement if it is valid and newer than the currently indexed one.
+     *
+     * @param agreement The agreement.
+     */
+    void put(ContractAgreement agreement) {
+        if (!isValid(agreement)) {
+            return;
+        }
+        agreements.merge(keyOf(agreement), agreement, (present, added) ->
+                added.getContractSigningDate() >= present.getContractSigningDate() ? added : present);
+    }
+
+
+    /**
+     * Check whether an agreement can be reused for a new transfer.
+     *
+     * @param agreement The agreement.
+     * @return True if the agreement is complete and not expired.
+     */
+    boolean isValid(ContractAgreement agreement) {
+        if (agreement.getAssetId() == null || agreement.getProviderId() == null || agreement.getPolicy() == null) {
+            return false;
+        }
+        return maxAgeSeconds <= 0 ||
+                agreement.getContractSigningDate() + maxAgeSeconds > clock.instant().getEpochSecond();
+    }
+
+
+    private Key keyOf(ContractAgreement agreement) {
+        return new Key(agreement.getAssetId(), agreement.getProviderId());
+    }
+
+
+    private record Key(String assetId, String providerId) {
+    }
+}
@@ -25,11 +25,18 @@ import org.eclipse.edc.participantcontext.spi.types.ParticipantContext;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.system.configuration.Config;
 
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 
 /**
@@ -40,6 +47,10 @@ public class NegotiationController {
 
     // How long the client waits for a negotiation to finish (seconds)
     private static final int WAIT_FOR_AGREEMENT_TIMEOUT_DEFAULT = 20;
+    // How long an agreement is reused for new transfers (seconds), 0 = no expiry
+    private static final long AGREEMENT_MAX_AGE_DEFAULT = 0;
+    // How many negotiations of a bulk request run at the same time
+    private static final int NEGOTIATION_PARALLELISM_DEFAULT = 8;
 
     private final Config config;
 
@@ -53,21 +64,32 @@ public class NegotiationController {
                                  ParticipantContext participantContext,
                                  Config config) {
         this.config = config;
-        this.negotiator = new Negotiator(consumerNegotiationManager, contractNegotiationStore, participantContext);
+        var agreementIndex = new AgreementIndex(config.getLong("agreementMaxAge", AGREEMENT_MAX_AGE_DEFAULT),
+                Clock.systemUTC());
+        this.negotiator = new Negotiator(consumerNegotiationManager, contractNegotiationStore, participantContext,
+                agreementIndex);
         this.listener = new ClientContractNegotiationListener();
+        observable.registerListener(agreementIndex);
         observable.registerListener(listener);
     }
 
 
-    public Result<ContractAgreement> negotiateContract(ContractRequest contractRequest) {
+    /**
+     * Negotiate a contract. The returned future completes once the agreement is available, the negotiation failed or
+     * the configured timeout elapsed. No thread is blocked while waiting for the agreement.
+     *
+     * @param contractRequest The contract request to be sent.
+     * @return Future of the contract agreement or the failure reason.
+     */
+    public CompletableFuture<Result<ContractAgreement>> negotiateContract(ContractRequest contractRequest) {
         var negotiationStatusResult = negotiator.negotiate(contractRequest);
         if (!negotiationStatusResult.succeeded()) {
-            return Result.failure(negotiationStatusResult.getFailureDetail());
+            return CompletableFuture.completedFuture(Result.failure(negotiationStatusResult.getFailureDetail()));
         }
 
         var negotiation = negotiationStatusResult.getContent();
         if (Objects.nonNull(negotiation.getContractAgreement())) {
-            return Result.success(negotiationStatusResult.getContent().getContractAgreement());
+            return CompletableFuture.completedFuture(Result.success(negotiation.getContractAgreement()));
         }
         else {
             return waitForAgreement(negotiation.getId());
@@ -75,26 +97,63 @@ public class NegotiationController {
     }
 
 
-    private Result<ContractAgreement> waitForAgreement(String negotiationId) {
+    /**
+     * Negotiate several contracts. At most edc.client.negotiationParallelism negotiations are running at the same
+     * time, the next one starts as soon as one has completed.
+     *
+     * @param contractRequests The contract requests to be sent, one per asset.
+     * @return Future of the contract agreement or the failure reason per asset ID, in order of completion.
+     */
+    public CompletableFuture<Map<String, Result<ContractAgreement>>> negotiateContracts(
+            Collection<ContractRequest> contractRequests) {
+        var pending = new ConcurrentLinkedQueue<>(contractRequests);
+        var results = Collections.synchronizedMap(new LinkedHashMap<String, Result<ContractAgreement>>());
+        var parallelism = Math.max(1, config.getInteger("negotiationParallelism", NEGOTIATION_PARALLELISM_DEFAULT));
+
+        var workers = Stream.generate(() -> negotiateNext(pending, results))
+                .limit(Math.min(parallelism, contractRequests.size()))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(workers).thenApply(nothing -> results);
+    }
+
+
+    private CompletableFuture<Void> negotiateNext(Queue<ContractRequest> pending,
+                                                  Map<String, Result<ContractAgreement>> results) {
+        var contractRequest = pending.poll();
+        if (contractRequest == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        // Async: continue off the negotiation state machine's thread and without growing the stack
+        return CompletableFuture.completedFuture(contractRequest)
+                .thenComposeAsync(this::negotiateContract)
+                .exceptionally(failure -> Result.failure("Negotiation failed: %s".formatted(failure.getMessage())))
+                .thenComposeAsync(result -> {
+                    results.put(contractRequest.getContractOffer().getAssetId(), result);
+                    return negotiateNext(pending, results);
+                });
+    }
+
+
+    private CompletableFuture<Result<ContractAgreement>> waitForAgreement(String negotiationId) {
         var agreementFuture = new CompletableFuture<ContractNegotiation>();
         var timeout = config.getInteger("waitForAgreementTimeout", WAIT_FOR_AGREEMENT_TIMEOUT_DEFAULT);
 
         listener.addListener(negotiationId, agreementFuture);
-        ContractNegotiation negotiation;
-        try {
-            negotiation = agreementFuture.get(timeout, TimeUnit.SECONDS);
-        }
-        catch (TimeoutException timeoutWhileWaitingException) {
-            return Result.failure("Timed out while waiting for agreement: %s".formatted(timeoutWhileWaitingException.getMessage()));
-        }
-        catch (InterruptedException interruptedWhileWaitingException) {
-            return Result.failure("Interrupted while waiting for agreement: %s".formatted(interruptedWhileWaitingException.getMessage()));
-        }
-        catch (ExecutionException executionException) {
-            return Result.failure("ExecutionException thrown while waiting for agreement: %s".formatted(executionException.getMessage()));
-        }
 
-        listener.removeListener(negotiationId);
-        return Result.success(negotiation.getContractAgreement());
+        return agreementFuture.orTimeout(timeout, TimeUnit.SECONDS)
+                .handle((negotiation, failure) -> {
+                    // Remove the listener in any case, else it would leak on timeout or failure
+                    listener.removeListener(negotiationId);
+                    if (failure == null) {
+                        return Result.success(negotiation.getContractAgreement());
+                    }
+                    if (failure instanceof TimeoutException) {
+                        return Result.failure("Timed out while waiting for agreement of negotiation %s"
+                                .formatted(negotiationId));
+                    }
+                    return Result.failure("Failure while waiting for agreement: %s".formatted(failure.getMessage()));
+                });
     }
 }
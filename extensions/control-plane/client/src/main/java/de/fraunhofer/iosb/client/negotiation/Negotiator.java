@@ -17,21 +17,33 @@ package de.fraunhofer.iosb.client.negotiation;
 
 import org.eclipse.edc.connector.controlplane.contract.spi.negotiation.ConsumerContractNegotiationManager;
 import org.eclipse.edc.connector.controlplane.contract.spi.negotiation.store.ContractNegotiationStore;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiation;
 import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractRequest;
 import org.eclipse.edc.participantcontext.spi.types.ParticipantContext;
 import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.query.SortOrder;
 import org.eclipse.edc.spi.response.StatusResult;
 
+import java.time.Clock;
+import java.util.List;
+import java.util.Optional;
+
+import static org.eclipse.edc.spi.query.Criterion.criterion;
+
 
 /**
  * Send contract request, negotiation status watch
  */
 public class Negotiator {
 
+    // Upper bound of agreements fetched per lookup, only the newest valid one is used
+    private static final int AGREEMENT_QUERY_LIMIT = 50;
+
     private final ConsumerContractNegotiationManager consumerNegotiationManager;
     private final ContractNegotiationStore contractNegotiationStore;
     private final ParticipantContext participantContext;
+    private final AgreementIndex agreementIndex;
 
 
     /**
@@ -42,32 +54,39 @@ public class Negotiator {
      */
     public Negotiator(ConsumerContractNegotiationManager consumerNegotiationManager,
                       ContractNegotiationStore contractNegotiationStore, ParticipantContext participantContext) {
+        this(consumerNegotiationManager, contractNegotiationStore, participantContext,
+                new AgreementIndex(0, Clock.systemUTC()));
+    }
+
+
+    /**
+     * Class constructor
+     *
+     * @param consumerNegotiationManager Initiating a negotiation as a consumer.
+     * @param contractNegotiationStore Check for existing agreements before negotiating
+     * @param agreementIndex Known agreements by asset and provider, kept current by negotiation events.
+     */
+    Negotiator(ConsumerContractNegotiationManager consumerNegotiationManager,
+               ContractNegotiationStore contractNegotiationStore, ParticipantContext participantContext,
+               AgreementIndex agreementIndex) {
         this.consumerNegotiationManager = consumerNegotiationManager;
         this.contractNegotiationStore = contractNegotiationStore;
         this.participantContext = participantContext;
+        this.agreementIndex = agreementIndex;
     }
 
 
-    /*
-     * InterruptedException: Thread for agreementId was waiting, sleeping, or
-     * otherwise occupied, and was interrupted.
-     *
-     * ExecutionException: Attempted to retrieve the agreementId but the task
-     * aborted by throwing an exception. This exception can be inspected using the
-     * getCause() method.
-     */
     StatusResult<ContractNegotiation> negotiate(ContractRequest contractRequest) {
-        var previousAgreements = contractNegotiationStore.queryAgreements(QuerySpec.max());
-        var relevantAgreements = previousAgreements
-                .filter(agreement -> agreement.getAssetId().equals(contractRequest.getContractOffer().getAssetId()))
-                .filter(agreement -> agreement.getProviderId().equals(contractRequest.getProviderId()))
-                .toList();
-
-        if (!relevantAgreements.isEmpty()) {
-            // assuming contractNegotiationStore removes invalid agreements
+        var assetId = contractRequest.getContractOffer().getAssetId();
+        var providerId = contractRequest.getProviderId();
+
+        var previousAgreement = agreementIndex.get(assetId, providerId)
+                .or(() -> findAgreement(assetId, providerId));
+
+        if (previousAgreement.isPresent()) {
             return StatusResult.success(
                     ContractNegotiation.Builder.newInstance()
-                            .contractAgreement(relevantAgreements.get(0))
+                            .contractAgreement(previousAgreement.get())
                             .counterPartyAddress(contractRequest.getCounterPartyAddress())
                             .counterPartyId(contractRequest.getProviderId())
                             .protocol(contractRequest.getProtocol())
@@ -77,4 +96,32 @@ public class Negotiator {
         return consumerNegotiationManager.initiate(participantContext, contractRequest);
     }
 
+
+    /* Let the store filter by asset and provider instead of loading every agreement */
+    private Optional<ContractAgreement> findAgreement(String assetId, String providerId) {
+        if (assetId == null || providerId == null) {
+            return Optional.empty();
+        }
+
+        var querySpec = QuerySpec.Builder.newInstance()
+                .filter(List.of(
+                        criterion("assetId", "=", assetId),
+                        criterion("providerId", "=", providerId)))
+                .sortField("contractSigningDate")
+                .sortOrder(SortOrder.DESC)
+                .limit(AGREEMENT_QUERY_LIMIT)
+                .build();
+
+        try (var agreements = contractNegotiationStore.queryAgreements(querySpec)) {
+            var agreement = agreements
+                    // Stores are not required to apply the filter exactly
+                    .filter(candidate -> assetId.equals(candidate.getAssetId()))
+                    .filter(candidate -> providerId.equals(candidate.getProviderId()))
+                    .filter(agreementIndex::isValid)
+                    .findFirst();
+            agreement.ifPresent(agreementIndex::put);
+            return agreement;
+        }
+    }
+
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.policy;
+
+import org.eclipse.edc.connector.controlplane.catalog.spi.Dataset;
+import org.eclipse.edc.spi.result.ServiceResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+
+/**
+ * Caches the datasets of provider catalogs indexed by asset ID. At most maxProviders catalogs are held, the least
+ * recently used one is evicted first. Concurrent lookups for the same provider share one catalog fetch. Failed fetches
+ * are not cached.
+ */
+class CatalogCache {
+
+    private final Map<String, Entry> entries;
+    private final LongSupplier clock;
+
+
+    CatalogCache(int maxProviders) {
+        this(maxProviders, System::currentTimeMillis);
+    }
+
+
+    CatalogCache(int maxProviders, LongSupplier clock) {
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxProviders;
+            }
+        };
+    }
+
+
+    /**
+     * Get the datasets of a provider's catalog indexed by asset ID. If no fresh catalog is cached, the loader is
+     * called on the calling thread.
+     *
+     * @param provider Identifies the provider, e.g., its ID and URL.
+     * @param ttlMillis How long a loaded catalog stays valid.
+     * @param loader Fetches the provider's full catalog.
+     * @return The datasets or the loader's failure.
+     */
+    ServiceResult<Map<String, Dataset>> get(String provider, long ttlMillis,
+                                            Supplier<ServiceResult<Map<String, Dataset>>> loader) {
+        Entry entry;
+        boolean load = false;
+        synchronized (entries) {
+            entry = entries.get(provider);
+            if (entry == null || entry.expiresAt() <= clock.getAsLong()) {
+                entry = new Entry(new CompletableFuture<>(), clock.getAsLong() + ttlMillis);
+                entries.put(provider, entry);
+                load = true;
+            }
+        }
+
+        if (load) {
+            ServiceResult<Map<String, Dataset>> result;
+            try {
+                result = loader.get();
+            }
+            catch (RuntimeException loaderException) {
+                result = ServiceResult.unexpected("Failed fetching catalog", loaderException.getMessage());
+            }
+            if (result.failed()) {
+                invalidate(provider, entry);
+            }
+            entry.datasets().complete(result);
+        }
+        return entry.datasets().join();
+    }
+
+
+    /**
+     * Remove a provider's catalog from the cache.
+     *
+     * @param provider Identifies the provider.
+     */
+    void invalidate(String provider) {
+        synchronized (entries) {
+            entries.remove(provider);
+        }
+    }
+
+
+    private void invalidate(String provider, Entry entry) {
+        synchronized (entries) {
+            entries.remove(provider, entry);
+        }
+    }
+
+
+    private record Entry(CompletableFuture<ServiceResult<Map<String, Dataset>>> datasets, long expiresAt) {
+    }
+}
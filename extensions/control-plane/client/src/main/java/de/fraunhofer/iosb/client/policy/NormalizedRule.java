@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.policy;
+
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.Constraint;
+import org.eclipse.edc.policy.model.Expression;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.MultiplicityConstraint;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.policy.model.Rule;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+/**
+ * The parts of a policy rule that are compared when matching a provider's offer against accepted policies: its action
+ * and its constraints. The order of constraints is not significant.
+ * <p>
+ * The EDC policy model compares actions and constraints by identity, so they are converted to value keys: the action
+ * by its type and includedIn, atomic constraints by their operands and operator, and/or/xone constraints by their kind
+ * and their nested constraints.
+ *
+ * @param action Action of the rule.
+ * @param constraints Constraints of the rule.
+ */
+record NormalizedRule(ActionKey action, Set<Object> constraints) {
+
+    /**
+     * Normalize all permissions, prohibitions and obligations of a policy.
+     *
+     * @param policy The policy.
+     * @return Set of normalized rules, duplicates removed.
+     */
+    static Set<NormalizedRule> of(Policy policy) {
+        return Stream.of(
+                        policy.getPermissions(),
+                        policy.getProhibitions(),
+                        policy.getObligations())
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .map(NormalizedRule::of)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+
+    private static NormalizedRule of(Rule rule) {
+        return new NormalizedRule(ActionKey.of(rule.getAction()), constraintKeys(rule.getConstraints()));
+    }
+
+
+    private static Set<Object> constraintKeys(List<Constraint> constraints) {
+        return constraints == null ? Set.of() :
+                constraints.stream().filter(Objects::nonNull).map(NormalizedRule::constraintKey)
+                        .collect(Collectors.toUnmodifiableSet());
+    }
+
+
+    private static Object constraintKey(Constraint constraint) {
+        if (constraint instanceof AtomicConstraint atomic) {
+            return new AtomicConstraintKey(expressionKey(atomic.getLeftExpression()), atomic.getOperator(),
+                    expressionKey(atomic.getRightExpression()));
+        }
+        if (constraint instanceof MultiplicityConstraint multiplicity) {
+            return new MultiplicityConstraintKey(multiplicity.getClass(), constraintKeys(multiplicity.getConstraints()));
+        }
+        // Unknown constraint types can only be matched by identity
+        return constraint;
+    }
+
+
+    private static Object expressionKey(Expression expression) {
+        return expression instanceof LiteralExpression literal ? literal.getValue() : expression;
+    }
+
+
+    record ActionKey(String type, String includedIn, Object constraint) {
+
+        private static ActionKey of(Action action) {
+            if (action == null) {
+                return null;
+            }
+            return new ActionKey(action.getType(), action.getIncludedIn(),
+                    action.getConstraint() == null ? null : constraintKey(action.getConstraint()));
+        }
+    }
+
+
+    private record AtomicConstraintKey(Object leftOperand, Operator operator, Object rightOperand) {
+    }
+
+
+    private record MultiplicityConstraintKey(Class<?> kind, Set<Object> constraints) {
+    }
+}
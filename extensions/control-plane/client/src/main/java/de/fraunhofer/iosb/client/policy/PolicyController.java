@@ -40,7 +40,9 @@ import org.eclipse.edc.spi.system.configuration.Config;
 import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static de.fraunhofer.iosb.client.ClientEndpoint.MISSING_QUERY_PARAMETER_MESSAGE;
@@ -159,6 +161,21 @@ public class PolicyController {
     }
 
 
+    /**
+     * Return an acceptable contract offer for each of the given assets of a provider. The provider's catalog is
+     * requested once for all assets.
+     *
+     * @param counterPartyId Provider of the assets. (id)
+     * @param counterPartyUri Provider of the assets. (url)
+     * @param assetIds Asset IDs of the assets whose contracts should be fetched.
+     * @return Contract offer or failure reason per asset ID, or a failure if the provider's catalog is unavailable.
+     */
+    public ServiceResult<Map<String, Result<ContractOffer>>> getAcceptableContractOffersForAssetIds(
+            String counterPartyId, URI counterPartyUri, Collection<String> assetIds) {
+        return policyService.getAcceptableContractOffersForAssetIds(counterPartyId, counterPartyUri, assetIds);
+    }
+
+
     /**
      * Adds an accepted contractOffer to match when checking a provider contractOffer. Only the policies' rules are relevant.
      *
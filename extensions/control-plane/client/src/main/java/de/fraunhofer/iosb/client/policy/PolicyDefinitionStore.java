@@ -17,25 +17,35 @@ package de.fraunhofer.iosb.client.policy;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.edc.connector.controlplane.policy.spi.PolicyDefinition;
+import org.eclipse.edc.policy.model.Policy;
 import org.eclipse.edc.spi.monitor.Monitor;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
 
 /**
- * Contains user added PolicyDefinitions.
+ * Contains user added PolicyDefinitions. The rules of each accepted policy are normalized once when it is added, so
+ * matching an offer is a lookup by its rules instead of a comparison with every accepted policy.
  */
 class PolicyDefinitionStore {
     private final Map<String, PolicyDefinition> policyDefinitions;
+    // Normalized rules (value keys of action and constraints) per policyDefinition ID
+    private final Map<String, Set<NormalizedRule>> acceptedRules = new ConcurrentHashMap<>();
+    // Each accepted policy is indexed under one of its rules, an offer must contain this rule to match
+    private final Map<NormalizedRule, Set<String>> policyDefinitionIdsByRule = new ConcurrentHashMap<>();
+    // Accepted policies without rules match any offer
+    private final Set<String> unrestrictedPolicyDefinitionIds = ConcurrentHashMap.newKeySet();
     private final Monitor monitor;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -62,24 +72,47 @@ class PolicyDefinitionStore {
      *
      * @param newPolicyDefinitions PolicyDefinitions to be stored (non-null)
      */
-    void putPolicyDefinitions(PolicyDefinition... newPolicyDefinitions) {
+    synchronized void putPolicyDefinitions(PolicyDefinition... newPolicyDefinitions) {
         Objects.requireNonNull(newPolicyDefinitions, "newPolicyDefinitions is null");
         for (PolicyDefinition newPolicyDefinition: newPolicyDefinitions) {
             if (!policyDefinitions.containsKey(newPolicyDefinition.getId())) {
                 policyDefinitions.put(newPolicyDefinition.getId(), newPolicyDefinition);
+                index(newPolicyDefinition);
             }
         }
     }
 
 
+    /**
+     * Check if a policy satisfies any stored PolicyDefinition: Every rule of the PolicyDefinition's policy must be
+     * contained in the policy, compared by action and constraints.
+     *
+     * @param policy The policy, e.g., of a provider's offer.
+     * @return True if any stored PolicyDefinition is satisfied.
+     */
+    boolean isAccepted(Policy policy) {
+        if (!unrestrictedPolicyDefinitionIds.isEmpty()) {
+            return true;
+        }
+
+        var rules = NormalizedRule.of(policy);
+        return rules.stream()
+                .map(rule -> policyDefinitionIdsByRule.getOrDefault(rule, Set.of()))
+                .flatMap(Set::stream)
+                .map(acceptedRules::get)
+                .anyMatch(accepted -> accepted != null && rules.containsAll(accepted));
+    }
+
+
     /**
      * Remove a policy definition
      *
      * @param policyDefinitionId policyDefinition ID (non null)
      * @return Optional containing removed policy definition or null
      */
-    Optional<PolicyDefinition> removePolicyDefinition(String policyDefinitionId) {
+    synchronized Optional<PolicyDefinition> removePolicyDefinition(String policyDefinitionId) {
         Objects.requireNonNull(policyDefinitionId, "policyDefinitionId is null");
+        unindex(policyDefinitionId);
         return Optional.ofNullable(policyDefinitions.remove(policyDefinitionId));
     }
 
@@ -90,17 +123,45 @@ class PolicyDefinitionStore {
      * @param policyDefinition The updated policyDefinition
      * @return Optional containing updated policy definition or null
      */
-    Optional<PolicyDefinition> updatePolicyDefinitions(PolicyDefinition policyDefinition) {
+    synchronized Optional<PolicyDefinition> updatePolicyDefinitions(PolicyDefinition policyDefinition) {
         var policyDefinitionId = policyDefinition.getId();
         Objects.requireNonNull(policyDefinitionId, "policyDefinitionId is null");
         Objects.requireNonNull(policyDefinition, "policyDefinition is null");
         if (policyDefinitions.containsKey(policyDefinitionId)) {
+            unindex(policyDefinitionId);
+            index(policyDefinition);
             return Optional.ofNullable(policyDefinitions.put(policyDefinitionId, policyDefinition));
         }
         return Optional.empty();
     }
 
 
+    private void index(PolicyDefinition policyDefinition) {
+        var id = policyDefinition.getId();
+        var rules = policyDefinition.getPolicy() == null ? Set.<NormalizedRule>of() :
+                NormalizedRule.of(policyDefinition.getPolicy());
+        acceptedRules.put(id, rules);
+        if (rules.isEmpty()) {
+            unrestrictedPolicyDefinitionIds.add(id);
+            return;
+        }
+        // Offers containing any rule of the policy must contain this one, too. Pick the least used rule to keep
+        // candidate sets small.
+        var anchor = rules.stream()
+                .min(Comparator.comparingInt(rule -> policyDefinitionIdsByRule.getOrDefault(rule, Set.of()).size()))
+                .orElseThrow();
+        policyDefinitionIdsByRule.computeIfAbsent(anchor, rule -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+
+    private void unindex(String policyDefinitionId) {
+        acceptedRules.remove(policyDefinitionId);
+        unrestrictedPolicyDefinitionIds.remove(policyDefinitionId);
+        policyDefinitionIdsByRule.values().forEach(ids -> ids.remove(policyDefinitionId));
+        policyDefinitionIdsByRule.values().removeIf(Set::isEmpty);
+    }
+
+
     private void loadPolicyDefinitions(String acceptedPolicyDefinitionsPath) {
         Path path;
         if (Objects.nonNull(acceptedPolicyDefinitionsPath)) {
@@ -25,8 +25,8 @@ import org.eclipse.edc.jsonld.TitaniumJsonLd;
 import org.eclipse.edc.jsonld.spi.JsonLd;
 import org.eclipse.edc.participantcontext.spi.types.ParticipantContext;
 import org.eclipse.edc.policy.model.Policy;
-import org.eclipse.edc.policy.model.Rule;
 import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.query.Criterion;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.response.StatusResult;
 import org.eclipse.edc.spi.result.Result;
@@ -37,13 +37,15 @@ import org.jetbrains.annotations.NotNull;
 import java.io.ByteArrayInputStream;
 import java.net.URI;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static org.eclipse.edc.protocol.dsp.http.spi.types.HttpMessageProtocol.DATASPACE_PROTOCOL_HTTP;
 import static org.eclipse.edc.spi.query.Criterion.criterion;
@@ -55,6 +57,9 @@ import static org.eclipse.edc.spi.query.Criterion.criterion;
  */
 class PolicyService {
 
+    // Upper bound of catalog pages fetched for one catalog, protects against providers ignoring the offset
+    static final int MAX_CATALOG_PAGES = 1000;
+
     private final CatalogService catalogService;
     private final ParticipantContext participantContext;
     private final TypeTransformerRegistry transformer;
@@ -63,6 +68,8 @@ class PolicyService {
     private final PolicyDefinitionStore policyDefinitionStore;
 
     private final JsonLd jsonLdExpander;
+    private final CatalogCache catalogCache;
+    private final Monitor monitor;
 
 
     /**
@@ -79,21 +86,171 @@ class PolicyService {
         this.config = config;
         this.policyDefinitionStore = policyDefinitionStore;
         this.jsonLdExpander = new TitaniumJsonLd(monitor);
+        this.catalogCache = new CatalogCache(Math.max(1, config.getCatalogCacheSize()));
+        this.monitor = monitor;
     }
 
 
     ServiceResult<Dataset> getDatasetForAssetId(@NotNull String counterPartyId, @NotNull URI counterPartyUri,
                                                 @NotNull String assetId) {
+        var cacheTtl = config.getCatalogCacheTtl();
+        if (cacheTtl > 0) {
+            var datasets = catalogCache.get(counterPartyId + "|" + counterPartyUri, TimeUnit.SECONDS.toMillis(cacheTtl),
+                    () -> getDatasets(counterPartyId, counterPartyUri, List.of()));
+            if (datasets.succeeded() && datasets.getContent().containsKey(assetId)) {
+                return ServiceResult.success(datasets.getContent().get(assetId));
+            }
+            // Asset was added after the catalog was cached, is ambiguous, or the catalog could not be fetched
+        }
+
         var assetQuerySpec = QuerySpec.Builder.newInstance()
                 .filter(criterion(Asset.PROPERTY_ID, "=", assetId))
                 .build();
 
+        var catalogResult = getCatalog(counterPartyId, counterPartyUri, assetQuerySpec);
+
+        if (catalogResult.failed()) {
+            return ServiceResult.unexpected(catalogResult.getFailureMessages().toArray(String[]::new));
+        }
+
+        var datasets = catalogResult.getContent().getDatasets();
+
+        if (datasets == null || datasets.isEmpty()) {
+            return ServiceResult.notFound(String.format("No datasets were found for asset %s.", assetId));
+        }
+        else if (datasets.size() > 1) {
+            return ServiceResult.conflict(String.format("Multiple datasets were found for asset %s.", assetId));
+        }
+
+        return ServiceResult.success(datasets.get(0));
+    }
+
+
+    Result<ContractOffer> getAcceptableContractOfferForAssetId(String counterPartyId, URI counterPartyUri, String assetId) {
+        var datasetResult = getDatasetForAssetId(counterPartyId, counterPartyUri, assetId);
+
+        if (datasetResult.failed()) {
+            return Result.failure(List.of(datasetResult.reason().toString(), datasetResult.getFailureDetail()));
+        }
+
+        return getAcceptableContractOffer(datasetResult.getContent(), assetId);
+    }
+
+
+    /**
+     * Get acceptable contract offers for several assets of one provider with a single catalog request (or none if the
+     * provider's catalog is cached).
+     *
+     * @param counterPartyId ID of the provider.
+     * @param counterPartyUri DSP URL of the provider.
+     * @param assetIds IDs of the assets.
+     * @return Contract offer or failure per asset ID, or a failure if the catalog could not be fetched.
+     */
+    ServiceResult<Map<String, Result<ContractOffer>>> getAcceptableContractOffersForAssetIds(
+            String counterPartyId, URI counterPartyUri, Collection<String> assetIds) {
+        var cacheTtl = config.getCatalogCacheTtl();
+        var datasetsResult = cacheTtl > 0 ?
+                catalogCache.get(counterPartyId + "|" + counterPartyUri, TimeUnit.SECONDS.toMillis(cacheTtl),
+                        () -> getDatasets(counterPartyId, counterPartyUri, List.of())) :
+                getDatasets(counterPartyId, counterPartyUri,
+                        List.of(criterion(Asset.PROPERTY_ID, "in", List.copyOf(assetIds))));
+
+        if (datasetsResult.failed()) {
+            return ServiceResult.unexpected(datasetsResult.getFailureMessages().toArray(String[]::new));
+        }
+
+        var datasets = datasetsResult.getContent();
+        var offers = new LinkedHashMap<String, Result<ContractOffer>>();
+        for (var assetId : assetIds) {
+            var dataset = datasets.get(assetId);
+            if (dataset != null) {
+                offers.put(assetId, getAcceptableContractOffer(dataset, assetId));
+            }
+            else if (cacheTtl > 0) {
+                // Not in the cached catalog, ask the provider directly
+                offers.put(assetId, getAcceptableContractOfferForAssetId(counterPartyId, counterPartyUri, assetId));
+            }
+            else {
+                offers.put(assetId, Result.failure("No unique dataset was found for asset %s.".formatted(assetId)));
+            }
+        }
+        return ServiceResult.success(offers);
+    }
+
+
+    private Result<ContractOffer> getAcceptableContractOffer(Dataset dataset, String assetId) {
+        var acceptablePolicy = dataset
+                .getOffers().entrySet().stream()
+                .filter(entry -> config.isAcceptAllProviderOffers() || matchesOwnPolicyDefinitions(entry.getValue()))
+                .findAny();
+
+        return acceptablePolicy.map(idPolicyEntry ->
+                        Result.success(ContractOffer.Builder.newInstance()
+                                .id(idPolicyEntry.getKey())
+                                .policy(idPolicyEntry.getValue().withTarget(assetId))
+                                .assetId(assetId)
+                                .build()))
+                .orElse(Result.failure("Could not find acceptable policyDefinition"));
+    }
+
+
+    /* Fetch the (filtered) catalog page by page and index its datasets by asset ID */
+    private ServiceResult<Map<String, Dataset>> getDatasets(String counterPartyId, URI counterPartyUri,
+                                                            List<Criterion> filter) {
+        var pageSize = Math.max(1, config.getCatalogPageSize());
+        var datasets = new HashMap<String, Dataset>();
+        var ambiguous = new HashSet<String>();
+        var offset = 0;
+
+        for (int pages = 1; ; pages++) {
+            var querySpec = QuerySpec.Builder.newInstance()
+                    .filter(filter)
+                    .offset(offset)
+                    .limit(pageSize)
+                    .build();
+
+            var catalogResult = getCatalog(counterPartyId, counterPartyUri, querySpec);
+            if (catalogResult.failed()) {
+                return ServiceResult.unexpected(catalogResult.getFailureMessages().toArray(String[]::new));
+            }
+
+            var page = Objects.requireNonNullElse(catalogResult.getContent().getDatasets(), List.<Dataset>of());
+            if (offset > 0 && !page.isEmpty() && page.stream().allMatch(dataset -> datasets.containsKey(dataset.getId()))) {
+                // A provider ignoring the offset returns the first page again
+                monitor.warning("Catalog page at offset %s of %s contains no new datasets, stopping pagination".formatted(offset,
+                        counterPartyUri));
+                break;
+            }
+            page.forEach(dataset -> {
+                if (datasets.putIfAbsent(dataset.getId(), dataset) != null) {
+                    ambiguous.add(dataset.getId());
+                }
+            });
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            if (pages >= MAX_CATALOG_PAGES) {
+                monitor.warning("Catalog of %s has more than %s pages of %s datasets, ignoring the rest".formatted(counterPartyUri,
+                        MAX_CATALOG_PAGES, pageSize));
+                break;
+            }
+            offset += pageSize;
+        }
+
+        // Let the single asset lookup report these as conflicts
+        ambiguous.forEach(datasets::remove);
+        return ServiceResult.success(datasets);
+    }
+
+
+    private ServiceResult<Catalog> getCatalog(String counterPartyId, URI counterPartyUri, QuerySpec querySpec) {
         var catalogFuture = catalogService.requestCatalog(
                 participantContext,
                 counterPartyId,
                 counterPartyUri.toString(),
                 DATASPACE_PROTOCOL_HTTP,
-                assetQuerySpec);
+                querySpec);
 
         StatusResult<byte[]> catalogResponse;
         try {
@@ -126,42 +283,11 @@ class PolicyService {
             return formUnexpectedResult(catalog.getFailureDetail());
         }
 
-        var datasets = catalog.getContent().getDatasets();
-
-        if (datasets == null || datasets.isEmpty()) {
-            return ServiceResult.notFound(String.format("No datasets were found for asset %s.", assetId));
-        }
-        else if (datasets.size() > 1) {
-            return ServiceResult.conflict(String.format("Multiple datasets were found for asset %s.", assetId));
-        }
-
-        return ServiceResult.success(datasets.get(0));
-    }
-
-
-    Result<ContractOffer> getAcceptableContractOfferForAssetId(String counterPartyId, URI counterPartyUri, String assetId) {
-        var datasetResult = getDatasetForAssetId(counterPartyId, counterPartyUri, assetId);
-
-        if (datasetResult.failed()) {
-            return Result.failure(List.of(datasetResult.reason().toString(), datasetResult.getFailureDetail()));
-        }
-
-        var acceptablePolicy = datasetResult.getContent()
-                .getOffers().entrySet().stream()
-                .filter(entry -> config.isAcceptAllProviderOffers() || matchesOwnPolicyDefinitions(entry.getValue()))
-                .findAny();
-
-        return acceptablePolicy.map(idPolicyEntry ->
-                        Result.success(ContractOffer.Builder.newInstance()
-                                .id(idPolicyEntry.getKey())
-                                .policy(idPolicyEntry.getValue().withTarget(assetId))
-                                .assetId(assetId)
-                                .build()))
-                .orElse(Result.failure("Could not find acceptable policyDefinition"));
+        return ServiceResult.success(catalog.getContent());
     }
 
 
-    private ServiceResult<Dataset> formUnexpectedResult(String additionalInformation) {
+    private <T> ServiceResult<T> formUnexpectedResult(String additionalInformation) {
         var exceptionMessage = Objects.requireNonNullElse(additionalInformation,
                 "No error message supplied");
         return ServiceResult.unexpected("Failed fetching catalog", exceptionMessage);
@@ -169,38 +295,7 @@ class PolicyService {
 
 
     private boolean matchesOwnPolicyDefinitions(Policy policy) {
-        return policyDefinitionStore.getPolicyDefinitions().stream()
-                .anyMatch(acceptedPolicyDefinition ->
-                        policyDefinitionRulesEquality(
-                                acceptedPolicyDefinition.getPolicy(),
-                                policy));
-    }
-
-
-    private boolean policyDefinitionRulesEquality(Policy first, Policy second) {
-        List<Rule> firstRules = Stream.of(
-                        first.getPermissions(),
-                        first.getProhibitions(),
-                        first.getObligations())
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-
-        List<Rule> secondRules = Stream.of(
-                        second.getPermissions(),
-                        second.getProhibitions(),
-                        second.getObligations())
-                .flatMap(Collection::stream)
-                .collect(Collectors.toList());
-
-        return firstRules.stream().allMatch(
-                firstRule -> secondRules.stream()
-                        .anyMatch(secondRule -> ruleEquality(firstRule, secondRule)));
-    }
-
-
-    private <T extends Rule> boolean ruleEquality(T first, T second) {
-        return Objects.equals(first.getAction(), second.getAction()) && Objects.equals(first.getConstraints(),
-                second.getConstraints());
+        return policyDefinitionStore.isAccepted(policy);
     }
 
 }
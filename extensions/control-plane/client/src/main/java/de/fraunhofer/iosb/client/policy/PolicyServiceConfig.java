@@ -26,6 +26,9 @@ public class PolicyServiceConfig {
     private static final boolean ACCEPT_ALL_POLICY_DEFINITIONS_DEFAULT = true;
     private static final int WAIT_FOR_CATALOG_TIMEOUT_DEFAULT = 20;
     private static final String ACCEPTED_POLICY_DEFINITIONS_PATH_DEFAULT = null;
+    private static final int CATALOG_CACHE_TTL_DEFAULT = 0;
+    private static final int CATALOG_CACHE_SIZE_DEFAULT = 16;
+    private static final int CATALOG_PAGE_SIZE_DEFAULT = 100;
 
     private final Config config;
 
@@ -45,6 +48,21 @@ public class PolicyServiceConfig {
     }
 
 
+    int getCatalogCacheTtl() {
+        return config.getInteger("catalogCacheTtl", CATALOG_CACHE_TTL_DEFAULT);
+    }
+
+
+    int getCatalogCacheSize() {
+        return config.getInteger("catalogCacheSize", CATALOG_CACHE_SIZE_DEFAULT);
+    }
+
+
+    int getCatalogPageSize() {
+        return config.getInteger("catalogPageSize", CATALOG_PAGE_SIZE_DEFAULT);
+    }
+
+
     String getAcceptedPolicyDefinitionsPath() {
         return config.getString("acceptedPolicyDefinitionsPath",
                 ACCEPTED_POLICY_DEFINITIONS_PATH_DEFAULT);
@@ -54,6 +54,7 @@ import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 import static jakarta.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
 import static java.lang.String.format;
 import static org.eclipse.edc.util.io.Ports.getFreePort;
@@ -184,7 +185,7 @@ public class ClientEndpointTest {
                                         .assetId(UUID.randomUUID().toString())
                                         .build())
                         .protocol("dataspace-protocol-http")
-                        .build())) {
+                        .build()).toCompletableFuture().join()) {
             if ((resultResponse.getStatus() != INTERNAL_SERVER_ERROR.getStatusCode())) {
                 fail();
             }
@@ -194,8 +195,22 @@ public class ClientEndpointTest {
 
     @Test
     public void negotiateContractAndTransferTest() {
-        try (var response = clientEndpoint.negotiateContract(uri, "test-id", "test-asset-id", null)) {
+        try (var response = clientEndpoint.negotiateContract(uri, "test-id", "test-asset-id", null)
+                .toCompletableFuture().join()) {
             assertEquals(INTERNAL_SERVER_ERROR, response.getStatusInfo());
         }
     }
+
+
+    @Test
+    public void negotiateContractsMissingParametersTest() {
+        try (var response = clientEndpoint.negotiateContracts(uri, null, new String[]{ "test-asset-id" })
+                .toCompletableFuture().join()) {
+            assertEquals(BAD_REQUEST, response.getStatusInfo());
+        }
+        try (var response = clientEndpoint.negotiateContracts(uri, "test-id", new String[0])
+                .toCompletableFuture().join()) {
+            assertEquals(BAD_REQUEST, response.getStatusInfo());
+        }
+    }
 }
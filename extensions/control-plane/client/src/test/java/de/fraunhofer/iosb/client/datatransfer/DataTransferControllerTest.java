@@ -29,6 +29,7 @@ import org.eclipse.edc.connector.controlplane.transfer.spi.TransferProcessManage
 import org.eclipse.edc.connector.controlplane.transfer.spi.observe.TransferProcessObservable;
 import org.eclipse.edc.participantcontext.spi.types.ParticipantContext;
 import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.eclipse.edc.spi.response.StatusResult;
 import org.eclipse.edc.spi.system.configuration.Config;
 import org.eclipse.edc.spi.system.configuration.ConfigFactory;
 import org.eclipse.edc.spi.types.domain.DataAddress;
@@ -45,10 +46,12 @@ import java.util.UUID;
 import static de.fraunhofer.iosb.client.datatransfer.DataTransferController.OPERATION_FIELD;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 
 class DataTransferControllerTest {
@@ -169,8 +172,35 @@ class DataTransferControllerTest {
         var aasDataAddress = DataAddress.Builder.newInstance()
                 .type("AasData")
                 .build();
-        try (var response = testSubject.getData(uri, AGREEMENT_ID, aasDataAddress)) {
+        try (var response = testSubject.getData(uri, AGREEMENT_ID, aasDataAddress).toCompletableFuture().join()) {
             assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         }
     }
+
+
+    @Test
+    void test_getData_doesNotBlockWhileWaitingForData() {
+        when(mockTransferProcessManager.initiateConsumerRequest(any(), any())).thenReturn(StatusResult.success(null));
+        var config = ConfigFactory.fromMap(Map.of(
+                "edc.client.waitForTransferTimeout", "1",
+                "web.http.port", "8080",
+                "web.http.path", "/api"));
+        var controller = new DataTransferController(
+                new ConsoleMonitor().withPrefix("DataTransferControllerTest"),
+                config,
+                mock(WebService.class),
+                mock(PublicApiManagementService.class),
+                mockTransferProcessManager,
+                mock(ParticipantContext.class),
+                mock(TransferProcessObservable.class),
+                () -> "localhost");
+
+        var responseFuture = controller.getData(uri, AGREEMENT_ID, null).toCompletableFuture();
+
+        // No provider sends data, so the response is pending until the timeout
+        assertFalse(responseFuture.isDone());
+        try (var response = responseFuture.join()) {
+            assertEquals(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), response.getStatus());
+        }
+    }
 }
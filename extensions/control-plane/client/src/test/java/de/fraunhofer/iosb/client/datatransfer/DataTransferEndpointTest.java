@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.datatransfer;
+
+import jakarta.ws.rs.core.Response;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+
+class DataTransferEndpointTest {
+
+    private final DataTransferObservable<TransferredData> observable = new DataTransferObservable<>(new ConsoleMonitor());
+    private final DataTransferEndpoint testSubject = new DataTransferEndpoint(new ConsoleMonitor(), observable, 1024, 2048);
+
+
+    @Test
+    void test_receiveData_registeredObserverReceivesData() {
+        var agreementId = UUID.randomUUID().toString();
+        var observer = observable.register(agreementId);
+
+        try (var response = testSubject.receiveData(agreementId, "text/plain", body())) {
+            assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        }
+        assertTrue(observer.isDone());
+        assertEquals("text/plain", observer.join().mediaType());
+    }
+
+
+    @Test
+    void test_receiveData_unknownAgreementBodyNotRead() {
+        var requestBody = mock(InputStream.class);
+
+        try (var response = testSubject.receiveData(UUID.randomUUID().toString(), "text/plain", requestBody)) {
+            assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+        }
+        verifyNoInteractions(requestBody);
+    }
+
+
+    @Test
+    void test_receiveData_alreadyReceivedBodyNotRead() {
+        var agreementId = UUID.randomUUID().toString();
+        observable.register(agreementId);
+        testSubject.receiveData(agreementId, "text/plain", body()).close();
+        var requestBody = mock(InputStream.class);
+
+        try (var response = testSubject.receiveData(agreementId, "text/plain", requestBody)) {
+            assertEquals(Response.Status.CONFLICT.getStatusCode(), response.getStatus());
+        }
+        verifyNoInteractions(requestBody);
+    }
+
+
+    private static InputStream body() {
+        return new ByteArrayInputStream("hello world".getBytes(StandardCharsets.UTF_8));
+    }
+}
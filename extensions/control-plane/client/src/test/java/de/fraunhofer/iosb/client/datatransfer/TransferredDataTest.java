@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.datatransfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class TransferredDataTest {
+
+    @Test
+    void test_receive_smallBodyStaysInMemory() throws IOException {
+        var body = "hello world".getBytes(StandardCharsets.UTF_8);
+
+        try (var data = TransferredData.receive(new ByteArrayInputStream(body), "text/plain", 1024, 2048)) {
+            assertFalse(data.isSpooled());
+            assertEquals(body.length, data.size());
+            assertEquals("text/plain", data.mediaType());
+            assertArrayEquals(body, write(data));
+        }
+    }
+
+
+    @Test
+    void test_receive_largeBodyIsSpooled() throws IOException {
+        var body = new byte[100_000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+
+        var data = TransferredData.receive(new ByteArrayInputStream(body), null, 1024, Long.MAX_VALUE);
+
+        assertTrue(data.isSpooled());
+        assertEquals(body.length, data.size());
+        // Writing the data also deletes the spool file
+        assertArrayEquals(body, write(data));
+    }
+
+
+    @Test
+    void test_receive_tooLargeBodyIsRejected() {
+        var body = new byte[4096];
+
+        assertThrows(TransferredData.SizeLimitExceededException.class,
+                () -> TransferredData.receive(new ByteArrayInputStream(body), null, 1024, 2048));
+    }
+
+
+    @Test
+    void test_discardIfUnwritten_dataCannotBeWrittenAfterwards() throws IOException {
+        var data = TransferredData.receive(new ByteArrayInputStream(new byte[4096]), null, 1024, Long.MAX_VALUE);
+
+        // The client never picked the data up
+        assertTrue(data.discardIfUnwritten());
+
+        assertThrows(IOException.class, () -> write(data));
+    }
+
+
+    @Test
+    void test_discardIfUnwritten_writtenDataIsNotDiscarded() throws IOException {
+        var body = new byte[4096];
+        var data = TransferredData.receive(new ByteArrayInputStream(body), null, 1024, Long.MAX_VALUE);
+
+        assertArrayEquals(body, write(data));
+        assertFalse(data.discardIfUnwritten());
+    }
+
+
+    private byte[] write(TransferredData data) throws IOException {
+        var out = new ByteArrayOutputStream();
+        data.asStreamingOutput().write(out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.negotiation;
+
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiation;
+import org.eclipse.edc.policy.model.Policy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class AgreementIndexTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    private static final String ASSET_ID = "test-asset-id";
+    private static final String PROVIDER_ID = "test-provider-id";
+
+
+    @Test
+    void test_finalized_indexesNewestAgreement() {
+        var testSubject = new AgreementIndex(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        var older = agreement(NOW.getEpochSecond() - 100);
+        var newer = agreement(NOW.getEpochSecond() - 10);
+
+        testSubject.finalized(negotiation(newer));
+        testSubject.finalized(negotiation(older));
+
+        assertEquals(newer, testSubject.get(ASSET_ID, PROVIDER_ID).orElseThrow());
+    }
+
+
+    @Test
+    void test_terminated_removesAgreement() {
+        var testSubject = new AgreementIndex(0, Clock.fixed(NOW, ZoneOffset.UTC));
+        var agreement = agreement(NOW.getEpochSecond());
+
+        testSubject.finalized(negotiation(agreement));
+        testSubject.terminated(negotiation(agreement));
+
+        assertTrue(testSubject.get(ASSET_ID, PROVIDER_ID).isEmpty());
+    }
+
+
+    @Test
+    void test_get_expiredAgreement() {
+        var testSubject = new AgreementIndex(60, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        testSubject.put(agreement(NOW.getEpochSecond() - 30));
+        assertTrue(testSubject.get(ASSET_ID, PROVIDER_ID).isPresent());
+
+        var expiredIndex = new AgreementIndex(60, Clock.fixed(NOW.plusSeconds(31), ZoneOffset.UTC));
+        expiredIndex.put(agreement(NOW.getEpochSecond() - 30));
+        assertTrue(expiredIndex.get(ASSET_ID, PROVIDER_ID).isEmpty());
+    }
+
+
+    private ContractAgreement agreement(long signingDate) {
+        return ContractAgreement.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .providerId(PROVIDER_ID)
+                .consumerId("consumer")
+                .assetId(ASSET_ID)
+                .contractSigningDate(signingDate)
+                .policy(Policy.Builder.newInstance().build())
+                .build();
+    }
+
+
+    private ContractNegotiation negotiation(ContractAgreement agreement) {
+        return ContractNegotiation.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .counterPartyId(PROVIDER_ID)
+                .counterPartyAddress("http://localhost")
+                .protocol("dataspace-protocol-http")
+                .contractAgreement(agreement)
+                .build();
+    }
+}
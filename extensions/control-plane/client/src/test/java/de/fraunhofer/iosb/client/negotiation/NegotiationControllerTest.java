@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.negotiation;
+
+import org.eclipse.edc.connector.controlplane.contract.observe.ContractNegotiationObservableImpl;
+import org.eclipse.edc.connector.controlplane.contract.spi.negotiation.ConsumerContractNegotiationManager;
+import org.eclipse.edc.connector.controlplane.contract.spi.negotiation.store.ContractNegotiationStore;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.agreement.ContractAgreement;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiation;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractRequest;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.offer.ContractOffer;
+import org.eclipse.edc.participantcontext.spi.types.ParticipantContext;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.spi.response.ResponseStatus;
+import org.eclipse.edc.spi.response.StatusResult;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+class NegotiationControllerTest {
+
+    private static final int PARALLELISM = 2;
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final ConsumerContractNegotiationManager ccnmMock = mock(ConsumerContractNegotiationManager.class);
+    private final ContractNegotiationStore cnsMock = mock(ContractNegotiationStore.class);
+
+    private NegotiationController testSubject;
+
+
+    @BeforeEach
+    void setUp() {
+        when(cnsMock.queryAgreements(any())).thenAnswer(invocation -> Stream.of());
+
+        testSubject = new NegotiationController(ccnmMock, new ContractNegotiationObservableImpl(), cnsMock,
+                mock(ParticipantContext.class),
+                ConfigFactory.fromMap(Map.of(
+                        "negotiationParallelism", String.valueOf(PARALLELISM),
+                        "waitForAgreementTimeout", "5")));
+    }
+
+
+    @Test
+    void test_negotiateContracts_aggregatesSuccessAndFailure() throws Exception {
+        when(ccnmMock.initiate(any(), any())).thenAnswer(invocation -> {
+            ContractRequest contractRequest = invocation.getArgument(1);
+            var assetId = contractRequest.getContractOffer().getAssetId();
+            return switch (assetId) {
+                case "declined" -> StatusResult.failure(ResponseStatus.FATAL_ERROR, "declined by provider");
+                case "broken" -> throw new IllegalStateException("connection lost");
+                default -> StatusResult.success(negotiationWithAgreement(assetId));
+            };
+        });
+
+        var results = testSubject.negotiateContracts(contractRequests("asset-1", "declined", "asset-2", "broken"))
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(4, results.size());
+        assertEquals("asset-1", results.get("asset-1").getContent().getAssetId());
+        assertEquals("asset-2", results.get("asset-2").getContent().getAssetId());
+        assertTrue(results.get("declined").failed());
+        assertTrue(results.get("declined").getFailureDetail().contains("declined by provider"));
+        // An exception of one negotiation must not fail the whole bulk request
+        assertTrue(results.get("broken").failed());
+        assertTrue(results.get("broken").getFailureDetail().contains("connection lost"));
+    }
+
+
+    @Test
+    void test_negotiateContracts_respectsParallelism() throws Exception {
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        var started = new Semaphore(0);
+        var gate = new Semaphore(0);
+
+        when(ccnmMock.initiate(any(), any())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            started.release();
+            if (!gate.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Negotiation was never released");
+            }
+            inFlight.decrementAndGet();
+            ContractRequest contractRequest = invocation.getArgument(1);
+            return StatusResult.success(negotiationWithAgreement(contractRequest.getContractOffer().getAssetId()));
+        });
+
+        var assetIds = new String[]{ "asset-1", "asset-2", "asset-3", "asset-4", "asset-5" };
+        var future = testSubject.negotiateContracts(contractRequests(assetIds));
+
+        // The first negotiations fill up the parallelism, every further one starts only after one was released
+        assertTrue(started.tryAcquire(PARALLELISM, TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = PARALLELISM; i < assetIds.length; i++) {
+            gate.release();
+            assertTrue(started.tryAcquire(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        gate.release(PARALLELISM);
+
+        var results = future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(assetIds.length, results.size());
+        assertTrue(results.values().stream().allMatch(result -> result.succeeded()));
+        assertEquals(PARALLELISM, maxInFlight.get());
+        verify(ccnmMock, times(assetIds.length)).initiate(any(), any());
+    }
+
+
+    private List<ContractRequest> contractRequests(String... assetIds) {
+        return Stream.of(assetIds)
+                .map(assetId -> ContractRequest.Builder.newInstance()
+                        .contractOffer(ContractOffer.Builder.newInstance()
+                                .id(UUID.randomUUID().toString())
+                                .assetId(assetId)
+                                .policy(Policy.Builder.newInstance().build())
+                                .build())
+                        .counterPartyAddress("https://example.com/fakeurl")
+                        .protocol("dataspace-protocol-http")
+                        .build())
+                .toList();
+    }
+
+
+    private ContractNegotiation negotiationWithAgreement(String assetId) {
+        return ContractNegotiation.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .counterPartyId("provider")
+                .counterPartyAddress("https://example.com/fakeurl")
+                .protocol("dataspace-protocol-http")
+                .contractAgreement(ContractAgreement.Builder.newInstance()
+                        .id(UUID.randomUUID().toString())
+                        .providerId("provider")
+                        .consumerId("consumer")
+                        .assetId(assetId)
+                        .policy(Policy.Builder.newInstance().build())
+                        .build())
+                .build();
+    }
+}
@@ -33,6 +33,7 @@ import org.junit.jupiter.api.Test;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Clock;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
@@ -42,7 +43,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -117,6 +121,47 @@ public class NegotiatorTest {
     }
 
 
+    @Test
+    void testNegotiate_reusesStoredAgreement() {
+        var agreement = negotiation.getContractAgreement();
+        when(cnsMock.queryAgreements(any())).thenReturn(Stream.of(agreement));
+
+        var result = clientNegotiator.negotiate(contractRequestFor("provider"));
+
+        assertEquals(agreement, result.getContent().getContractAgreement());
+        // Asset and provider are filtered by the store
+        verify(cnsMock).queryAgreements(argThat(querySpec -> querySpec.getFilterExpression().size() == 2));
+        verify(ccnmMock, never()).initiate(any(), any());
+    }
+
+
+    @Test
+    void testNegotiate_usesIndexedAgreement() {
+        var agreementIndex = new AgreementIndex(0, Clock.systemUTC());
+        var indexedNegotiator = new Negotiator(ccnmMock, cnsMock, participantContextMock, agreementIndex);
+        agreementIndex.finalized(negotiation);
+
+        var result = indexedNegotiator.negotiate(contractRequestFor("provider"));
+
+        assertEquals(negotiation.getContractAgreement(), result.getContent().getContractAgreement());
+        verify(cnsMock, never()).queryAgreements(any());
+        verify(ccnmMock, never()).initiate(any(), any());
+    }
+
+
+    private ContractRequest contractRequestFor(String providerId) {
+        return ContractRequest.Builder.newInstance()
+                .contractOffer(ContractOffer.Builder.newInstance()
+                        .id(UUID.randomUUID().toString())
+                        .assetId(assetId)
+                        .policy(mockPolicy.toBuilder().assigner(providerId).build())
+                        .build())
+                .counterPartyAddress("https://example.com/fakeurl")
+                .protocol("dataspace-protocol-http")
+                .build();
+    }
+
+
     /*
      * Policy containing MOCK as permitted action
      */
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.policy;
+
+import org.eclipse.edc.connector.controlplane.catalog.spi.Dataset;
+import org.eclipse.edc.spi.result.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CatalogCacheTest {
+
+    private static final long TTL = 1000;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CatalogCache testSubject;
+
+
+    @BeforeEach
+    void setUp() {
+        now.set(0);
+        loads.set(0);
+        testSubject = new CatalogCache(2, now::get);
+    }
+
+
+    @Test
+    void test_get_loadsOnlyOnceWithinTtl() {
+        testSubject.get("provider", TTL, loader());
+        now.set(TTL - 1);
+        var result = testSubject.get("provider", TTL, loader());
+
+        assertTrue(result.succeeded());
+        assertTrue(result.getContent().containsKey("asset"));
+        assertEquals(1, loads.get());
+    }
+
+
+    @Test
+    void test_get_reloadsAfterTtl() {
+        testSubject.get("provider", TTL, loader());
+        now.set(TTL);
+        testSubject.get("provider", TTL, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+
+    @Test
+    void test_get_doesNotCacheFailures() {
+        Supplier<ServiceResult<Map<String, Dataset>>> failingLoader = () -> {
+            loads.incrementAndGet();
+            return ServiceResult.unexpected("Failed fetching catalog");
+        };
+
+        assertTrue(testSubject.get("provider", TTL, failingLoader).failed());
+        assertTrue(testSubject.get("provider", TTL, loader()).succeeded());
+        assertEquals(2, loads.get());
+    }
+
+
+    @Test
+    void test_get_evictsLeastRecentlyUsedProvider() {
+        testSubject.get("first", TTL, loader());
+        testSubject.get("second", TTL, loader());
+        testSubject.get("first", TTL, loader());
+        // Evicts "second"
+        testSubject.get("third", TTL, loader());
+        testSubject.get("first", TTL, loader());
+        testSubject.get("second", TTL, loader());
+
+        assertEquals(4, loads.get());
+    }
+
+
+    private Supplier<ServiceResult<Map<String, Dataset>>> loader() {
+        return () -> {
+            loads.incrementAndGet();
+            return ServiceResult.success(Map.of("asset", Dataset.Builder.newInstance().id("asset").build()));
+        };
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.policy;
+
+import org.eclipse.edc.connector.controlplane.policy.spi.PolicyDefinition;
+import org.eclipse.edc.policy.model.Action;
+import org.eclipse.edc.policy.model.AndConstraint;
+import org.eclipse.edc.policy.model.AtomicConstraint;
+import org.eclipse.edc.policy.model.Constraint;
+import org.eclipse.edc.policy.model.LiteralExpression;
+import org.eclipse.edc.policy.model.Operator;
+import org.eclipse.edc.policy.model.Permission;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.policy.model.Prohibition;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PolicyDefinitionStoreTest {
+
+    private PolicyDefinitionStore testSubject;
+
+
+    @BeforeEach
+    void setUp() {
+        testSubject = new PolicyDefinitionStore(new ConsoleMonitor(), null);
+    }
+
+
+    @Test
+    void test_isAccepted_offerContainsAcceptedRules() {
+        testSubject.putPolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build()));
+
+        var offer = Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .prohibition(Prohibition.Builder.newInstance().action(action("distribute")).build())
+                .build();
+
+        assertTrue(testSubject.isAccepted(offer));
+    }
+
+
+    @Test
+    void test_isAccepted_offerMissingAcceptedRule() {
+        testSubject.putPolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .permission(permission("use", "purpose", "research"))
+                .build()));
+
+        var offer = Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build();
+
+        assertFalse(testSubject.isAccepted(offer));
+    }
+
+
+    @Test
+    void test_isAccepted_removedPolicyDefinition() {
+        testSubject.putPolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build()));
+        testSubject.removePolicyDefinition("accepted");
+
+        assertFalse(testSubject.isAccepted(Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build()));
+    }
+
+
+    @Test
+    void test_isAccepted_updatedPolicyDefinition() {
+        testSubject.putPolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build()));
+        testSubject.updatePolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(permission("use", "region", "us"))
+                .build()));
+
+        assertFalse(testSubject.isAccepted(Policy.Builder.newInstance()
+                .permission(permission("use", "region", "eu"))
+                .build()));
+        assertTrue(testSubject.isAccepted(Policy.Builder.newInstance()
+                .permission(permission("use", "region", "us"))
+                .build()));
+    }
+
+
+    @Test
+    void test_isAccepted_nestedConstraintsComparedByValue() {
+        testSubject.putPolicyDefinitions(policyDefinition("accepted", Policy.Builder.newInstance()
+                .permission(andPermission("use", "eu", "research"))
+                .build()));
+
+        assertTrue(testSubject.isAccepted(Policy.Builder.newInstance()
+                .permission(andPermission("use", "research", "eu"))
+                .build()));
+        assertFalse(testSubject.isAccepted(Policy.Builder.newInstance()
+                .permission(andPermission("use", "eu", "commercial"))
+                .build()));
+    }
+
+
+    private PolicyDefinition policyDefinition(String id, Policy policy) {
+        return PolicyDefinition.Builder.newInstance().id(id).policy(policy).build();
+    }
+
+
+    private Permission permission(String actionType, String leftOperand, String rightOperand) {
+        return Permission.Builder.newInstance()
+                .action(action(actionType))
+                .constraint(AtomicConstraint.Builder.newInstance()
+                        .leftExpression(new LiteralExpression(leftOperand))
+                        .operator(Operator.EQ)
+                        .rightExpression(new LiteralExpression(rightOperand))
+                        .build())
+                .build();
+    }
+
+
+    private Permission andPermission(String actionType, String... rightOperands) {
+        return Permission.Builder.newInstance()
+                .action(action(actionType))
+                .constraint(AndConstraint.Builder.newInstance()
+                        .constraints(Stream.of(rightOperands)
+                                .map(rightOperand -> (Constraint) AtomicConstraint.Builder.newInstance()
+                                        .leftExpression(new LiteralExpression("tag"))
+                                        .operator(Operator.EQ)
+                                        .rightExpression(new LiteralExpression(rightOperand))
+                                        .build())
+                                .toList())
+                        .build())
+                .build();
+    }
+
+
+    private Action action(String type) {
+        return Action.Builder.newInstance().type(type).build();
+    }
+}
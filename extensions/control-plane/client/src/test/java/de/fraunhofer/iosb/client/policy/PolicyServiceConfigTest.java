@@ -46,6 +46,15 @@ public class PolicyServiceConfigTest {
     }
 
 
+    @Test
+    public void getCatalogCacheTtlTest() {
+        var expected = 300;
+        when(config.getInteger("catalogCacheTtl", 0)).thenReturn(expected);
+
+        assertEquals(expected, policyServiceConfig.getCatalogCacheTtl());
+    }
+
+
     @Test
     public void getAcceptedPolicyDefinitionsPathTest() {
         var expected = "/tmp/test/policy-definitions/accepted/";
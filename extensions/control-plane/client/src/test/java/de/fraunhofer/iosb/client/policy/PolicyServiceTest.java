@@ -49,6 +49,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import static org.eclipse.edc.protocol.dsp.http.spi.types.HttpMessageProtocol.DATASPACE_PROTOCOL_HTTP;
 import static org.eclipse.edc.spi.query.Criterion.criterion;
@@ -58,6 +59,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -194,6 +197,62 @@ public class PolicyServiceTest {
     }
 
 
+    @Test
+    void getDatasetCachedCatalogTest() {
+        var dataset = Dataset.Builder.newInstance()
+                .id(TEST_ASSET_ID)
+                .offer(UUID.randomUUID().toString(), Policy.Builder.newInstance().target(TEST_ASSET_ID).build())
+                .build();
+        var catalogString = FileManager.loadResource("catalog.json");
+        assert catalogString != null;
+        future.complete(StatusResult.success(catalogString.getBytes(StandardCharsets.UTF_8)));
+
+        when(config.getCatalogCacheTtl()).thenReturn(60);
+        when(config.getCatalogPageSize()).thenReturn(100);
+        when(catalogService.requestCatalog(any(), any(), any(), any(), any())).thenReturn(future);
+        when(typeTransformerRegistry.transform(any(), any()))
+                .thenReturn(Result.success(
+                        Catalog.Builder.newInstance()
+                                .dataset(dataset)
+                                .build()));
+
+        assertEquals(dataset.getId(), policyService.getDatasetForAssetId(TEST_COUNTER_PARTY_ID, testUri, TEST_ASSET_ID).getContent().getId());
+        assertEquals(dataset.getId(), policyService.getDatasetForAssetId(TEST_COUNTER_PARTY_ID, testUri, TEST_ASSET_ID).getContent().getId());
+
+        // One full catalog fetch, the second lookup is served from the cache
+        verify(catalogService, times(1)).requestCatalog(any(), any(), any(), any(), any());
+    }
+
+
+    @Test
+    void test_getDatasetForAssetId_providerIgnoringOffset() {
+        var dataset = Dataset.Builder.newInstance()
+                .id(TEST_ASSET_ID)
+                .offer(UUID.randomUUID().toString(), Policy.Builder.newInstance().target(TEST_ASSET_ID).build())
+                .build();
+        mockPagedCatalog(() -> dataset);
+
+        assertEquals(TEST_ASSET_ID, policyService.getDatasetForAssetId(TEST_COUNTER_PARTY_ID, testUri, TEST_ASSET_ID).getContent().getId());
+
+        // The second page repeats the first one, pagination stops there
+        verify(catalogService, times(2)).requestCatalog(any(), any(), any(), any(), any());
+    }
+
+
+    @Test
+    void test_getDatasetForAssetId_pageLimit() {
+        mockPagedCatalog(() -> Dataset.Builder.newInstance()
+                .id(UUID.randomUUID().toString())
+                .offer(UUID.randomUUID().toString(), Policy.Builder.newInstance().build())
+                .build());
+
+        policyService.getDatasetForAssetId(TEST_COUNTER_PARTY_ID, testUri, TEST_ASSET_ID);
+
+        // Full catalog up to the page limit, then the single asset lookup
+        verify(catalogService, times(PolicyService.MAX_CATALOG_PAGES + 1)).requestCatalog(any(), any(), any(), any(), any());
+    }
+
+
     @Test
     void getAcceptableContractOfferForAssetIdTest() {
         var dataset = getDataset();
@@ -265,7 +324,7 @@ public class PolicyServiceTest {
                         .id(dataset.getOffers().keySet().stream().findFirst().orElseThrow())
                         .build());
 
-        when(policyDefinitionStore.getPolicyDefinitions()).thenReturn(policies);
+        acceptPolicyDefinitions(policies);
 
         // we mock getDatasetMethod for simplicity
         var policyServiceSpy = spy(policyService);
@@ -298,7 +357,7 @@ public class PolicyServiceTest {
                         .id(dataset.getOffers().keySet().stream().findFirst().orElseThrow())
                         .build());
 
-        when(policyDefinitionStore.getPolicyDefinitions()).thenReturn(policies);
+        acceptPolicyDefinitions(policies);
 
         // we mock getDatasetMethod for simplicity
         var policyServiceSpy = spy(policyService);
@@ -331,6 +390,14 @@ public class PolicyServiceTest {
     }
 
 
+    private void acceptPolicyDefinitions(List<PolicyDefinition> policies) {
+        var store = new PolicyDefinitionStore(new ConsoleMonitor(), null);
+        store.putPolicyDefinitions(policies.toArray(PolicyDefinition[]::new));
+        policyService = new PolicyService(catalogService, participantContext, typeTransformerRegistry, config, store,
+                new ConsoleMonitor().withPrefix("PolicyServiceTest"));
+    }
+
+
     private Dataset getDataset() {
         return Dataset.Builder.newInstance()
                 .id(UUID.randomUUID().toString())
@@ -348,6 +415,22 @@ public class PolicyServiceTest {
     }
 
 
+    /* Every catalog page holds exactly one dataset, so pagination only ends by the guards */
+    private void mockPagedCatalog(Supplier<Dataset> datasets) {
+        var catalogString = FileManager.loadResource("catalog.json");
+        assert catalogString != null;
+        future.complete(StatusResult.success(catalogString.getBytes(StandardCharsets.UTF_8)));
+
+        when(config.getCatalogCacheTtl()).thenReturn(60);
+        when(config.getCatalogPageSize()).thenReturn(1);
+        when(catalogService.requestCatalog(any(), any(), any(), any(), any())).thenReturn(future);
+        when(typeTransformerRegistry.transform(any(), any()))
+                .thenAnswer(invocation -> Result.success(Catalog.Builder.newInstance()
+                        .dataset(datasets.get())
+                        .build()));
+    }
+
+
     private void mockCatalogServiceResponseWith(CompletableFuture<StatusResult<byte[]>> value) {
         when(catalogService.requestCatalog(
                 participantContext,
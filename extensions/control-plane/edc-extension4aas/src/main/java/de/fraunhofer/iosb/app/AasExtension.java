@@ -40,6 +40,7 @@ import org.eclipse.edc.runtime.metamodel.annotation.Inject;
 import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.Hostname;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
@@ -50,6 +51,9 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import static de.fraunhofer.iosb.app.controller.SelfDescriptionController.SELF_DESCRIPTION_PATH;
 import static de.fraunhofer.iosb.constants.AasConstants.AAS_PREFIX;
@@ -85,6 +89,10 @@ public class AasExtension implements ServiceExtension {
     private JsonLd jsonLd;
     @Inject(required = false)
     private Vault vault;
+    @Inject
+    private ExecutorInstrumentation executorInstrumentation;
+    private ExecutorService selfDescriptionExecutor;
+    private ForkJoinPool mappingPool;
     private RepositoryController repositoryController;
     private RegistryController registryController;
     private Monitor monitor;
@@ -102,9 +110,12 @@ public class AasExtension implements ServiceExtension {
         // This will probably fail if multiple participantIds are registered
         String participantId = participantIdentityResolver.getParticipantId("default", "dataspace-protocol-http");
 
-        repositoryController = new RepositoryController(monitor, aasServerStore, hostname, new EdcStoreHandler(assetIndex, contractDefinitionStore, participantId), vault,
-                oauth2Client);
-        registryController = new RegistryController(monitor, aasServerStore, new EdcStoreHandler(assetIndex, contractDefinitionStore, participantId), vault,
+        // Shared by all repositories and registries for mapping and unregistering their elements
+        mappingPool = new ForkJoinPool(Math.max(1, Configuration.getInstance().getMappingParallelism()));
+
+        repositoryController = new RepositoryController(monitor, aasServerStore, hostname, new EdcStoreHandler(assetIndex, contractDefinitionStore, participantId, mappingPool),
+                vault, oauth2Client);
+        registryController = new RegistryController(monitor, aasServerStore, new EdcStoreHandler(assetIndex, contractDefinitionStore, participantId, mappingPool), vault,
                 oauth2Client);
 
         // Add public endpoint if wanted by config
@@ -113,7 +124,13 @@ public class AasExtension implements ServiceExtension {
                     Map.of())));
         }
 
-        webService.registerResource(new SelfDescriptionController(monitor, aasServerStore));
+        selfDescriptionExecutor = executorInstrumentation.instrument(
+                Executors.newFixedThreadPool(SelfDescriptionController.SELF_DESCRIPTION_PARALLELISM, runnable -> {
+                    var thread = new Thread(runnable, "aas-self-description");
+                    thread.setDaemon(true);
+                    return thread;
+                }), "aas-self-description");
+        webService.registerResource(new SelfDescriptionController(monitor, aasServerStore, selfDescriptionExecutor));
         webService.registerResource(repositoryController);
         webService.registerResource(registryController);
 
@@ -164,5 +181,7 @@ public class AasExtension implements ServiceExtension {
     public void shutdown() {
         repositoryController.unregisterAll();
         registryController.unregisterAll();
+        selfDescriptionExecutor.shutdownNow();
+        mappingPool.shutdown();
     }
 }
@@ -16,7 +16,7 @@
 package de.fraunhofer.iosb.app.aas.mapper.referable;
 
 import de.fraunhofer.iosb.app.aas.mapper.ElementMapper;
-import de.fraunhofer.iosb.app.aas.mapper.util.FilteredJsonSerializer;
+import de.fraunhofer.iosb.app.aas.mapper.util.IriPropertyExtractor;
 import de.fraunhofer.iosb.client.AasServerClient;
 import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
 import org.eclipse.digitaltwin.aas4j.v3.model.annotations.IRI;
@@ -29,7 +29,8 @@ import static de.fraunhofer.iosb.constants.AasConstants.DEFAULT_EXPOSED_FIELDS;
 public abstract class ReferableMapper extends ElementMapper {
 
     public static final String CONTENT_TYPE = "application/json";
-    private final FilteredJsonSerializer jsonSerializer = new FilteredJsonSerializer();
+    // Shared by all mappers, the accessors of each AAS class are looked up only once
+    private static final IriPropertyExtractor PROPERTY_EXTRACTOR = new IriPropertyExtractor(DEFAULT_EXPOSED_FIELDS);
 
 
     protected ReferableMapper(AasServerClient client) {
@@ -41,8 +42,7 @@ public abstract class ReferableMapper extends ElementMapper {
 
         var assetBuilder = Asset.Builder.newInstance();
 
-        var filterDefaults = jsonSerializer.toMap(referable, DEFAULT_EXPOSED_FIELDS);
-        assetBuilder.properties(filterDefaults);
+        assetBuilder.properties(PROPERTY_EXTRACTOR.extract(referable));
 
         String[] modelingType = referable.getClass().getAnnotation(IRI.class).value();
 
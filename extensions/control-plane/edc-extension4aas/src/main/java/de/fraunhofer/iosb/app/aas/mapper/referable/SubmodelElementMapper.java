@@ -18,6 +18,7 @@ package de.fraunhofer.iosb.app.aas.mapper.referable;
 import de.fraunhofer.iosb.app.model.configuration.Configuration;
 import de.fraunhofer.iosb.client.AasServerClient;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementCollection;
@@ -25,20 +26,37 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementList;
 import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.IntSupplier;
 
 
 /**
- * Map any instance of SubmodelElement to an EDC asset.
+ * Map any instance of SubmodelElement to an EDC asset. Child elements of collections and lists are added to the parent's asset, either as complete assets or only by their
+ * asset IDs once the configured depth (edc.aas.embeddedChildrenDepth) is reached.
  */
 public class SubmodelElementMapper extends ReferableMapper {
 
     public static final String SMC_CHILDREN_LOCATION = "value";
 
+    private final IntSupplier embeddedChildrenDepth;
+
 
     public SubmodelElementMapper(AasServerClient client) {
+        this(client, () -> Configuration.getInstance().getEmbeddedChildrenDepth());
+    }
+
+
+    /**
+     * Class constructor
+     *
+     * @param client The AAS server the elements belong to.
+     * @param embeddedChildrenDepth Levels of children to embed as assets, deeper children are referenced by asset ID. Negative values embed all children.
+     */
+    public SubmodelElementMapper(AasServerClient client, IntSupplier embeddedChildrenDepth) {
         super(client);
+        this.embeddedChildrenDepth = embeddedChildrenDepth;
     }
 
 
@@ -52,21 +70,25 @@ public class SubmodelElementMapper extends ReferableMapper {
      * @return Mapped submodelElement.
      */
     public <E extends SubmodelElement> Asset map(Reference parent, E submodelElement) {
-        return map(parent, submodelElement, false);
+        Reference reference = AasUtils.toReference(parent, submodelElement);
+        return map(parent, submodelElement, mapChildren(reference, submodelElement));
     }
 
 
-    /* May contain traces of recursion */
-    private <E extends SubmodelElement> Asset map(Reference parent, E submodelElement, boolean isListElement) {
+    /**
+     * Map the submodelElement to an EDC asset using the already mapped assets of its children. This way, every element of a submodel is mapped only once.
+     *
+     * @param parent Parent element to resolve the path in the environment.
+     * @param submodelElement SubmodelElement to map.
+     * @param mappedChildren Assets of the submodelElement's children in their order in the submodelElement.
+     * @return Mapped submodelElement.
+     */
+    public Asset map(Reference parent, SubmodelElement submodelElement, List<Asset> mappedChildren) {
         Reference reference = AasUtils.toReference(parent, submodelElement);
 
-        if (isListElement) {
-            submodelElement.setIdShort(null);
-        }
-
         var dataAddress = createDataAddress(reference);
 
-        Asset.Builder assetBuilder = super.map(submodelElement)
+        Asset.Builder assetBuilder = mapMetadata(parent, submodelElement)
                 .id(generateId(reference));
 
         if (Configuration.getInstance().useAasDataPlane()) {
@@ -76,39 +98,88 @@ public class SubmodelElementMapper extends ReferableMapper {
             assetBuilder.dataAddress(dataAddress.asHttpDataAddress());
         }
 
-        Optional<List<Asset>> childrenMaybe = handleChildren(reference, submodelElement);
-
-        childrenMaybe.ifPresent(assets -> assetBuilder.property(SMC_CHILDREN_LOCATION, assets));
+        if (!mappedChildren.isEmpty()) {
+            int depth = embeddedChildrenDepth.getAsInt();
+            assetBuilder.property(SMC_CHILDREN_LOCATION, mappedChildren.stream().map(child -> embed(child, depth)).toList());
+        }
 
         return assetBuilder.build();
     }
 
 
-    private <T extends SubmodelElement> Optional<List<Asset>> handleChildren(Reference parent, T submodelElement) {
-        Optional<List<SubmodelElement>> childrenMaybe = getChildElements(submodelElement);
+    /* AASd-120: Elements of a SubmodelElementList have an index instead of an idShort, which is not advertised */
+    private Asset.Builder mapMetadata(Reference parent, SubmodelElement submodelElement) {
+        if (!isListElement(parent)) {
+            return super.map(submodelElement);
+        }
+
+        String index = submodelElement.getIdShort();
+        submodelElement.setIdShort(null);
+        try {
+            return super.map(submodelElement);
+        }
+        finally {
+            submodelElement.setIdShort(index);
+        }
+    }
+
+
+    /* Represent a child (and its children) up to the remaining depth, below that by asset ID only. A negative depth embeds all children. */
+    private Object embed(Object child, int remainingDepth) {
+        if (!(child instanceof Asset asset)) {
+            // Already referenced by its ID
+            return child;
+        }
+        if (remainingDepth == 0) {
+            return asset.getId();
+        }
+
+        // The child's own asset is registered on its own, the parent gets a copy so that neither is modified through the other
+        var embedded = Asset.Builder.newInstance()
+                .id(asset.getId())
+                .createdAt(asset.getCreatedAt())
+                .properties(new HashMap<>(asset.getProperties()))
+                .privateProperties(new HashMap<>(asset.getPrivateProperties()))
+                .dataAddress(asset.getDataAddress());
+        if (asset.getProperty(SMC_CHILDREN_LOCATION) instanceof List<?> grandChildren) {
+            embedded.property(SMC_CHILDREN_LOCATION, grandChildren.stream().map(grandChild -> embed(grandChild, remainingDepth - 1)).toList());
+        }
+        return embedded.build();
+    }
+
 
-        List<Asset> mappedChildren = null;
+    /* May contain traces of recursion */
+    private List<Asset> mapChildren(Reference reference, SubmodelElement submodelElement) {
+        Optional<List<SubmodelElement>> childrenMaybe = getChildElements(submodelElement);
 
-        if (childrenMaybe.isPresent() && !childrenMaybe.get().isEmpty()) {
-            List<SubmodelElement> children = childrenMaybe.get();
+        if (childrenMaybe.isEmpty() || childrenMaybe.get().isEmpty()) {
+            return List.of();
+        }
 
-            mappedChildren = new ArrayList<>(children.size());
+        List<SubmodelElement> children = childrenMaybe.get();
+        List<Asset> mappedChildren = new ArrayList<>(children.size());
 
-            for (int i = 0; i < children.size(); i++) {
-                SubmodelElement child = children.get(i);
+        for (int i = 0; i < children.size(); i++) {
+            SubmodelElement child = children.get(i);
 
-                // AASd-120
-                if (child.getIdShort() == null && submodelElement instanceof SubmodelElementList) {
-                    child.setIdShort(String.valueOf(i));
-                    mappedChildren.add(map(parent, child, true));
-                }
-                else {
-                    mappedChildren.add(map(parent, child, false));
-                }
+            // AASd-120
+            if (child.getIdShort() == null && submodelElement instanceof SubmodelElementList) {
+                child.setIdShort(String.valueOf(i));
+                mappedChildren.add(map(reference, child));
+                child.setIdShort(null);
+            }
+            else {
+                mappedChildren.add(map(reference, child));
             }
         }
 
-        return Optional.ofNullable(mappedChildren);
+        return mappedChildren;
+    }
+
+
+    private boolean isListElement(Reference parent) {
+        return parent != null && !parent.getKeys().isEmpty() &&
+                parent.getKeys().get(parent.getKeys().size() - 1).getType() == KeyTypes.SUBMODEL_ELEMENT_LIST;
     }
 
 
@@ -15,6 +15,8 @@
  */
 package de.fraunhofer.iosb.app.aas.mapper.util;
 
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import de.fraunhofer.iosb.app.model.configuration.Configuration;
 import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
 import org.eclipse.digitaltwin.aas4j.v3.model.Identifiable;
@@ -23,24 +25,70 @@ import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.validate;
 
 
 /**
- * Utility class to generate distinct Asset IDs based on AAS elements.
+ * Utility class to generate distinct Asset IDs based on AAS elements. IDs are name-based (128 bit) UUIDs of the element's location. With edc.aas.legacyAssetIds, the 32 bit IDs
+ * of previous versions are generated instead.
  */
 public abstract class AssetIdUtil {
 
+    // Generated IDs per AAS server and reference, the least recently used ID is evicted first
+    private static final int MAX_CACHED_IDS = 1 << 20;
+    private static final Map<CacheKey, String> ID_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) {
+            return size() > MAX_CACHED_IDS;
+        }
+    };
+
+
     /**
      * Generates a unique and fixed identifier for a given AAS reference and its location in the network.
      *
      * @param url Location of the AAS element in the network
-     * @param reference Location of the AAS element in its environment
+     * @param reference Location of the AAS element in its environment, must not be modified afterward
      * @return A unique and fixed identifier based on the given arguments
      */
     public static String id(String url, Reference reference) {
+        return id(url, reference, Configuration.getInstance().useLegacyAssetIds());
+    }
+
+
+    public static String id(String url, Identifiable identifiable) {
+        return id(url, AasUtils.toReference(identifiable));
+    }
+
+
+    static String id(String url, Reference reference, boolean legacy) {
+        var cacheKey = new CacheKey(url, ReferenceKey.of(reference), legacy);
+        String cached;
+        synchronized (ID_CACHE) {
+            cached = ID_CACHE.get(cacheKey);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        String location = "%s:%s".formatted(url, path(reference));
+        String id = legacy ?
+                String.valueOf(location.hashCode()) :
+                UUID.nameUUIDFromBytes(location.getBytes(StandardCharsets.UTF_8)).toString();
+
+        synchronized (ID_CACHE) {
+            ID_CACHE.put(cacheKey, id);
+        }
+        return id;
+    }
+
+
+    private static String path(Reference reference) {
         List<String> problems = validate(reference);
         if (!problems.isEmpty()) {
             throw new IllegalStateException(String.format("Malformed reference in AasDataAddress: %s \n problems:\n\t%s", reference,
@@ -63,11 +111,10 @@ public abstract class AssetIdUtil {
                     .concat(ReferenceHelper.toPath(reference));
         }
 
-        return String.valueOf("%s:%s".formatted(url, path).hashCode());
+        return path;
     }
 
 
-    public static String id(String url, Identifiable identifiable) {
-        return id(url, AasUtils.toReference(identifiable));
+    private record CacheKey(String url, ReferenceKey reference, boolean legacy) {
     }
 }
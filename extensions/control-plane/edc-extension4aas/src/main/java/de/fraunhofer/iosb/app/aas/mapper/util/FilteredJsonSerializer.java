@@ -16,14 +16,16 @@
 package de.fraunhofer.iosb.app.aas.mapper.util;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.PropertyName;
 import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
 import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
@@ -34,17 +36,22 @@ import org.eclipse.digitaltwin.aas4j.v3.model.annotations.IRI;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
 
 
 /**
- * Extension of the aas4j-JsonSerializer that is able to remove unwanted fields from AAS objects.
+ * Extension of the aas4j-JsonSerializer that is able to remove unwanted fields from AAS objects. The filtering writers and mappers are built once per set of allowed fields
+ * and shared between threads, so Jackson's serializer caches are reused.
  */
 public class FilteredJsonSerializer extends JsonSerializer {
     private static final TypeReference<Map<String, Object>> JSON_MAP_TYPE_REF = new TypeReference<>() {
     };
 
+    private final Map<Set<String>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Set<String>, ObjectMapper> mapConverters = new ConcurrentHashMap<>();
+
 
     /**
      * Constructor of class
@@ -65,15 +72,14 @@ public class FilteredJsonSerializer extends JsonSerializer {
      * @throws SerializationException if serialization fails
      */
     public String write(Object aasInstance, Set<String> allowedFields) throws SerializationException {
-        // Store copy of unmodified mapper
-        JsonMapper mapperCopy = mapper.copy();
         try {
-            mapper.registerModule(moduleFor(allowedFields));
-            return super.write(aasInstance);
+            return writers.computeIfAbsent(Set.copyOf(allowedFields), fields -> mapper.copy()
+                            .registerModule(moduleFor(fields))
+                            .writer())
+                    .writeValueAsString(aasInstance);
         }
-        finally {
-            // Be sure to not keep modified mapper
-            mapper = mapperCopy;
+        catch (JsonProcessingException e) {
+            throw new SerializationException("error serializing AAS instance", e);
         }
     }
 
@@ -82,12 +88,13 @@ public class FilteredJsonSerializer extends JsonSerializer {
      * Extends the default write() method with a filter to avoid unwanted fields from being exposed via catalog.
      *
      * @param aasInstance the AAS instance to serialize
+     * @param allowedFields Fields of the AAS object to keep. Fields not mentioned here will be removed
      * @return the filtered map representation
      */
     public Map<String, Object> toMap(Object aasInstance, Set<String> allowedFields) {
-        return mapper.copy()
-                .setAnnotationIntrospector(new NamespacingIntrospector())
-                .registerModule(moduleFor(allowedFields))
+        return mapConverters.computeIfAbsent(Set.copyOf(allowedFields), fields -> mapper.copy()
+                        .setAnnotationIntrospector(new NamespacingIntrospector())
+                        .registerModule(moduleFor(fields)))
                 .convertValue(aasInstance, JSON_MAP_TYPE_REF);
     }
 
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.aas.mapper.util;
+
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.internal.serialization.EnumSerializer;
+import org.eclipse.digitaltwin.aas4j.v3.model.annotations.IRI;
+import org.eclipse.edc.spi.EdcException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
+
+
+/**
+ * Reads the properties of AAS objects whose IRI is exposed, without serializing the whole object. The getters of the exposed properties are looked up once per class using the
+ * aas4j {@link IRI} annotations. The result has the same shape as the namespaced, filtered JSON representation of the object: Keys are the properties' IRIs, nested AAS objects
+ * are maps, enums are written by their AAS name, binary values are Base64 encoded (as Jackson writes them) and empty values are left out. As with the namespaced
+ * serialization, there is no "modelType" entry: the type of an element is not one of its exposed properties.
+ */
+public class IriPropertyExtractor {
+
+    private final Set<String> exposedIris;
+    private final Map<Class<?>, List<Accessor>> accessors = new ConcurrentHashMap<>();
+
+
+    /**
+     * Class constructor
+     *
+     * @param exposedFields Fields to read, for example "Referable/idShort".
+     */
+    public IriPropertyExtractor(Set<String> exposedFields) {
+        this.exposedIris = exposedFields.stream()
+                .map(AAS_V30_NAMESPACE::concat)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+
+    /**
+     * Read the exposed properties of an AAS object.
+     *
+     * @param aasInstance The AAS object.
+     * @return The exposed properties, keyed by their IRI.
+     */
+    public Map<String, Object> extract(Object aasInstance) {
+        List<Accessor> classAccessors = accessors.computeIfAbsent(aasInstance.getClass(), this::scan);
+        Map<String, Object> properties = new LinkedHashMap<>(classAccessors.size() * 2);
+        for (Accessor accessor: classAccessors) {
+            Object value = convert(accessor.get(aasInstance));
+            if (value != null) {
+                properties.put(accessor.iri(), value);
+            }
+        }
+        return properties;
+    }
+
+
+    private Object convert(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String string) {
+            return string.isEmpty() ? null : string;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return EnumSerializer.serializeEnumName(enumValue.name());
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> converted = new ArrayList<>(collection.size());
+            for (Object element: collection) {
+                Object convertedElement = convert(element);
+                if (convertedElement != null) {
+                    converted.add(convertedElement);
+                }
+            }
+            return converted.isEmpty() ? null : converted;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length == 0 ? null : Base64.getEncoder().encodeToString(bytes);
+        }
+        if (value.getClass().getName().startsWith("java.")) {
+            // Not an AAS object, exposed as its string representation
+            return value.toString();
+        }
+        return extract(value);
+    }
+
+
+    /* Runs once per class: find the getters of all exposed properties */
+    private List<Accessor> scan(Class<?> clazz) {
+        List<Accessor> found = new ArrayList<>();
+        for (Method method: clazz.getMethods()) {
+            if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            String iri = findIri(clazz, method);
+            if (iri != null && exposedIris.contains(iri)) {
+                if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    method.trySetAccessible();
+                }
+                found.add(new Accessor(iri, method));
+            }
+        }
+        return List.copyOf(found);
+    }
+
+
+    /* aas4j annotates the getters of the model interfaces and the fields of the implementations */
+    private static String findIri(Class<?> clazz, Method method) {
+        String iri = iriValue(method.getAnnotation(IRI.class));
+        if (iri != null) {
+            return iri;
+        }
+        for (Class<?> type: supertypes(clazz)) {
+            try {
+                iri = iriValue(type.getMethod(method.getName()).getAnnotation(IRI.class));
+                if (iri != null) {
+                    return iri;
+                }
+            }
+            catch (NoSuchMethodException notDeclaredHere) {
+                // Look at next supertype
+            }
+        }
+        String propertyName = propertyName(method.getName());
+        if (propertyName == null) {
+            return null;
+        }
+        for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(propertyName);
+                return iriValue(field.getAnnotation(IRI.class));
+            }
+            catch (NoSuchFieldException notDeclaredHere) {
+                // Look at superclass
+            }
+        }
+        return null;
+    }
+
+
+    private static List<Class<?>> supertypes(Class<?> clazz) {
+        List<Class<?>> supertypes = new ArrayList<>();
+        List<Class<?>> toVisit = new ArrayList<>(List.of(clazz.getInterfaces()));
+        if (clazz.getSuperclass() != null) {
+            toVisit.add(clazz.getSuperclass());
+        }
+        while (!toVisit.isEmpty()) {
+            Class<?> type = toVisit.remove(0);
+            if (type == Object.class || supertypes.contains(type)) {
+                continue;
+            }
+            supertypes.add(type);
+            toVisit.addAll(List.of(type.getInterfaces()));
+            if (type.getSuperclass() != null) {
+                toVisit.add(type.getSuperclass());
+            }
+        }
+        return supertypes;
+    }
+
+
+    private static String propertyName(String getterName) {
+        String name;
+        if (getterName.startsWith("get") && getterName.length() > 3) {
+            name = getterName.substring(3);
+        }
+        else if (getterName.startsWith("is") && getterName.length() > 2) {
+            name = getterName.substring(2);
+        }
+        else {
+            return null;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+
+    private static String iriValue(IRI annotation) {
+        return annotation != null && annotation.value().length > 0 ? annotation.value()[0] : null;
+    }
+
+
+    private record Accessor(String iri, Method getter) {
+
+        Object get(Object instance) {
+            try {
+                return getter.invoke(instance);
+            }
+            catch (IllegalAccessException | InvocationTargetException e) {
+                throw new EdcException(String.format("Could not read %s of %s", iri, instance.getClass().getSimpleName()), e);
+            }
+        }
+    }
+}
@@ -22,21 +22,44 @@ import de.fraunhofer.iosb.app.stores.repository.AasServerStore;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.SerializationException;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
+import org.eclipse.edc.spi.EdcException;
 import org.eclipse.edc.spi.monitor.Monitor;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.ConnectException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -53,12 +76,19 @@ import static de.fraunhofer.iosb.constants.AasConstants.EXPOSED_FIELDS_SELF_DESC
 public class SelfDescriptionController {
 
     public static final String SELF_DESCRIPTION_PATH = "selfDescription";
+    public static final int SELF_DESCRIPTION_PARALLELISM = 4;
+    // Failed builds are reused for this long, then retried since the AAS server may be available again
+    private static final long FAILURE_RETRY_NANOS = TimeUnit.SECONDS.toNanos(10);
 
     private final Supplier<Set<String>> exposedFieldsSupplier = () -> Optional.ofNullable(Configuration.getInstance().getExposedFields())
             .orElse(DEFAULT_EXPOSED_FIELDS);
     private final Monitor monitor;
     private final AasServerStore aasRepositoryStore;
     private final FilteredJsonSerializer filteredJsonSerializer = new FilteredJsonSerializer();
+    // Serialized self-descriptions per handler, built or in progress. Handlers removed from the store are dropped by the garbage collector.
+    private final Map<AasHandler<?>, CacheEntry> selfDescriptions = Collections.synchronizedMap(new WeakHashMap<>());
+    // Self-descriptions of different AAS servers are built in parallel
+    private final Executor executor;
 
 
     /**
@@ -66,21 +96,26 @@ public class SelfDescriptionController {
      *
      * @param monitor Logs
      * @param aasRepositoryStore AAS repository store
+     * @param executor Builds self-descriptions, owned by the caller (see {@link #SELF_DESCRIPTION_PARALLELISM}).
      */
-    public SelfDescriptionController(Monitor monitor, AasServerStore aasRepositoryStore) {
+    public SelfDescriptionController(Monitor monitor, AasServerStore aasRepositoryStore, Executor executor) {
         this.monitor = monitor;
         this.aasRepositoryStore = aasRepositoryStore;
+        this.executor = executor;
     }
 
 
     /**
      * Print self-descriptions of AAS environments registered at this EDC. If no query parameter is given, print all self-descriptions available.
+     * Self-descriptions are only rebuilt if the underlying AAS server changed and are streamed to the client as soon as they are available. If all self-descriptions are
+     * up-to-date, the response carries an ETag. If the client already holds the current self-descriptions (If-None-Match), 304 is returned.
      *
      * @param uri Specify an AAS environment by its service
+     * @param ifNoneMatch Entity tags of self-descriptions the client already holds
      * @return Self description(s)
      */
     @GET
-    public String getSelfDescription(@QueryParam("url") URI uri) {
+    public Response getSelfDescription(@QueryParam("url") URI uri, @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
         monitor.debug(String.format("GET %s", SELF_DESCRIPTION_PATH));
 
         List<AasHandler<?>> handlers = new ArrayList<>();
@@ -94,27 +129,146 @@ public class SelfDescriptionController {
                         () -> handlers.addAll(aasRepositoryStore.getAll())
                 );
 
-        List<Environment> selfDescriptions = new ArrayList<>();
-        for (AasHandler<?> handler: handlers) {
-            try {
-                selfDescriptions.add(handler.buildSelfDescription());
+        Set<String> exposedFields = new HashSet<>(exposedFieldsSupplier.get());
+        exposedFields.addAll(EXPOSED_FIELDS_SELF_DESCRIPTION);
+
+        List<CompletableFuture<CachedSelfDescription>> selfDescriptionFutures = handlers.stream()
+                .map(handler -> getSelfDescription(handler, exposedFields))
+                .toList();
+
+        var cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+
+        if (selfDescriptionFutures.stream().allMatch(CompletableFuture::isDone)) {
+            // Everything is cached, the entity tag can be computed before streaming the response. Failed self-descriptions are not part of the response and
+            // therefore not part of the entity tag.
+            var entityTag = new EntityTag(digest(selfDescriptionFutures.stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .map(CachedSelfDescription::digest)
+                    .collect(Collectors.joining(","))));
+
+            if (matches(ifNoneMatch, entityTag)) {
+                return Response.notModified(entityTag).cacheControl(cacheControl).build();
             }
-            catch (UnauthorizedException | ConnectException e) {
-                monitor.warning("Could not produce a self description", e);
+            return Response.ok(stream(selfDescriptionFutures))
+                    .tag(entityTag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        return Response.ok(stream(selfDescriptionFutures))
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+
+    /* Writes the self-descriptions as JSON array in order of the handlers, each as soon as it is available. */
+    private StreamingOutput stream(List<CompletableFuture<CachedSelfDescription>> selfDescriptionFutures) {
+        return output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write('[');
+            boolean first = true;
+            for (var selfDescriptionFuture: selfDescriptionFutures) {
+                var selfDescription = selfDescriptionFuture.join();
+                if (selfDescription == null) {
+                    continue;
+                }
+                if (!first) {
+                    writer.write(',');
+                }
+                first = false;
+                writer.write(selfDescription.json());
+                writer.flush();
             }
+            writer.write(']');
+            writer.flush();
+        };
+    }
+
+
+    /*
+     * Returns the cached self-description if up-to-date, else builds it asynchronously. Concurrent requests for the same version share one build. Completes with null if
+     * it could not be built.
+     */
+    private CompletableFuture<CachedSelfDescription> getSelfDescription(AasHandler<?> handler, Set<String> exposedFields) {
+        // Read the version before building so changes during the build invalidate the result
+        long version = handler.getSelfDescriptionVersion();
+        long now = System.nanoTime();
+        return selfDescriptions.compute(handler, (key, cached) -> cached != null && cached.reusableFor(version, exposedFields, now) ?
+                        cached :
+                        new CacheEntry(version, Set.copyOf(exposedFields), now, buildSelfDescriptionAsync(handler, exposedFields)))
+                .selfDescription();
+    }
+
+
+    private CompletableFuture<CachedSelfDescription> buildSelfDescriptionAsync(AasHandler<?> handler, Set<String> exposedFields) {
+        return CompletableFuture.supplyAsync(() -> buildSelfDescription(handler, exposedFields), executor)
+                .exceptionally(failure -> {
+                    var cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                    monitor.warning("Could not produce a self description", cause);
+                    return null;
+                });
+    }
+
+
+    private CachedSelfDescription buildSelfDescription(AasHandler<?> handler, Set<String> exposedFields) {
+        Environment selfDescription;
+        try {
+            selfDescription = handler.buildSelfDescription();
+        }
+        catch (UnauthorizedException | ConnectException e) {
+            throw new CompletionException(e);
         }
 
-        Set<String> exposedFields = new HashSet<>(exposedFieldsSupplier.get());
-        exposedFields.addAll(EXPOSED_FIELDS_SELF_DESCRIPTION);
+        String json;
+        try {
+            json = filteredJsonSerializer.write(selfDescription, exposedFields);
+        }
+        catch (SerializationException e) {
+            throw new EdcException(e);
+        }
+
+        return new CachedSelfDescription(json, digest(json));
+    }
+
+
+    private static boolean matches(String ifNoneMatch, EntityTag entityTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                // Weak comparison as defined for If-None-Match
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals("\"" + entityTag.getValue() + "\""));
+    }
+
 
-        return "[" + selfDescriptions.stream()
-                .map(selfDescription -> {
-                    try {
-                        return filteredJsonSerializer.write(selfDescription, exposedFields);
-                    }
-                    catch (SerializationException e) {
-                        throw new RuntimeException(e);
-                    }
-                }).collect(Collectors.joining(",")) + "]";
+    private static String digest(String value) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+
+    private record CachedSelfDescription(String json, String digest) {
+    }
+
+
+    /* A self-description of one version of a handler, completed or still being built */
+    private record CacheEntry(long version, Set<String> exposedFields, long createdNanos, CompletableFuture<CachedSelfDescription> selfDescription) {
+
+        boolean reusableFor(long version, Set<String> exposedFields, long now) {
+            if (this.version != version || !this.exposedFields.equals(exposedFields)) {
+                return false;
+            }
+            boolean failed = selfDescription.isDone() && selfDescription.join() == null;
+            return !failed || now - createdNanos < FAILURE_RETRY_NANOS;
+        }
     }
 }
@@ -24,9 +24,12 @@ import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
@@ -60,19 +63,8 @@ public class ContractDefinitionService {
     }
 
 
-    @SuppressWarnings("unchecked")
     private static List<String> getSelectedAssets(String assetId, Criterion assetsSelector) {
-        List<String> selectedAssets;
-        if (assetsSelector.getOperandRight() instanceof List<?> assets &&
-                !assets.isEmpty() &&
-                assets.get(0) instanceof String) {
-
-            selectedAssets = new ArrayList<>((List<String>) assets);
-
-        }
-        else {
-            throw new IllegalStateException("ContractDefinition created by AAS Extension was malformed");
-        }
+        List<String> selectedAssets = getSelectedAssets(assetsSelector);
 
         if (!selectedAssets.contains(assetId)) {
             selectedAssets.add(assetId);
@@ -81,6 +73,18 @@ public class ContractDefinitionService {
     }
 
 
+    @SuppressWarnings("unchecked")
+    private static List<String> getSelectedAssets(Criterion assetsSelector) {
+        if (assetsSelector.getOperandRight() instanceof List<?> assets &&
+                !assets.isEmpty() &&
+                assets.get(0) instanceof String) {
+
+            return new ArrayList<>((List<String>) assets);
+        }
+        throw new IllegalStateException("ContractDefinition created by AAS Extension was malformed");
+    }
+
+
     /**
      * Adds the asset ID to the contract definition defined by the access&contract policy IDs. If no suitable contract definition exists, one will be created and stored to the EDC
      * contract definition store.
@@ -117,17 +121,31 @@ public class ContractDefinitionService {
      * @return Store result containing the state of the operation.
      */
     public StoreResult<Void> removeFromContract(String assetId, String accessPolicyId, String contractPolicyId) {
+        return removeAllFromContract(List.of(assetId), accessPolicyId, contractPolicyId);
+    }
+
+
+    /**
+     * Removes the asset IDs from the contract definition defined by the access&contract policy IDs. Each matching contract definition is updated (or deleted if no asset IDs
+     * remain) only once, regardless of the number of asset IDs.
+     *
+     * @param assetIds The asset ids to be removed from any matching contract.
+     * @param accessPolicyId The access policy of the contract definition.
+     * @param contractPolicyId The contract (usage) policy of the contract definition.
+     * @return Store result containing the state of the operation.
+     */
+    public StoreResult<Void> removeAllFromContract(Collection<String> assetIds, String accessPolicyId, String contractPolicyId) {
         List<String> problems = new ArrayList<>();
+        Set<String> toRemove = new HashSet<>(assetIds);
 
-        var correspondingContracts = findCorrespondingContracts(accessPolicyId, contractPolicyId, assetId);
+        var correspondingContracts = findCorrespondingContracts(accessPolicyId, contractPolicyId, toRemove);
 
         for (ContractDefinition contractDefinition: correspondingContracts) {
-            // Remove assetId from this contract definition
+            // Remove assetIds from this contract definition
             Criterion assetsSelector = contractDefinition.getAssetsSelector().get(0);
 
-            List<String> selectedAssets = getSelectedAssets(assetId, assetsSelector);
-            List<String> updatedAssets = selectedAssets.stream()
-                    .filter(s -> !assetId.equals(s))
+            List<String> updatedAssets = getSelectedAssets(assetsSelector).stream()
+                    .filter(s -> !toRemove.contains(s))
                     .toList();
 
             Criterion updatedAssetsSelector = getAssetIdCriterion(updatedAssets);
@@ -173,7 +191,7 @@ public class ContractDefinitionService {
     }
 
 
-    private List<ContractDefinition> findCorrespondingContracts(String accessPolicyId, String contractPolicyId, String assetId) {
+    private List<ContractDefinition> findCorrespondingContracts(String accessPolicyId, String contractPolicyId, Set<String> assetIds) {
         Stream<ContractDefinition> contractDefinitions = findContracts(accessPolicyId, contractPolicyId);
 
         // ContainsPredicate does not seem to work, so implement it here
@@ -181,7 +199,7 @@ public class ContractDefinitionService {
                 contractDefinition -> contractDefinition.getAssetsSelector()
                         .stream().filter(predicate -> predicate.getOperandLeft().equals(Asset.PROPERTY_ID))
                         .filter(predicate -> predicate.getOperator().equalsIgnoreCase(IN))
-                        .anyMatch(predicate -> ((List<?>) predicate.getOperandRight()).contains(assetId))
+                        .anyMatch(predicate -> ((List<?>) predicate.getOperandRight()).stream().anyMatch(assetIds::contains))
         ).toList();
     }
 
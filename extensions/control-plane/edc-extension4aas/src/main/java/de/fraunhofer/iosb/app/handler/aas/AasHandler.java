@@ -16,6 +16,7 @@
 package de.fraunhofer.iosb.app.handler.aas;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.app.aas.mapper.referable.SubmodelElementMapper;
 import de.fraunhofer.iosb.app.aas.mapper.referable.identifiable.IdentifiableMapper;
 import de.fraunhofer.iosb.app.aas.mapper.util.AssetIdUtil;
@@ -36,7 +37,6 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementList;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultExtension;
 import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 import org.eclipse.edc.spi.monitor.Monitor;
-import org.eclipse.edc.spi.result.AbstractResult;
 import org.eclipse.edc.spi.result.StoreFailure;
 import org.eclipse.edc.spi.result.StoreResult;
 
@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -63,6 +64,8 @@ public abstract class AasHandler<C extends AasServerClient> {
     protected final Monitor monitor;
     protected final C client;
     private final EdcStoreHandler edcStoreHandler;
+    // Incremented whenever a change to the AAS server's content was detected
+    private final AtomicLong selfDescriptionVersion = new AtomicLong();
 
 
     protected AasHandler(Monitor monitor, C client, EdcStoreHandler edcStoreHandler) {
@@ -102,20 +105,32 @@ public abstract class AasHandler<C extends AasServerClient> {
     }
 
 
+    /**
+     * Returns the version of this handler's self-description. The version changes whenever synchronization or event handling detected a change of the AAS server's content,
+     * so a self-description built for an unchanged version can be reused.
+     *
+     * @return The current self-description version.
+     */
+    public long getSelfDescriptionVersion() {
+        return selfDescriptionVersion.get();
+    }
+
+
     public void cleanUp() {
         monitor.info("Unregistering...");
         Map<PolicyBinding, Asset> filtered = getCurrentlyRegistered();
 
-        List<String> unregisterFailedMessages = filtered.entrySet().stream()
-                .map(entry -> unregisterSingle(entry.getKey(), entry.getValue().getId()))
-                .filter(AbstractResult::failed)
-                .map(StoreResult::getFailureDetail)
-                .toList();
+        Map<PolicyBinding, String> assetIds = filtered.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getId()));
+
+        StoreResult<Void> result = edcStoreHandler.unregisterAll(assetIds);
 
-        monitor.warning(String.format("Failed unregistering assets with IDs %s", unregisterFailedMessages));
+        if (result.failed()) {
+            monitor.warning(String.format("Failed unregistering assets of repository %s: %s", client.getUri(), result.getFailureDetail()));
+            return;
+        }
 
-        monitor.info(String.format("Unregistered %s AAS elements from repository %s.", filtered.size() - unregisterFailedMessages.size(),
-                client.getUri()));
+        monitor.info(String.format("Unregistered %s AAS elements from repository %s.", filtered.size(), client.getUri()));
     }
 
 
@@ -140,10 +155,10 @@ public abstract class AasHandler<C extends AasServerClient> {
             throw new RuntimeException(e);
         }
 
-        Map<Reference, Asset> mapped = MappingHelper.map(currentEnvironment, identifiableMapper::map, submodelElementMapper::map);
+        Map<ReferenceKey, Asset> mapped = map(currentEnvironment);
 
         return mapped.entrySet().stream()
-                .filter(entry -> client.eligibleForRegistration(entry.getKey()))
+                .filter(entry -> client.eligibleForRegistration(entry.getKey().reference()))
                 .map(entry -> Map.entry(policyBindingFor(entry.getKey()), entry.getValue()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
@@ -153,10 +168,10 @@ public abstract class AasHandler<C extends AasServerClient> {
     protected Map<PolicyBinding, Asset> initialize() throws UnauthorizedException, ConnectException {
         Environment currentEnvironment = getEnvironment();
 
-        Map<Reference, Asset> mapped = MappingHelper.map(currentEnvironment, identifiableMapper::map, submodelElementMapper::map);
+        Map<ReferenceKey, Asset> mapped = map(currentEnvironment);
 
         Stream<Map.Entry<PolicyBinding, Asset>> filtered = mapped.entrySet().stream()
-                .filter(entry -> client.eligibleForRegistration(entry.getKey()))
+                .filter(entry -> client.eligibleForRegistration(entry.getKey().reference()))
                 .map(entry -> Map.entry(policyBindingFor(entry.getKey()), entry.getValue()));
 
         var registered = filtered
@@ -169,6 +184,12 @@ public abstract class AasHandler<C extends AasServerClient> {
     }
 
 
+    /* Map all elements of the environment to assets, submodels are mapped in parallel in the pool shared by all handlers */
+    protected Map<ReferenceKey, Asset> map(Environment environment) {
+        return MappingHelper.map(environment, identifiableMapper::map, submodelElementMapper::map, edcStoreHandler.getWorkerPool());
+    }
+
+
     protected StoreResult<Void> registerSingle(PolicyBinding policyBinding, Asset asset) {
         StoreResult<Void> storeResult = edcStoreHandler.register(policyBinding, asset);
         if (storeResult.succeeded()) {
@@ -203,6 +224,12 @@ public abstract class AasHandler<C extends AasServerClient> {
     }
 
 
+    /* Call this whenever a change of the AAS server's content is detected. */
+    protected void invalidateSelfDescription() {
+        selfDescriptionVersion.incrementAndGet();
+    }
+
+
     protected Consumer<Identifiable> getSelfDescriptionIdentifiableMapper() {
         return identifiable -> {
             if (!(identifiable instanceof Submodel) || client.eligibleForRegistration(AasUtils.toReference(identifiable))) {
@@ -217,6 +244,11 @@ public abstract class AasHandler<C extends AasServerClient> {
     }
 
 
+    protected PolicyBinding policyBindingFor(ReferenceKey referenceKey) {
+        return PolicyBinding.ofDefaults(referenceKey);
+    }
+
+
     protected SubmodelElement mapSubmodelElement(Reference parent, SubmodelElement submodelElement) {
         Reference submodelElementReference = AasUtils.toReference(parent, submodelElement);
         if (submodelElement instanceof SubmodelElementList list) {
@@ -16,14 +16,13 @@
 package de.fraunhofer.iosb.app.handler.aas;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.app.handler.RemoteHandler;
 import de.fraunhofer.iosb.app.handler.edc.EdcStoreHandler;
 import de.fraunhofer.iosb.app.handler.util.DiffHelper;
-import de.fraunhofer.iosb.app.handler.util.MappingHelper;
 import de.fraunhofer.iosb.client.AasServerClient;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
-import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 import org.eclipse.edc.spi.monitor.Monitor;
 
@@ -41,6 +40,9 @@ public abstract class RemoteAasHandler<C extends AasServerClient> extends AasHan
     // If an asset or its contract could not be registered, they will not appear in this map.
     // We keep this "cache" to not flood the Asset/ContractStores with requests.
     protected final Map<PolicyBinding, Asset> registeredAssets;
+    // Digest (deep hash code) of the environment of the last synchronization, used to detect changes not affecting registered assets
+    // without holding on to the whole environment
+    private Integer lastEnvironmentDigest;
 
 
     protected RemoteAasHandler(Monitor monitor, C client, EdcStoreHandler edcStoreHandler) throws UnauthorizedException,
@@ -75,26 +77,38 @@ public abstract class RemoteAasHandler<C extends AasServerClient> extends AasHan
             return;
         }
 
-        Map<Reference, Asset> mapped = MappingHelper.map(currentEnvironment, identifiableMapper::map, submodelElementMapper::map);
+        int currentEnvironmentDigest = currentEnvironment.hashCode();
+        boolean changed = lastEnvironmentDigest == null || lastEnvironmentDigest != currentEnvironmentDigest;
+        lastEnvironmentDigest = currentEnvironmentDigest;
 
-        mapped.entrySet().removeIf(entry -> !client.eligibleForRegistration(entry.getKey()));
+        Map<ReferenceKey, Asset> mapped = map(currentEnvironment);
 
-        Map<PolicyBinding, Asset> updatedAssets = new HashMap<>();
+        mapped.entrySet().removeIf(entry -> !client.eligibleForRegistration(entry.getKey().reference()));
 
-        mapped.keySet().forEach(referenceKey -> updatedAssets.put(policyBindingFor(referenceKey), mapped.get(referenceKey)));
+        Map<PolicyBinding, Asset> updatedAssets = new HashMap<>(mapped.size() * 4 / 3 + 1);
+
+        mapped.forEach((referenceKey, asset) -> updatedAssets.put(policyBindingFor(referenceKey), asset));
+
+        var toAdd = DiffHelper.getToAdd(registeredAssets, updatedAssets);
+        var toRemove = DiffHelper.getToRemove(registeredAssets, updatedAssets);
+        var toUpdate = DiffHelper.getToUpdate(registeredAssets, updatedAssets);
+
+        if (changed || !toAdd.isEmpty() || !toRemove.isEmpty() || !toUpdate.isEmpty()) {
+            invalidateSelfDescription();
+        }
 
         // All elements that are not currently registered (as far as we know) shall be registered
-        DiffHelper.getToAdd(registeredAssets, updatedAssets).entrySet().stream()
+        toAdd.entrySet().stream()
                 .filter(entry -> registerSingle(entry.getKey(), entry.getValue()).succeeded())
                 .forEach(entry -> registeredAssets.put(entry.getKey(), entry.getValue()));
 
         // All elements that are currently registered (as far as we know) but should not be shall be unregistered
-        DiffHelper.getToRemove(registeredAssets, updatedAssets).entrySet().stream()
+        toRemove.entrySet().stream()
                 .filter(entry -> unregisterSingle(entry.getKey(), entry.getValue().getId()).succeeded())
                 .forEach(entry -> registeredAssets.remove(entry.getKey(), entry.getValue()));
 
         // All elements to update (policy bindings are not modifiable, thus not need to be checked) shall be updated
-        DiffHelper.getToUpdate(registeredAssets, updatedAssets).entrySet().stream()
+        toUpdate.entrySet().stream()
                 .filter(entry -> updateSingle(entry.getValue()).succeeded())
                 .forEach(entry -> registeredAssets.put(entry.getKey(), entry.getValue()));
     }
@@ -16,12 +16,12 @@
 package de.fraunhofer.iosb.app.handler.aas.repository;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.app.handler.aas.AasHandler;
 import de.fraunhofer.iosb.app.handler.edc.EdcStoreHandler;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.client.repository.AasRepositoryClient;
 import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
-import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
 import org.eclipse.digitaltwin.aas4j.v3.model.Identifiable;
 import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
@@ -52,9 +52,14 @@ public abstract class AasRepositoryHandler<C extends AasRepositoryClient> extend
     }
 
 
-    protected Asset referenceToAsset(Reference reference, Environment environment) {
-        Referable referable = AasUtils.resolve(reference, environment);
+    @Override
+    protected PolicyBinding policyBindingFor(ReferenceKey referenceKey) {
+        return client.getPolicyBinding(referenceKey);
+    }
+
 
+    /* Map a resolved AAS element. The reference is needed to map submodel elements within their parent. */
+    protected Asset referenceToAsset(Reference reference, Referable referable) {
         Asset mapped;
         if (referable instanceof Identifiable identifiable) {
             mapped = identifiableMapper.map(identifiable);
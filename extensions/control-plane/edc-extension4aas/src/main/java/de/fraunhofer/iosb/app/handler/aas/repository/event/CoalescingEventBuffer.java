@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.handler.aas.repository.event;
+
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import de.fraunhofer.iosb.client.repository.local.event.EventTypes;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Buffers events of AAS elements for a time window. Events of the same element within the window are merged into their net change, e.g., a creation followed by updates is
+ * handled as one creation, a creation followed by a deletion is not handled at all. Buffered events are handled in the order their elements first appeared within the window.
+ * With a window of zero, events are handled immediately.
+ */
+public class CoalescingEventBuffer implements AutoCloseable {
+
+    private final Monitor monitor;
+    private final long windowMillis;
+    private final BiConsumer<EventTypes, ReferenceKey> handler;
+    private final ScheduledExecutorService scheduler;
+    private Map<ReferenceKey, EventTypes> pending = new LinkedHashMap<>();
+
+
+    /**
+     * Class constructor
+     *
+     * @param monitor Logs failures of the handler.
+     * @param windowMillis Time in milliseconds events are buffered for.
+     * @param handler Handles the net change of an element.
+     */
+    public CoalescingEventBuffer(Monitor monitor, long windowMillis, BiConsumer<EventTypes, ReferenceKey> handler) {
+        this.monitor = monitor;
+        this.windowMillis = windowMillis;
+        this.handler = handler;
+        this.scheduler = windowMillis > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "aas-event-coalescing");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+
+    /**
+     * Add an event of an element. Does not throw exceptions of the handler.
+     *
+     * @param eventType Type of the event.
+     * @param referenceKey Key of the reference to the element.
+     */
+    public void add(EventTypes eventType, ReferenceKey referenceKey) {
+        if (scheduler == null) {
+            handle(eventType, referenceKey);
+            return;
+        }
+
+        boolean startWindow;
+        synchronized (this) {
+            startWindow = pending.isEmpty();
+            EventTypes previous = pending.get(referenceKey);
+            EventTypes merged = previous == null ? eventType : merge(previous, eventType);
+            if (merged == null) {
+                pending.remove(referenceKey);
+            }
+            else {
+                // Replacing the value keeps the position of the element
+                pending.put(referenceKey, merged);
+            }
+        }
+
+        if (startWindow) {
+            scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Discards buffered events and stops handling events.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            pending.clear();
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Returns the net change of two consecutive events of the same element.
+     *
+     * @param previous The earlier event.
+     * @param next The later event.
+     * @return The event to handle instead of both or null if they cancel each other out.
+     */
+    static @Nullable EventTypes merge(EventTypes previous, EventTypes next) {
+        return switch (previous) {
+            // The element was not yet registered
+            case CREATED -> next == EventTypes.DELETED ? null : EventTypes.CREATED;
+            case UPDATED -> next == EventTypes.DELETED ? EventTypes.DELETED : EventTypes.UPDATED;
+            // The element is still registered, a recreated element replaces it
+            case DELETED -> next == EventTypes.CREATED ? EventTypes.UPDATED : EventTypes.DELETED;
+        };
+    }
+
+
+    void flush() {
+        Map<ReferenceKey, EventTypes> toHandle;
+        synchronized (this) {
+            toHandle = pending;
+            pending = new LinkedHashMap<>();
+        }
+        toHandle.forEach((referenceKey, eventType) -> handle(eventType, referenceKey));
+    }
+
+
+    private void handle(EventTypes eventType, ReferenceKey referenceKey) {
+        try {
+            handler.accept(eventType, referenceKey);
+        }
+        catch (Exception e) {
+            monitor.severe("Exception thrown while handling event", e);
+        }
+    }
+}
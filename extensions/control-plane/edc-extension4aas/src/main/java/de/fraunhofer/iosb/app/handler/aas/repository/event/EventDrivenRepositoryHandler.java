@@ -16,18 +16,26 @@
 package de.fraunhofer.iosb.app.handler.aas.repository.event;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.app.handler.aas.repository.AasRepositoryHandler;
 import de.fraunhofer.iosb.app.handler.edc.EdcStoreHandler;
+import de.fraunhofer.iosb.app.handler.util.DiffHelper;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.client.repository.local.LocalAasRepositoryClient;
+import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.result.StoreResult;
 
 import java.net.ConnectException;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 
 /**
@@ -37,6 +45,11 @@ import java.util.function.BiFunction;
  */
 public abstract class EventDrivenRepositoryHandler<C extends LocalAasRepositoryClient<?>> extends AasRepositoryHandler<C> {
 
+    // Assets registered by this handler as last written to the EDC stores with their policy bindings, kept up to date by event handling
+    protected final Map<ReferenceKey, RegisteredAsset> registeredAssets = new ConcurrentHashMap<>();
+    // Event handling holds the read lock, a resynchronization the write lock so that no event is applied to a stale view of the repository
+    protected final ReadWriteLock synchronizationLock = new ReentrantReadWriteLock();
+
     protected EventDrivenRepositoryHandler(Monitor monitor, C client, EdcStoreHandler edcStoreHandler) {
         super(monitor, client, edcStoreHandler);
     }
@@ -45,6 +58,7 @@ public abstract class EventDrivenRepositoryHandler<C extends LocalAasRepositoryC
     @Override
     public Map<PolicyBinding, Asset> initialize() throws UnauthorizedException, ConnectException {
         var map = super.initialize();
+        map.forEach((policyBinding, asset) -> registeredAssets.put(policyBinding.referredElementKey(), new RegisteredAsset(policyBinding, asset)));
         subscribe();
         return map;
     }
@@ -52,8 +66,69 @@ public abstract class EventDrivenRepositoryHandler<C extends LocalAasRepositoryC
 
     @Override
     public void cleanUp() {
-        super.cleanUp();
+        // No events must be handled while or after unregistering
         unsubscribe();
+        super.cleanUp();
+    }
+
+
+    /* Unregistering needs no request to the repository and no mapping, the assets are known from event handling. */
+    @Override
+    protected Map<PolicyBinding, Asset> getCurrentlyRegistered() {
+        return registeredAssets.values().stream()
+                .collect(Collectors.toMap(RegisteredAsset::policyBinding, RegisteredAsset::asset));
+    }
+
+
+    /**
+     * Brings the EDC stores in line with the whole repository, e.g., after events were discarded. The current environment is mapped and compared with the assets
+     * registered by this handler: missing assets are registered, changed ones updated and those no longer in the repository unregistered. Event handling waits
+     * until this is done.
+     */
+    protected void resynchronize() {
+        synchronizationLock.writeLock().lock();
+        try {
+            Environment environment;
+            try {
+                environment = getEnvironment();
+            }
+            catch (UnauthorizedException | ConnectException e) {
+                monitor.warning(String.format("Could not resynchronize with repository %s", client.getUri()), e);
+                return;
+            }
+
+            Map<ReferenceKey, Asset> mapped = map(environment);
+            mapped.keySet().removeIf(referenceKey -> !client.eligibleForRegistration(referenceKey.reference()));
+
+            List<ReferenceKey> removed = registeredAssets.keySet().stream()
+                    .filter(referenceKey -> !mapped.containsKey(referenceKey))
+                    .toList();
+            for (ReferenceKey referenceKey: removed) {
+                RegisteredAsset registered = registeredAssets.get(referenceKey);
+                if (unregisterSingle(registered.policyBinding(), registered.asset().getId()).succeeded()) {
+                    registeredAssets.remove(referenceKey);
+                }
+            }
+
+            mapped.forEach((referenceKey, asset) -> {
+                RegisteredAsset registered = registeredAssets.get(referenceKey);
+                if (registered == null) {
+                    PolicyBinding policyBinding = policyBindingFor(referenceKey);
+                    if (registerSingle(policyBinding, asset).succeeded()) {
+                        registeredAssets.put(referenceKey, new RegisteredAsset(policyBinding, asset));
+                    }
+                }
+                else if (!DiffHelper.assetEqualityFull(registered.asset(), asset) && updateSingle(asset).succeeded()) {
+                    registeredAssets.put(referenceKey, new RegisteredAsset(registered.policyBinding(), asset));
+                }
+            });
+
+            invalidateSelfDescription();
+            monitor.info(String.format("Resynchronized %s AAS elements from repository %s.", registeredAssets.size(), client.getUri()));
+        }
+        finally {
+            synchronizationLock.writeLock().unlock();
+        }
     }
 
 
@@ -63,9 +138,11 @@ public abstract class EventDrivenRepositoryHandler<C extends LocalAasRepositoryC
     protected abstract void unsubscribe();
 
 
-    protected StoreResult<Void> doHandle(Reference reference, BiFunction<PolicyBinding, Asset, StoreResult<Void>> consumer) {
-        PolicyBinding policyBinding = policyBindingFor(reference);
-        Asset asset = referenceToAsset(reference, client.getEnvironment());
+    protected StoreResult<Void> doHandle(ReferenceKey referenceKey, BiFunction<PolicyBinding, Asset, StoreResult<Void>> consumer) {
+        PolicyBinding policyBinding = policyBindingFor(referenceKey);
+        Reference reference = referenceKey.reference();
+        // Only the affected element is fetched from the repository
+        Asset asset = referenceToAsset(reference, client.resolve(reference));
 
         StoreResult<Void> result = consumer.apply(policyBinding, asset);
 
@@ -76,4 +153,14 @@ public abstract class EventDrivenRepositoryHandler<C extends LocalAasRepositoryC
 
         return result;
     }
+
+
+    /**
+     * An asset as registered at the EDC stores.
+     *
+     * @param policyBinding The policy binding the asset was registered with.
+     * @param asset The asset.
+     */
+    protected record RegisteredAsset(PolicyBinding policyBinding, Asset asset) {
+    }
 }
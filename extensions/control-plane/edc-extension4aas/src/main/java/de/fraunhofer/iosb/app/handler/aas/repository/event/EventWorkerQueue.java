@@ -0,0 +1,346 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.handler.aas.repository.event;
+
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import de.fraunhofer.iosb.client.repository.local.event.EventTypes;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+
+/**
+ * Hands events of AAS elements over to a pool of workers so that the thread producing the events (e.g., the FA³ST message bus) does not wait for the EDC stores. Each
+ * worker drains its own bounded queue, events of the same element always end up in the same queue and are therefore handled in order. If a queue is full, the
+ * {@link OverflowPolicy} decides whether the producer waits or the event is discarded. Discarded events can't be replayed, so a resynchronization of the whole
+ * repository is requested instead.
+ */
+public class EventWorkerQueue implements AutoCloseable {
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final long TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private final Monitor monitor;
+    private final OverflowPolicy overflowPolicy;
+    private final BiConsumer<EventTypes, ReferenceKey> handler;
+    private final List<BlockingQueue<QueuedEvent>> partitions;
+    private final ExecutorService workers;
+    private final ScheduledExecutorService metricsReporter;
+    private final Runnable resynchronization;
+    private final ExecutorService resynchronizer;
+    private final AtomicBoolean resynchronizationPending = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+    private long lastReportedDropped;
+
+
+    /**
+     * Class constructor
+     *
+     * @param monitor Logs failures of the handler and overflowing queues.
+     * @param workerCount Number of threads handling events.
+     * @param capacity Maximum number of queued events over all workers.
+     * @param overflowPolicy What to do with events if the queue of their worker is full.
+     * @param handler Handles an event, called by the workers.
+     */
+    public EventWorkerQueue(Monitor monitor, int workerCount, int capacity, OverflowPolicy overflowPolicy, BiConsumer<EventTypes, ReferenceKey> handler) {
+        this(monitor, workerCount, capacity, overflowPolicy, 0, handler);
+    }
+
+
+    /**
+     * Class constructor
+     *
+     * @param monitor Logs failures of the handler, overflowing queues and the metrics.
+     * @param workerCount Number of threads handling events.
+     * @param capacity Maximum number of queued events over all workers.
+     * @param overflowPolicy What to do with events if the queue of their worker is full.
+     * @param metricsIntervalSeconds Interval in which the metrics are logged, 0 to not log them.
+     * @param handler Handles an event, called by the workers.
+     */
+    public EventWorkerQueue(Monitor monitor, int workerCount, int capacity, OverflowPolicy overflowPolicy, long metricsIntervalSeconds,
+                            BiConsumer<EventTypes, ReferenceKey> handler) {
+        this(monitor, workerCount, capacity, overflowPolicy, metricsIntervalSeconds, handler, null);
+    }
+
+
+    /**
+     * Class constructor
+     *
+     * @param monitor Logs failures of the handler, overflowing queues and the metrics.
+     * @param workerCount Number of threads handling events.
+     * @param capacity Maximum number of queued events over all workers.
+     * @param overflowPolicy What to do with events if the queue of their worker is full.
+     * @param metricsIntervalSeconds Interval in which the metrics are logged, 0 to not log them.
+     * @param handler Handles an event, called by the workers.
+     * @param resynchronization Brings the EDC stores in line with the repository after events were discarded, null if there is none. Runs on a separate thread, at
+     *         most once at a time.
+     */
+    public EventWorkerQueue(Monitor monitor, int workerCount, int capacity, OverflowPolicy overflowPolicy, long metricsIntervalSeconds,
+                            BiConsumer<EventTypes, ReferenceKey> handler, Runnable resynchronization) {
+        if (workerCount < 1 || capacity < workerCount) {
+            throw new IllegalArgumentException("At least one worker and one queued event per worker required, got %s workers and capacity %s".formatted(workerCount,
+                    capacity));
+        }
+        this.monitor = monitor;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+        this.handler = handler;
+        this.partitions = new ArrayList<>(workerCount);
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            var thread = new Thread(runnable, "aas-event-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (int i = 0; i < workerCount; i++) {
+            var partition = new ArrayBlockingQueue<QueuedEvent>(capacity / workerCount);
+            partitions.add(partition);
+            workers.execute(() -> drain(partition));
+        }
+
+        if (metricsIntervalSeconds > 0) {
+            this.metricsReporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "aas-event-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            metricsReporter.scheduleAtFixedRate(this::reportMetrics, metricsIntervalSeconds, metricsIntervalSeconds, TimeUnit.SECONDS);
+        }
+        else {
+            this.metricsReporter = null;
+        }
+
+        this.resynchronization = resynchronization;
+        this.resynchronizer = resynchronization == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "aas-event-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Queue an event of an element. Depending on the overflow policy, blocks while the queue of the responsible worker is full.
+     *
+     * @param eventType Type of the event.
+     * @param referenceKey Key of the reference to the element.
+     * @return True if the event was queued, false if it was discarded or this queue is closed.
+     */
+    public boolean submit(EventTypes eventType, ReferenceKey referenceKey) {
+        if (closed) {
+            return false;
+        }
+        var event = new QueuedEvent(eventType, referenceKey, System.nanoTime());
+        var partition = partitions.get(Math.floorMod(referenceKey.hashCode(), partitions.size()));
+
+        if (partition.offer(event)) {
+            return true;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DISCARD) {
+            dropped.incrementAndGet();
+            if (resynchronization == null) {
+                monitor.warning("Event queue full (%s). Discarding %s event, the EDC stores no longer reflect the AAS repository.".formatted(metrics(), eventType));
+            }
+            else {
+                monitor.warning("Event queue full (%s). Discarding %s event, the EDC stores will be resynchronized with the AAS repository.".formatted(metrics(),
+                        eventType));
+                requestResynchronization();
+            }
+            return false;
+        }
+
+        monitor.debug("Event queue full (%s). Waiting for workers.".formatted(metrics()));
+        try {
+            while (!closed) {
+                if (partition.offer(event, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+
+    /**
+     * Current state of the queue.
+     *
+     * @return Number of queued events, waiting time of the oldest queued event and number of discarded events.
+     */
+    public Metrics metrics() {
+        int depth = 0;
+        long now = System.nanoTime();
+        long oldest = now;
+        for (var partition: partitions) {
+            depth += partition.size();
+            var head = partition.peek();
+            if (head != null && head.enqueuedNanos() - oldest < 0) {
+                oldest = head.enqueuedNanos();
+            }
+        }
+        return new Metrics(depth, Duration.ofNanos(now - oldest), dropped.get());
+    }
+
+
+    /**
+     * Discards queued events and stops the workers. Events currently being handled are interrupted, this waits for their handling to end.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (metricsReporter != null) {
+            metricsReporter.shutdownNow();
+        }
+        if (resynchronizer != null) {
+            resynchronizer.shutdownNow();
+        }
+        workers.shutdownNow();
+        partitions.forEach(BlockingQueue::clear);
+        try {
+            if (!workers.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                monitor.warning("Event workers did not terminate within %s seconds".formatted(TERMINATION_TIMEOUT_SECONDS));
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /* Idle queues are only reported at debug level to keep the log readable. */
+    void reportMetrics() {
+        var metrics = metrics();
+        var message = "Event queue metrics: %s".formatted(metrics);
+        if (metrics.depth() > 0 || metrics.dropped() > lastReportedDropped) {
+            monitor.info(message);
+        }
+        else {
+            monitor.debug(message);
+        }
+        lastReportedDropped = metrics.dropped();
+    }
+
+
+    /* Events discarded while a resynchronization is pending are covered by it, events discarded while one is running request the next one. */
+    private void requestResynchronization() {
+        if (!resynchronizationPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            resynchronizer.execute(() -> {
+                resynchronizationPending.set(false);
+                if (closed) {
+                    return;
+                }
+                try {
+                    resynchronization.run();
+                }
+                catch (Exception e) {
+                    monitor.severe("Exception thrown while resynchronizing after discarded events", e);
+                }
+            });
+        }
+        catch (RejectedExecutionException closedConcurrently) {
+            // Nothing left to synchronize
+        }
+    }
+
+
+    private void drain(BlockingQueue<QueuedEvent> partition) {
+        while (!closed) {
+            QueuedEvent event;
+            try {
+                event = partition.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            try {
+                handler.accept(event.eventType(), event.referenceKey());
+            }
+            catch (Exception e) {
+                monitor.severe("Exception thrown while handling event", e);
+            }
+        }
+    }
+
+
+    /**
+     * What to do with an event if the queue of its worker is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * The producer of the event waits until the queue has space again (backpressure).
+         */
+        BLOCK,
+        /**
+         * The event is discarded and counted in {@link Metrics#dropped()}. The repository is resynchronized if a resynchronization was given, else the EDC stores
+         * permanently diverge from it.
+         */
+        DISCARD;
+
+
+        /**
+         * Parse a policy name, case-insensitive.
+         *
+         * @param name Name of the policy.
+         * @return The policy, BLOCK if the name is null.
+         * @throws IllegalArgumentException The name is not a policy.
+         */
+        public static OverflowPolicy of(String name) {
+            return name == null ? BLOCK : valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+
+    /**
+     * Snapshot of the queue state.
+     *
+     * @param depth Number of queued events over all workers.
+     * @param lag Time the oldest queued event has been waiting for a worker.
+     * @param dropped Number of events discarded because of full queues since creation.
+     */
+    public record Metrics(int depth, Duration lag, long dropped) {
+
+        @Override
+        public String toString() {
+            return "depth: %s, lag: %s ms, dropped: %s".formatted(depth, lag.toMillis(), dropped);
+        }
+    }
+
+
+    private record QueuedEvent(EventTypes eventType, ReferenceKey referenceKey, long enqueuedNanos) {
+    }
+}
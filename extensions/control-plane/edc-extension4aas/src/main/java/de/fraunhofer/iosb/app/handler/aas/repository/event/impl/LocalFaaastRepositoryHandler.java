@@ -16,9 +16,14 @@
 package de.fraunhofer.iosb.app.handler.aas.repository.event.impl;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.app.aas.mapper.util.AssetIdUtil;
+import de.fraunhofer.iosb.app.handler.aas.repository.event.CoalescingEventBuffer;
 import de.fraunhofer.iosb.app.handler.aas.repository.event.EventDrivenRepositoryHandler;
+import de.fraunhofer.iosb.app.handler.aas.repository.event.EventWorkerQueue;
 import de.fraunhofer.iosb.app.handler.edc.EdcStoreHandler;
+import de.fraunhofer.iosb.app.handler.util.DiffHelper;
+import de.fraunhofer.iosb.app.model.configuration.Configuration;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.client.repository.local.event.EventTypes;
 import de.fraunhofer.iosb.client.repository.local.impl.LocalFaaastRepositoryClient;
@@ -31,16 +36,25 @@ import java.net.ConnectException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.function.BiFunction;
 
 
 /**
  * Handles locally started FA³ST service instances. Since we have direct access to the message bus, we can subscribe to events and obtain changes instantly as opposed to remote
- * AAS, where updates have to be polled.
+ * AAS, where updates have to be polled. Events are buffered for a short window, only the net change of each element is written to the EDC stores. The EDC stores are written
+ * by a pool of workers so that slow stores don't hold up the FA³ST message bus.
  */
 public class LocalFaaastRepositoryHandler extends EventDrivenRepositoryHandler<LocalFaaastRepositoryClient> {
 
     private final List<UUID> subscriptions = new ArrayList<>();
+    private final EventWorkerQueue workerQueue = new EventWorkerQueue(monitor.withPrefix(client.getUri().toString()),
+            Configuration.getInstance().getEventWorkers(),
+            Configuration.getInstance().getEventQueueCapacity(),
+            EventWorkerQueue.OverflowPolicy.of(Configuration.getInstance().getEventQueueOverflowPolicy()),
+            Configuration.getInstance().getEventQueueMetricsInterval(),
+            this::handle,
+            // Events discarded because of a full queue are recovered by comparing the whole repository with the registered assets
+            this::resynchronize);
+    private final CoalescingEventBuffer eventBuffer = new CoalescingEventBuffer(monitor, Configuration.getInstance().getEventCoalescingWindow(), workerQueue::submit);
 
 
     /**
@@ -61,64 +75,105 @@ public class LocalFaaastRepositoryHandler extends EventDrivenRepositoryHandler<L
 
     @Override
     protected void subscribe() {
-        subscriptions.add(client.subscribeTo(EventTypes.CREATED, this::created));
-        subscriptions.add(client.subscribeTo(EventTypes.DELETED, this::deleted));
-        subscriptions.add(client.subscribeTo(EventTypes.UPDATED, this::updated));
+        for (EventTypes eventType: EventTypes.values()) {
+            subscriptions.add(client.subscribeTo(eventType, (element, messageType) -> received(eventType, element)));
+        }
     }
 
 
     @Override
     protected void unsubscribe() {
         subscriptions.forEach(client::unsubscribeFrom);
+        eventBuffer.close();
+        workerQueue.close();
     }
 
 
-    private void updated(Reference element, Class<?> clazz) {
-        doHandleWrap(element, clazz, (policyBinding, asset) -> updateSingle(asset));
+    /**
+     * Returns the state of the queue between the FA³ST message bus and the EDC stores.
+     *
+     * @return Number of queued events, waiting time of the oldest queued event and number of discarded events.
+     */
+    public EventWorkerQueue.Metrics getEventQueueMetrics() {
+        return workerQueue.metrics();
     }
 
 
-    private void created(Reference element, Class<?> clazz) {
-        doHandleWrap(element, clazz, this::registerSingle);
+    /* Runs on the FA³ST message bus. Don't throw exceptions to FA³ST to prevent message bus from crashing. */
+    private void received(EventTypes eventType, Reference element) {
+        if (eventInvalid(element)) {
+            return;
+        }
+        // The key is derived once per event and passed on to buffer, queue and handler
+        eventBuffer.add(eventType, ReferenceKey.of(element));
     }
 
 
-    private void deleted(Reference element, Class<?> clazz) {
+    private void handle(EventTypes eventType, ReferenceKey element) {
+        // Updates only invalidate the self-description if they change the asset, see updated()
+        if (eventType != EventTypes.UPDATED) {
+            invalidateSelfDescription();
+        }
+
+        StoreResult<Void> result;
+        synchronizationLock.readLock().lock();
         try {
-            PolicyBinding policyBinding = policyBindingFor(element);
-            unregisterSingle(policyBinding, AssetIdUtil.id(client.getUri().toString(), element));
+            result = switch (eventType) {
+                case CREATED -> doHandle(element, this::created);
+                case UPDATED -> doHandle(element, this::updated);
+                case DELETED -> deleted(element);
+            };
         }
-        catch (Exception e) {
-            monitor.severe("Exception thrown while handling event", e);
+        finally {
+            synchronizationLock.readLock().unlock();
         }
-    }
 
-
-    /* Don't throw exceptions to FA³ST to prevent message bus from crashing. */
-    private void doHandleWrap(Reference element, Class<?> clazz, BiFunction<PolicyBinding, Asset, StoreResult<Void>> consumer) {
-        try {
-            doHandle(element, clazz, consumer);
+        if (result.failed()) {
+            monitor.warning(String.format("Failed handling %s event: %s", eventType, result.getFailureDetail()));
         }
-        catch (Exception e) {
-            monitor.severe("Exception thrown while handling event", e);
+        else {
+            monitor.info(String.format("Handled %s event from repository %s.", eventType, client.getUri()));
         }
     }
 
 
-    private void doHandle(Reference element, Class<?> clazz, BiFunction<PolicyBinding, Asset, StoreResult<Void>> consumer) {
-        if (eventInvalid(element)) {
-            return;
+    private StoreResult<Void> created(PolicyBinding policyBinding, Asset asset) {
+        StoreResult<Void> result = registerSingle(policyBinding, asset);
+        if (result.succeeded()) {
+            registeredAssets.put(policyBinding.referredElementKey(), new RegisteredAsset(policyBinding, asset));
         }
+        return result;
+    }
 
-        StoreResult<Void> result = super.doHandle(element, consumer);
 
-        String eventMessageName = clazz.getSimpleName();
-        if (result.failed()) {
-            monitor.warning(String.format("Failed handling %s: %s", eventMessageName, result.getFailureDetail()));
+    private StoreResult<Void> updated(PolicyBinding policyBinding, Asset asset) {
+        RegisteredAsset registered = registeredAssets.get(policyBinding.referredElementKey());
+        // Changes of fields that are not exposed (e.g., values) don't change the asset
+        if (registered != null && DiffHelper.assetEqualityFull(registered.asset(), asset)) {
+            return StoreResult.success();
         }
-        else {
-            monitor.info(String.format("Handled %s from repository %s.", eventMessageName, client.getUri()));
+        invalidateSelfDescription();
+
+        StoreResult<Void> result = updateSingle(asset);
+        if (result.succeeded()) {
+            // The asset stays in the contract it was registered to
+            registeredAssets.put(policyBinding.referredElementKey(), new RegisteredAsset(registered != null ? registered.policyBinding() : policyBinding, asset));
+        }
+        return result;
+    }
+
+
+    private StoreResult<Void> deleted(ReferenceKey element) {
+        RegisteredAsset registered = registeredAssets.get(element);
+        // Remove the asset from the contract it was registered to
+        PolicyBinding policyBinding = registered != null ? registered.policyBinding() : policyBindingFor(element);
+        String assetId = registered != null ? registered.asset().getId() : AssetIdUtil.id(client.getUri().toString(), element.reference());
+
+        StoreResult<Void> result = unregisterSingle(policyBinding, assetId);
+        if (result.succeeded()) {
+            registeredAssets.remove(element);
         }
+        return result;
     }
 
 
@@ -21,7 +21,17 @@ import de.fraunhofer.iosb.app.edc.contract.ContractDefinitionService;
 import org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset;
 import org.eclipse.edc.connector.controlplane.asset.spi.index.AssetIndex;
 import org.eclipse.edc.connector.controlplane.contract.spi.offer.store.ContractDefinitionStore;
+import org.eclipse.edc.spi.result.StoreFailure;
 import org.eclipse.edc.spi.result.StoreResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 
 /**
@@ -31,6 +41,7 @@ public class EdcStoreHandler {
 
     private final AssetService assetService;
     private final ContractDefinitionService contractDefinitionService;
+    private final ForkJoinPool workerPool;
 
 
     /**
@@ -41,8 +52,32 @@ public class EdcStoreHandler {
      * @param participantId The participantId of the participant that the AAS extension publishes for.
      */
     public EdcStoreHandler(AssetIndex assetIndex, ContractDefinitionStore contractDefinitionStore, String participantId) {
+        this(assetIndex, contractDefinitionStore, participantId, null);
+    }
+
+
+    /**
+     * Class constructor.
+     *
+     * @param assetIndex To add/remove assets.
+     * @param contractDefinitionStore To add/remove asset ids to/from contracts, to create/remove contracts.
+     * @param participantId The participantId of the participant that the AAS extension publishes for.
+     * @param workerPool Pool for mapping and unregistering many elements in parallel, owned by the caller. If null, this is done sequentially.
+     */
+    public EdcStoreHandler(AssetIndex assetIndex, ContractDefinitionStore contractDefinitionStore, String participantId, @Nullable ForkJoinPool workerPool) {
         this.assetService = new AssetService(assetIndex, participantId);
         this.contractDefinitionService = new ContractDefinitionService(contractDefinitionStore, participantId);
+        this.workerPool = workerPool;
+    }
+
+
+    /**
+     * Get the pool shared by all handlers for mapping and unregistering many elements in parallel.
+     *
+     * @return The pool or null if this is done sequentially.
+     */
+    public @Nullable ForkJoinPool getWorkerPool() {
+        return workerPool;
     }
 
 
@@ -86,6 +121,48 @@ public class EdcStoreHandler {
     }
 
 
+    /**
+     * Unregister many assets at once. Assets are deleted from the EDC AssetIndex in parallel, then the asset ids are removed from the corresponding contracts with one update
+     * per contract. Assets that are not (or no longer) in the AssetIndex are still removed from their contracts.
+     *
+     * @param assetIds Asset ids to unregister with the PolicyBindings containing access and usage (contract) policy ids of their contracts.
+     * @return Successful result if all assets were unregistered, else failure containing all problems.
+     */
+    public StoreResult<Void> unregisterAll(Map<PolicyBinding, String> assetIds) {
+        List<String> problems = Collections.synchronizedList(new ArrayList<>());
+        Map<PolicyIds, List<String>> deletedByPolicies = new ConcurrentHashMap<>();
+
+        Consumer<Map.Entry<PolicyBinding, String>> delete = entry -> {
+            StoreResult<Asset> assetDeleteResult = assetService.delete(entry.getValue());
+            if (assetDeleteResult.failed() && assetDeleteResult.reason() != StoreFailure.Reason.NOT_FOUND) {
+                problems.add(assetDeleteResult.getFailureDetail());
+                return;
+            }
+            var policyIds = new PolicyIds(entry.getKey().accessPolicyDefinitionId(), entry.getKey().contractPolicyDefinitionId());
+            deletedByPolicies.computeIfAbsent(policyIds, ids -> Collections.synchronizedList(new ArrayList<>())).add(entry.getValue());
+        };
+
+        if (workerPool == null || workerPool.getParallelism() <= 1 || assetIds.size() <= 1) {
+            assetIds.entrySet().forEach(delete);
+        }
+        else {
+            workerPool.submit(() -> assetIds.entrySet().parallelStream().forEach(delete)).join();
+        }
+
+        deletedByPolicies.forEach((policyIds, deleted) -> {
+            StoreResult<Void> contractResult = contractDefinitionService.removeAllFromContract(deleted, policyIds.accessPolicyId(), policyIds.contractPolicyId());
+            if (contractResult.failed()) {
+                problems.add(contractResult.getFailureDetail());
+            }
+        });
+
+        if (!problems.isEmpty()) {
+            return StoreResult.generalError(String.join(", ", problems));
+        }
+        return StoreResult.success();
+    }
+
+
     /**
      * Update an asset at the EDC AssetIndex does not alter the ContractStore.
      *
@@ -95,4 +172,8 @@ public class EdcStoreHandler {
     public StoreResult<Asset> update(Asset asset) {
         return assetService.update(asset);
     }
+
+
+    private record PolicyIds(String accessPolicyId, String contractPolicyId) {
+    }
 }
@@ -95,7 +95,14 @@ public abstract class DiffHelper {
     }
 
 
-    private static boolean assetEqualityFull(Asset a, Asset b) {
+    /**
+     * Returns whether two assets are equal in all properties relevant to the EDC stores.
+     *
+     * @param a An asset.
+     * @param b Another asset.
+     * @return True if both assets have equal IDs, metadata and data addresses.
+     */
+    public static boolean assetEqualityFull(Asset a, Asset b) {
         return assetEqualityByDefaultValues(a, b) &&
                 dataAddressEquality(a.getDataAddress(), b.getDataAddress()) &&
                 Objects.equals(a.getProperties(), b.getProperties()) &&
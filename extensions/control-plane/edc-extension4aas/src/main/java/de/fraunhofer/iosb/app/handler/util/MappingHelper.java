@@ -15,6 +15,7 @@
  */
 package de.fraunhofer.iosb.app.handler.util;
 
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
 import org.eclipse.digitaltwin.aas4j.v3.model.Identifiable;
@@ -24,10 +25,11 @@ import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementCollection;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementList;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 
@@ -42,73 +44,140 @@ public abstract class MappingHelper {
      *
      * @param environment The environment containing the elements to map.
      * @param identifiableMapper The identifiable mapper used to map all identifiable objects.
-     * @param elementMapper Used to map all referable but not identifiable objects.
+     * @param elementMapper Used to map all referable but not identifiable objects. Children are mapped before their parent, which receives their mapped counterparts.
      * @param <T> The mappers will have a target type, most likely {@link org.eclipse.edc.connector.controlplane.asset.spi.domain.Asset Asset}. AAS elements will be mapped
      *         onto that type.
-     * @return Map of references to an element and its mapped counterpart.
+     * @return Map of reference keys of an element to its mapped counterpart.
      */
-    public static <T> Map<Reference, T> map(Environment environment, Function<Identifiable, T> identifiableMapper,
-                                            BiFunction<Reference, SubmodelElement, T> elementMapper) {
-        Map<Reference, T> result = new HashMap<>();
+    public static <T> Map<ReferenceKey, T> map(Environment environment, Function<Identifiable, T> identifiableMapper,
+                                               SubmodelElementMappingFunction<T> elementMapper) {
+        return map(environment, identifiableMapper, elementMapper, null);
+    }
 
-        environment.getAssetAdministrationShells().stream()
-                .map(shell -> mapIdentifiable(shell, identifiableMapper, elementMapper))
-                .forEach(result::putAll);
 
-        environment.getConceptDescriptions().stream()
-                .map(conceptDescription -> mapIdentifiable(conceptDescription, identifiableMapper, elementMapper))
-                .forEach(result::putAll);
+    /**
+     * Maps an environment of AAS elements to T like {@link #map(Environment, Function, SubmodelElementMappingFunction)}, mapping submodels in parallel in the given pool.
+     * The mappers must be thread-safe if the pool's parallelism is greater than one.
+     *
+     * @param environment The environment containing the elements to map.
+     * @param identifiableMapper The identifiable mapper used to map all identifiable objects.
+     * @param elementMapper Used to map all referable but not identifiable objects. Children are mapped before their parent, which receives their mapped counterparts.
+     * @param pool Pool mapping the submodels, owned by the caller. If null, submodels are mapped sequentially.
+     * @param <T> Target type of the mapping.
+     * @return Map of reference keys of an element to its mapped counterpart.
+     */
+    public static <T> Map<ReferenceKey, T> map(Environment environment, Function<Identifiable, T> identifiableMapper,
+                                               SubmodelElementMappingFunction<T> elementMapper, ForkJoinPool pool) {
+        // All mapped elements go directly into one map, sized for the whole environment
+        Map<ReferenceKey, T> result = new ConcurrentHashMap<>(count(environment));
+
+        environment.getAssetAdministrationShells().forEach(shell -> mapIdentifiable(shell, identifiableMapper, elementMapper, result));
+        environment.getConceptDescriptions().forEach(conceptDescription -> mapIdentifiable(conceptDescription, identifiableMapper, elementMapper, result));
+
+        List<Submodel> submodels = environment.getSubmodels();
+        if (pool == null || pool.getParallelism() <= 1 || submodels.size() <= 1) {
+            submodels.forEach(submodel -> mapIdentifiable(submodel, identifiableMapper, elementMapper, result));
+            return result;
+        }
 
-        environment.getSubmodels().stream()
-                .map(submodel -> mapIdentifiable(submodel, identifiableMapper, elementMapper))
-                .forEach(result::putAll);
+        pool.submit(() -> submodels.parallelStream()
+                        .forEach(submodel -> mapIdentifiable(submodel, identifiableMapper, elementMapper, result)))
+                .join();
 
         return result;
     }
 
 
-    private static <T> Map<Reference, T> mapIdentifiable(Identifiable identifiable,
-                                                         Function<Identifiable, T> mappingFunction,
-                                                         BiFunction<Reference, SubmodelElement, T> elementMappingFunction) {
-        Map<Reference, T> filteredElements = new HashMap<>();
-
+    private static <T> void mapIdentifiable(Identifiable identifiable, Function<Identifiable, T> mappingFunction,
+                                            SubmodelElementMappingFunction<T> elementMappingFunction, Map<ReferenceKey, T> result) {
         Reference identifiableReference = AasUtils.toReference(identifiable);
+        ReferenceKey identifiableKey = ReferenceKey.of(identifiableReference);
 
         if (identifiable instanceof Submodel submodel) {
-            submodel.getSubmodelElements().stream()
-                    .map(element -> mapSubmodelElement(identifiableReference, element, elementMappingFunction))
-                    .forEach(filteredElements::putAll);
+            submodel.getSubmodelElements().forEach(element -> mapSubmodelElement(identifiableReference, identifiableKey, element, elementMappingFunction, result));
         }
 
-        filteredElements.put(identifiableReference, mappingFunction.apply(identifiable));
-
-        return filteredElements;
+        put(result, identifiableKey, mappingFunction.apply(identifiable));
     }
 
 
-    private static <T> Map<Reference, T> mapSubmodelElement(Reference parent, SubmodelElement submodelElement,
-                                                            BiFunction<Reference, SubmodelElement, T> mappingFunction) {
-        Map<Reference, T> result = new HashMap<>();
-
+    private static <T> T mapSubmodelElement(Reference parent, ReferenceKey parentKey, SubmodelElement submodelElement, SubmodelElementMappingFunction<T> mappingFunction,
+                                            Map<ReferenceKey, T> result) {
         Reference submodelElementReference = AasUtils.toReference(parent, submodelElement);
+        // Only the child's segment is appended to the parent's path
+        ReferenceKey submodelElementKey = ReferenceKey.of(parentKey, submodelElementReference);
+        List<T> mappedChildren = List.of();
 
         if (submodelElement instanceof SubmodelElementList list) {
             List<SubmodelElement> children = list.getValue();
+            mappedChildren = new ArrayList<>(children.size());
             // AASd-120 - aware
             for (int i = 0; i < children.size(); i++) {
                 SubmodelElement child = children.get(i);
                 child.setIdShort(String.valueOf(i));
-                result.putAll(mapSubmodelElement(submodelElementReference, child, mappingFunction));
+                mappedChildren.add(mapSubmodelElement(submodelElementReference, submodelElementKey, child, mappingFunction, result));
             }
         }
         else if (submodelElement instanceof SubmodelElementCollection collection) {
-            collection.getValue().stream()
-                    .map(child -> mapSubmodelElement(submodelElementReference, child, mappingFunction))
-                    .forEach(result::putAll);
+            mappedChildren = new ArrayList<>(collection.getValue().size());
+            for (SubmodelElement child: collection.getValue()) {
+                mappedChildren.add(mapSubmodelElement(submodelElementReference, submodelElementKey, child, mappingFunction, result));
+            }
         }
 
-        result.put(submodelElementReference, mappingFunction.apply(parent, submodelElement));
+        T mapped = mappingFunction.apply(parent, submodelElement, mappedChildren);
+        put(result, submodelElementKey, mapped);
+        return mapped;
+    }
+
 
-        return result;
+    private static <T> void put(Map<ReferenceKey, T> result, ReferenceKey key, T mapped) {
+        // Concurrent maps don't accept null values
+        if (mapped != null) {
+            result.put(key, mapped);
+        }
+    }
+
+
+    private static int count(Environment environment) {
+        int count = environment.getAssetAdministrationShells().size() + environment.getConceptDescriptions().size();
+        for (Submodel submodel: environment.getSubmodels()) {
+            count += 1 + count(submodel.getSubmodelElements());
+        }
+        return count;
+    }
+
+
+    private static int count(List<SubmodelElement> submodelElements) {
+        int count = submodelElements.size();
+        for (SubmodelElement submodelElement: submodelElements) {
+            if (submodelElement instanceof SubmodelElementList list) {
+                count += count(list.getValue());
+            }
+            else if (submodelElement instanceof SubmodelElementCollection collection) {
+                count += count(collection.getValue());
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Maps a submodel element whose children have already been mapped.
+     *
+     * @param <T> Target type of the mapping.
+     */
+    @FunctionalInterface
+    public interface SubmodelElementMappingFunction<T> {
+
+        /**
+         * Map a submodel element.
+         *
+         * @param parent Reference to the parent of the submodel element.
+         * @param submodelElement The submodel element to map.
+         * @param mappedChildren Mapped children of the submodel element in their order, empty if it has none.
+         * @return The mapped submodel element.
+         */
+        T apply(Reference parent, SubmodelElement submodelElement, List<T> mappedChildren);
     }
 }
@@ -55,6 +55,22 @@ public class Configuration {
     private boolean useAasDataPlane = true;
     @JsonProperty(SETTINGS_PREFIX + "exposedFields")
     private Set<String> exposedFields;
+    @JsonProperty(SETTINGS_PREFIX + "embeddedChildrenDepth")
+    private int embeddedChildrenDepth = -1; // Unlimited
+    @JsonProperty(SETTINGS_PREFIX + "mappingParallelism")
+    private int mappingParallelism = Runtime.getRuntime().availableProcessors();
+    @JsonProperty(SETTINGS_PREFIX + "legacyAssetIds")
+    private boolean legacyAssetIds;
+    @JsonProperty(SETTINGS_PREFIX + "eventCoalescingWindow")
+    private long eventCoalescingWindow = 200; // Milliseconds
+    @JsonProperty(SETTINGS_PREFIX + "eventWorkers")
+    private int eventWorkers = 4;
+    @JsonProperty(SETTINGS_PREFIX + "eventQueueCapacity")
+    private int eventQueueCapacity = 10_000;
+    @JsonProperty(SETTINGS_PREFIX + "eventQueueOverflowPolicy")
+    private String eventQueueOverflowPolicy = "block";
+    @JsonProperty(SETTINGS_PREFIX + "eventQueueMetricsInterval")
+    private long eventQueueMetricsInterval = 60; // Seconds
 
 
     public static synchronized Configuration getInstance() {
@@ -120,6 +136,46 @@ public class Configuration {
     }
 
 
+    public int getEmbeddedChildrenDepth() {
+        return embeddedChildrenDepth;
+    }
+
+
+    public int getMappingParallelism() {
+        return mappingParallelism;
+    }
+
+
+    public boolean useLegacyAssetIds() {
+        return legacyAssetIds;
+    }
+
+
+    public long getEventCoalescingWindow() {
+        return eventCoalescingWindow;
+    }
+
+
+    public int getEventWorkers() {
+        return eventWorkers;
+    }
+
+
+    public int getEventQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+
+    public String getEventQueueOverflowPolicy() {
+        return eventQueueOverflowPolicy;
+    }
+
+
+    public long getEventQueueMetricsInterval() {
+        return eventQueueMetricsInterval;
+    }
+
+
     public Set<String> getExposedFields() {
         return exposedFields;
     }
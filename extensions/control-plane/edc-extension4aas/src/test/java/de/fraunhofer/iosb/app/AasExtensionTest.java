@@ -27,6 +27,7 @@ import org.eclipse.edc.query.CriterionOperatorRegistryImpl;
 import org.eclipse.edc.spi.monitor.ConsoleMonitor;
 import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
 import org.eclipse.edc.spi.system.Hostname;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.spi.system.configuration.Config;
@@ -52,6 +53,7 @@ public class AasExtensionTest {
         context.registerService(Monitor.class, new ConsoleMonitor());
         context.registerService(Vault.class, new InMemoryVault(new ConsoleMonitor()));
         context.registerService(Hostname.class, () -> "");
+        context.registerService(ExecutorInstrumentation.class, ExecutorInstrumentation.noop());
         context.registerService(PolicyDefinitionStore.class, new InMemoryPolicyDefinitionStore(new CriterionOperatorRegistryImpl()));
         context.registerService(WebService.class, mock(WebService.class));
 
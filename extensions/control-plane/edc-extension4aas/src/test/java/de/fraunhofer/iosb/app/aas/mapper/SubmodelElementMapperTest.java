@@ -19,11 +19,13 @@ import de.fraunhofer.iosb.app.aas.mapper.referable.SubmodelElementMapper;
 import de.fraunhofer.iosb.client.repository.remote.impl.RemoteAasRepositoryClient;
 import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
 import de.fraunhofer.iosb.model.context.repository.remote.RemoteAasRepositoryContext;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
 import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
 import org.eclipse.digitaltwin.aas4j.v3.model.OperationVariable;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementCollection;
 import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElementList;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultBlob;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
@@ -54,6 +56,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -192,4 +195,91 @@ class SubmodelElementMapperTest {
         assertEquals(uri.toString(), ((AasDataAddress) mappedBlob.getDataAddress()).getBaseUrl());
         assertEquals(String.format(listAccessorPathTemplate, "3"), ((AasDataAddress) mappedBlob.getDataAddress()).getPath());
     }
+
+
+    @Test
+    void map_embeddedChildrenDepthZero_childrenReferencedById() {
+        var mapper = new SubmodelElementMapper(new RemoteAasRepositoryClient(new InMemoryVault(new ConsoleMonitor()),
+                new RemoteAasRepositoryContext.Builder().uri(uri).build()), () -> 0);
+
+        Asset mapped = mapper.map(submodelReference(), nestedCollection());
+
+        List<?> children = (List<?>) mapped.getProperty(SMC_CHILDREN_LOCATION);
+        assertEquals(2, children.size());
+        assertTrue(children.stream().allMatch(String.class::isInstance));
+        assertEquals(testSubject.map(AasUtils.toReference(submodelReference(), nestedCollection()), getProperty("property")).getId(), children.get(0));
+    }
+
+
+    @Test
+    void map_embeddedChildrenDepthOne_grandChildrenReferencedById() {
+        var mapper = new SubmodelElementMapper(new RemoteAasRepositoryClient(new InMemoryVault(new ConsoleMonitor()),
+                new RemoteAasRepositoryContext.Builder().uri(uri).build()), () -> 1);
+
+        Asset mapped = mapper.map(submodelReference(), nestedCollection());
+
+        List<?> children = (List<?>) mapped.getProperty(SMC_CHILDREN_LOCATION);
+        assertInstanceOf(Asset.class, children.get(0));
+        Asset innerCollection = assertInstanceOf(Asset.class, children.get(1));
+        List<?> grandChildren = (List<?>) innerCollection.getProperty(SMC_CHILDREN_LOCATION);
+        assertEquals(1, grandChildren.size());
+        assertInstanceOf(String.class, grandChildren.get(0));
+    }
+
+
+    @Test
+    void map_embeddedChildrenDepthOne_childAssetsNotModified() {
+        var mapper = new SubmodelElementMapper(new RemoteAasRepositoryClient(new InMemoryVault(new ConsoleMonitor()),
+                new RemoteAasRepositoryContext.Builder().uri(uri).build()), () -> 1);
+        var collection = nestedCollection();
+        var collectionReference = AasUtils.toReference(submodelReference(), collection);
+        var innerCollection = (SubmodelElementCollection) collection.getValue().get(1);
+        Asset innerAsset = mapper.map(collectionReference, innerCollection);
+        Asset grandChildAsset = (Asset) ((List<?>) innerAsset.getProperty(SMC_CHILDREN_LOCATION)).get(0);
+
+        mapper.map(submodelReference(), collection, List.of(mapper.map(collectionReference, collection.getValue().get(0)), innerAsset));
+
+        assertEquals(grandChildAsset, ((List<?>) innerAsset.getProperty(SMC_CHILDREN_LOCATION)).get(0));
+    }
+
+
+    @Test
+    void map_unlimitedDepth_usesMappedChildren() {
+        var collection = nestedCollection();
+        var mappedChildren = List.of(
+                Asset.Builder.newInstance().id("first").build(),
+                Asset.Builder.newInstance().id("second").build());
+
+        Asset mapped = testSubject.map(submodelReference(), collection, mappedChildren);
+
+        List<?> children = (List<?>) mapped.getProperty(SMC_CHILDREN_LOCATION);
+        assertEquals(List.of("first", "second"), children.stream().map(child -> ((Asset) child).getId()).toList());
+        // The children's own assets are registered separately and not shared with the parent
+        assertNotSame(mappedChildren.get(0), children.get(0));
+        assertNotSame(mappedChildren.get(1), children.get(1));
+    }
+
+
+    private Reference submodelReference() {
+        return new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder()
+                        .type(KeyTypes.SUBMODEL)
+                        .value("sm-id")
+                        .build())
+                .build();
+    }
+
+
+    private SubmodelElementCollection nestedCollection() {
+        return new DefaultSubmodelElementCollection.Builder()
+                .idShort("outer")
+                .value(List.of(
+                        getProperty("property"),
+                        new DefaultSubmodelElementCollection.Builder()
+                                .idShort("inner")
+                                .value(List.of(getProperty("innerProperty")))
+                                .build()))
+                .build();
+    }
 }
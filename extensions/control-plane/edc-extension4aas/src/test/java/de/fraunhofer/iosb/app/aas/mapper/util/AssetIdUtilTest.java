@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.aas.mapper.util;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+
+class AssetIdUtilTest {
+
+    private static final String URL = "https://localhost:8443/api/v3.0";
+
+
+    @Test
+    void test_id_stableUuid() {
+        var id = AssetIdUtil.id(URL, reference("submodel", "element"), false);
+
+        assertDoesNotThrow(() -> UUID.fromString(id));
+        assertEquals(id, AssetIdUtil.id(URL, reference("submodel", "element"), false));
+    }
+
+
+    @Test
+    void test_id_distinctLocations() {
+        var id = AssetIdUtil.id(URL, reference("submodel", "element"), false);
+
+        assertNotEquals(id, AssetIdUtil.id(URL, reference("submodel", "otherElement"), false));
+        assertNotEquals(id, AssetIdUtil.id(URL, reference("submodel"), false));
+        assertNotEquals(id, AssetIdUtil.id("https://localhost:8444/api/v3.0", reference("submodel", "element"), false));
+    }
+
+
+    @Test
+    void test_id_legacy() {
+        var expected = String.valueOf("%s:submodels/%s".formatted(URL,
+                Base64.getUrlEncoder().encodeToString("submodel".getBytes(StandardCharsets.UTF_8))).hashCode());
+
+        assertEquals(expected, AssetIdUtil.id(URL, reference("submodel"), true));
+    }
+
+
+    @Test
+    void test_id_cachedByValue() {
+        var id = AssetIdUtil.id(URL, reference("submodel", "cached"), false);
+
+        // Equal references share the cached ID, the legacy ID is cached separately
+        assertEquals(id, AssetIdUtil.id(URL, reference("submodel", "cached"), false));
+        assertNotEquals(id, AssetIdUtil.id(URL, reference("submodel", "cached"), true));
+        assertNotEquals(id, AssetIdUtil.id(URL, reference("submodel", "uncached"), false));
+    }
+
+
+    @Test
+    void test_id_malformedReference() {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.PROPERTY).value("element").build())
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> AssetIdUtil.id(URL, reference, false));
+    }
+
+
+    private static Reference reference(String submodelId, String... idShortPath) {
+        var builder = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value(submodelId).build());
+        for (String idShort: idShortPath) {
+            builder.keys(new DefaultKey.Builder().type(KeyTypes.PROPERTY).value(idShort).build());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.aas.mapper.util;
+
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.SerializationException;
+import org.eclipse.digitaltwin.aas4j.v3.model.Property;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class FilteredJsonSerializerTest {
+
+    private static final String ID_SHORT = "Referable/idShort";
+    private static final String VALUE = "Property/value";
+
+    private final FilteredJsonSerializer testSubject = new FilteredJsonSerializer();
+
+
+    @Test
+    void test_toMap_onlyAllowedFields() {
+        var map = testSubject.toMap(getProperty(), Set.of(ID_SHORT));
+
+        assertEquals("test-property", map.get(AAS_V30_NAMESPACE + ID_SHORT));
+        assertFalse(map.containsKey(AAS_V30_NAMESPACE + VALUE));
+    }
+
+
+    @Test
+    void test_toMap_differentFieldSetsDoNotInterfere() {
+        var property = getProperty();
+
+        assertFalse(testSubject.toMap(property, Set.of(ID_SHORT)).containsKey(AAS_V30_NAMESPACE + VALUE));
+        assertTrue(testSubject.toMap(property, Set.of(ID_SHORT, VALUE)).containsKey(AAS_V30_NAMESPACE + VALUE));
+        assertFalse(testSubject.toMap(property, Set.of(ID_SHORT)).containsKey(AAS_V30_NAMESPACE + VALUE));
+    }
+
+
+    @Test
+    void test_write_onlyAllowedFields() throws SerializationException {
+        var serialized = testSubject.write(getProperty(), Set.of(ID_SHORT));
+
+        assertTrue(serialized.contains("\"idShort\":\"test-property\""));
+        assertFalse(serialized.contains("\"value\""));
+    }
+
+
+    @Test
+    void test_write_concurrentlyWithDifferentFieldSets() throws SerializationException {
+        var property = getProperty();
+        var idShortOnly = testSubject.write(property, Set.of(ID_SHORT));
+        var withValue = testSubject.write(property, Set.of(ID_SHORT, VALUE));
+
+        List<CompletableFuture<Boolean>> results = IntStream.range(0, 200)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return i % 2 == 0 ?
+                                idShortOnly.equals(testSubject.write(property, Set.of(ID_SHORT))) :
+                                withValue.equals(testSubject.write(property, Set.of(ID_SHORT, VALUE)));
+                    }
+                    catch (SerializationException e) {
+                        return false;
+                    }
+                }))
+                .toList();
+
+        results.forEach(result -> assertTrue(result.join()));
+    }
+
+
+    private Property getProperty() {
+        return new DefaultProperty.Builder()
+                .idShort("test-property")
+                .value("42")
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.aas.mapper.util;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultBlob;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringNameType;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultLangStringTextType;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelElementCollection;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
+import static de.fraunhofer.iosb.constants.AasConstants.DEFAULT_EXPOSED_FIELDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+
+class IriPropertyExtractorTest {
+
+    private final IriPropertyExtractor testSubject = new IriPropertyExtractor(DEFAULT_EXPOSED_FIELDS);
+
+
+    @Test
+    void test_extract_sameAsFilteredSerialization() {
+        var property = new DefaultProperty.Builder()
+                .idShort("temperature")
+                .value("21.5")
+                .description(List.of(new DefaultLangStringTextType.Builder().language("en").text("Current temperature").build()))
+                .displayName(List.of(new DefaultLangStringNameType.Builder().language("de").text("Temperatur").build()))
+                .semanticId(new DefaultReference.Builder()
+                        .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value("https://example.com/temperature").build())
+                        .build())
+                .build();
+
+        var extracted = testSubject.extract(property);
+
+        assertEquals(filteredSerialization(property), extracted);
+        assertFalse(extracted.containsKey("modelType"));
+    }
+
+
+    @Test
+    void test_extract_identifiable() {
+        var submodel = new DefaultSubmodel.Builder()
+                .id("https://example.com/ids/sm/1")
+                .idShort("submodel")
+                .build();
+
+        var extracted = testSubject.extract(submodel);
+
+        assertEquals(filteredSerialization(submodel), extracted);
+        assertEquals("https://example.com/ids/sm/1", extracted.get(AAS_V30_NAMESPACE + "Identifiable/id"));
+    }
+
+
+    @Test
+    void test_extract_doesNotReadChildren() {
+        var collection = new DefaultSubmodelElementCollection.Builder()
+                .idShort("collection")
+                .value(List.<SubmodelElement>of(new DefaultProperty.Builder().idShort("child").value("1").build()))
+                .build();
+
+        var extracted = testSubject.extract(collection);
+
+        assertEquals(Map.of(AAS_V30_NAMESPACE + "Referable/idShort", "collection"), extracted);
+        assertFalse(extracted.containsKey(AAS_V30_NAMESPACE + "SubmodelElementCollection/value"));
+    }
+
+
+    @Test
+    void test_extract_binaryValueBase64Encoded() {
+        var exposedFields = Set.of("Blob/value");
+        var blob = new DefaultBlob.Builder()
+                .idShort("blob")
+                .contentType("application/octet-stream")
+                .value(new byte[] {0, 1, 2, (byte) 0xff})
+                .build();
+
+        var extracted = new IriPropertyExtractor(exposedFields).extract(blob);
+
+        assertEquals(Map.of(AAS_V30_NAMESPACE + "Blob/value", "AAEC/w=="), extracted);
+    }
+
+
+    private Map<String, Object> filteredSerialization(Object aasInstance) {
+        return new FilteredJsonSerializer().toMap(aasInstance, DEFAULT_EXPOSED_FIELDS);
+    }
+}
@@ -20,16 +20,28 @@ import de.fraunhofer.iosb.app.model.configuration.Configuration;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.ilt.faaast.service.dataformat.SerializationException;
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.UnsupportedModifierException;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.DeserializationException;
 import org.eclipse.digitaltwin.aas4j.v3.dataformat.json.JsonDeserializer;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.ConnectException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 import static de.fraunhofer.iosb.app.testutils.AasCreator.getEnvironment;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -51,7 +63,7 @@ public class SelfDescriptionControllerIT extends AbstractAasServerControllerIT<S
 
         when(mockHandler.buildSelfDescription()).thenReturn(environment);
         aasServerStore.put(uri, mockHandler);
-        var selfDescription = testSubject.getSelfDescription(uri);
+        var selfDescription = read(testSubject.getSelfDescription(uri, null));
         var selfDescriptionsDeserialized = new JsonDeserializer().readList(selfDescription, Environment.class);
 
         Environment selfDescriptionSerialized = selfDescriptionsDeserialized.get(0);
@@ -87,7 +99,7 @@ public class SelfDescriptionControllerIT extends AbstractAasServerControllerIT<S
 
         when(mockHandler.buildSelfDescription()).thenReturn(environment);
         aasServerStore.put(uri, mockHandler);
-        var selfDescription = testSubject.getSelfDescription(uri);
+        var selfDescription = read(testSubject.getSelfDescription(uri, null));
         var selfDescriptionsDeserialized = new JsonDeserializer().readList(selfDescription, Environment.class);
 
         Environment selfDescriptionSerialized = selfDescriptionsDeserialized.get(0);
@@ -109,8 +121,136 @@ public class SelfDescriptionControllerIT extends AbstractAasServerControllerIT<S
     }
 
 
+    @Test
+    public void getSelfDescription_unchangedHandler_shouldNotRebuild() throws UnauthorizedException, ConnectException, IOException {
+        var uri = getUri();
+        Configuration.getInstance().setExposedFields("");
+        var mockHandler = mock(AasRepositoryHandler.class);
+
+        when(mockHandler.buildSelfDescription()).thenReturn(getEnvironment());
+        aasServerStore.put(uri, mockHandler);
+
+        var first = read(testSubject.getSelfDescription(uri, null));
+        var cachedResponse = testSubject.getSelfDescription(uri, null);
+
+        verify(mockHandler, times(1)).buildSelfDescription();
+        assertNotNull(cachedResponse.getEntityTag());
+        assertEquals(first, read(cachedResponse));
+    }
+
+
+    @Test
+    public void getSelfDescription_matchingEntityTag_shouldReturnNotModified() throws UnauthorizedException, ConnectException, IOException {
+        var uri = getUri();
+        Configuration.getInstance().setExposedFields("");
+        var mockHandler = mock(AasRepositoryHandler.class);
+
+        when(mockHandler.buildSelfDescription()).thenReturn(getEnvironment());
+        aasServerStore.put(uri, mockHandler);
+
+        read(testSubject.getSelfDescription(uri, null));
+        var entityTag = testSubject.getSelfDescription(uri, null).getEntityTag();
+        var response = testSubject.getSelfDescription(uri, "\"%s\"".formatted(entityTag.getValue()));
+
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertEquals(entityTag, response.getEntityTag());
+    }
+
+
+    @Test
+    public void getSelfDescription_changedHandler_shouldRebuild() throws UnauthorizedException, ConnectException, IOException {
+        var uri = getUri();
+        Configuration.getInstance().setExposedFields("");
+        var mockHandler = mock(AasRepositoryHandler.class);
+        var changedEnvironment = getEnvironment();
+        changedEnvironment.setSubmodels(changedEnvironment.getSubmodels().subList(1, changedEnvironment.getSubmodels().size()));
+
+        when(mockHandler.buildSelfDescription()).thenReturn(getEnvironment(), changedEnvironment);
+        when(mockHandler.getSelfDescriptionVersion()).thenReturn(0L, 0L, 1L);
+        aasServerStore.put(uri, mockHandler);
+
+        read(testSubject.getSelfDescription(uri, null));
+        var entityTag = testSubject.getSelfDescription(uri, null).getEntityTag();
+        var response = testSubject.getSelfDescription(uri, "\"%s\"".formatted(entityTag.getValue()));
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertNotEquals(entityTag, response.getEntityTag());
+        read(response);
+        verify(mockHandler, times(2)).buildSelfDescription();
+    }
+
+
+    @Test
+    public void getSelfDescription_oneHandlerUnavailable_shouldStreamOthers()
+            throws UnauthorizedException, ConnectException, IOException, DeserializationException {
+        Configuration.getInstance().setExposedFields("");
+        var availableHandler = mock(AasRepositoryHandler.class);
+        var unavailableHandler = mock(AasRepositoryHandler.class);
+
+        when(availableHandler.buildSelfDescription()).thenReturn(getEnvironment());
+        when(unavailableHandler.buildSelfDescription()).thenThrow(new ConnectException("unavailable"));
+        aasServerStore.put(URI.create("http://localhost:1/api/v3.0"), unavailableHandler);
+        aasServerStore.put(getUri(), availableHandler);
+
+        var selfDescriptions = new JsonDeserializer().readList(read(testSubject.getSelfDescription(null, null)), Environment.class);
+
+        assertEquals(1, selfDescriptions.size());
+        assertSelfDescription(selfDescriptions.get(0));
+    }
+
+
+    @Test
+    public void getSelfDescription_concurrentRequests_shouldShareBuild() throws UnauthorizedException, ConnectException, IOException {
+        var uri = getUri();
+        Configuration.getInstance().setExposedFields("");
+        var mockHandler = mock(AasRepositoryHandler.class);
+        var pendingBuilds = new ArrayList<Runnable>();
+        var controller = new SelfDescriptionController(monitor, aasServerStore, pendingBuilds::add);
+
+        when(mockHandler.buildSelfDescription()).thenReturn(getEnvironment());
+        aasServerStore.put(uri, mockHandler);
+
+        // Both requests arrive before the build has finished
+        var first = controller.getSelfDescription(uri, null);
+        var second = controller.getSelfDescription(uri, null);
+        pendingBuilds.forEach(Runnable::run);
+
+        assertEquals(1, pendingBuilds.size());
+        assertEquals(read(first), read(second));
+        verify(mockHandler, times(1)).buildSelfDescription();
+    }
+
+
+    @Test
+    public void getSelfDescription_unavailableHandler_shouldReuseFailure() throws UnauthorizedException, ConnectException, IOException {
+        Configuration.getInstance().setExposedFields("");
+        var availableHandler = mock(AasRepositoryHandler.class);
+        var unavailableHandler = mock(AasRepositoryHandler.class);
+
+        when(availableHandler.buildSelfDescription()).thenReturn(getEnvironment());
+        when(unavailableHandler.buildSelfDescription()).thenThrow(new ConnectException("unavailable"));
+        aasServerStore.put(URI.create("http://localhost:1/api/v3.0"), unavailableHandler);
+        aasServerStore.put(getUri(), availableHandler);
+
+        read(testSubject.getSelfDescription(null, null));
+        var cachedResponse = testSubject.getSelfDescription(null, null);
+
+        // The failure is not retried immediately, so all self-descriptions are known and the response is tagged
+        assertNotNull(cachedResponse.getEntityTag());
+        read(cachedResponse);
+        verify(unavailableHandler, times(1)).buildSelfDescription();
+    }
+
+
+    private static String read(Response response) throws IOException {
+        var output = new ByteArrayOutputStream();
+        ((StreamingOutput) response.getEntity()).write(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+
     @Override
     protected SelfDescriptionController getTestSubject() {
-        return new SelfDescriptionController(monitor, aasServerStore);
+        return new SelfDescriptionController(monitor, aasServerStore, ForkJoinPool.commonPool());
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.handler.aas.repository.event;
+
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import de.fraunhofer.iosb.client.repository.local.event.EventTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.CREATED;
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.DELETED;
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.UPDATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class CoalescingEventBufferTest {
+
+    private final List<Map.Entry<EventTypes, ReferenceKey>> handled = new CopyOnWriteArrayList<>();
+    // The window does not elapse during a test, events are flushed manually
+    private final CoalescingEventBuffer testSubject = new CoalescingEventBuffer(new ConsoleMonitor(), 60_000,
+            (eventType, reference) -> handled.add(Map.entry(eventType, reference)));
+
+
+    @AfterEach
+    void tearDown() {
+        testSubject.close();
+    }
+
+
+    @Test
+    void test_flush_updatesDeduplicated() {
+        for (int i = 0; i < 100; i++) {
+            testSubject.add(UPDATED, reference("property"));
+        }
+
+        testSubject.flush();
+
+        assertEquals(List.of(Map.entry(UPDATED, reference("property"))), handled);
+    }
+
+
+    @Test
+    void test_flush_netChangePerElementInOrder() {
+        testSubject.add(UPDATED, reference("first"));
+        testSubject.add(CREATED, reference("second"));
+        testSubject.add(UPDATED, reference("second"));
+        testSubject.add(CREATED, reference("cancelled"));
+        testSubject.add(DELETED, reference("cancelled"));
+        testSubject.add(DELETED, reference("first"));
+
+        testSubject.flush();
+
+        assertEquals(List.of(Map.entry(DELETED, reference("first")), Map.entry(CREATED, reference("second"))), handled);
+    }
+
+
+    @Test
+    void test_flush_nothingPending() {
+        testSubject.flush();
+
+        assertTrue(handled.isEmpty());
+    }
+
+
+    @Test
+    void test_add_noWindowHandledImmediately() {
+        try (var immediate = new CoalescingEventBuffer(new ConsoleMonitor(), 0, (eventType, reference) -> handled.add(Map.entry(eventType, reference)))) {
+            immediate.add(UPDATED, reference("property"));
+            immediate.add(UPDATED, reference("property"));
+        }
+
+        assertEquals(2, handled.size());
+    }
+
+
+    @Test
+    void test_merge() {
+        assertEquals(CREATED, CoalescingEventBuffer.merge(CREATED, UPDATED));
+        assertNull(CoalescingEventBuffer.merge(CREATED, DELETED));
+        assertEquals(UPDATED, CoalescingEventBuffer.merge(UPDATED, UPDATED));
+        assertEquals(DELETED, CoalescingEventBuffer.merge(UPDATED, DELETED));
+        assertEquals(UPDATED, CoalescingEventBuffer.merge(DELETED, CREATED));
+    }
+
+
+    private static ReferenceKey reference(String idShort) {
+        return ReferenceKey.of(new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value("submodel").build(),
+                        new DefaultKey.Builder().type(KeyTypes.PROPERTY).value(idShort).build()))
+                .build());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.handler.aas.repository.event;
+
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import de.fraunhofer.iosb.client.repository.local.event.EventTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static de.fraunhofer.iosb.app.handler.aas.repository.event.EventWorkerQueue.OverflowPolicy.BLOCK;
+import static de.fraunhofer.iosb.app.handler.aas.repository.event.EventWorkerQueue.OverflowPolicy.DISCARD;
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.CREATED;
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.DELETED;
+import static de.fraunhofer.iosb.client.repository.local.event.EventTypes.UPDATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+
+class EventWorkerQueueTest {
+
+    private final List<Map.Entry<EventTypes, ReferenceKey>> handled = new CopyOnWriteArrayList<>();
+
+
+    @Test
+    void test_submit_inOrderPerElement() throws InterruptedException {
+        var done = new CountDownLatch(300);
+        try (var testSubject = new EventWorkerQueue(new ConsoleMonitor(), 4, 1000, BLOCK, (eventType, reference) -> {
+            handled.add(Map.entry(eventType, reference));
+            done.countDown();
+        })) {
+            for (int i = 0; i < 100; i++) {
+                testSubject.submit(CREATED, reference("element" + i));
+                testSubject.submit(UPDATED, reference("element" + i));
+                testSubject.submit(DELETED, reference("element" + i));
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            var reference = reference("element" + i);
+            var eventsOfElement = handled.stream()
+                    .filter(event -> event.getValue().equals(reference))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            assertEquals(List.of(CREATED, UPDATED, DELETED), eventsOfElement);
+        }
+    }
+
+
+    @Test
+    void test_submit_discardWhenFull() throws InterruptedException {
+        var blockWorker = new CountDownLatch(1);
+        var workerBusy = new CountDownLatch(1);
+        try (var testSubject = new EventWorkerQueue(new ConsoleMonitor(), 1, 2, DISCARD, (eventType, reference) -> {
+            workerBusy.countDown();
+            awaitQuietly(blockWorker);
+        })) {
+            // The worker takes the first event and blocks, the next two fill the queue
+            assertTrue(testSubject.submit(UPDATED, reference("first")));
+            assertTrue(workerBusy.await(10, TimeUnit.SECONDS));
+            assertTrue(testSubject.submit(UPDATED, reference("second")));
+            assertTrue(testSubject.submit(UPDATED, reference("third")));
+
+            assertFalse(testSubject.submit(UPDATED, reference("discarded")));
+
+            var metrics = testSubject.metrics();
+            assertEquals(2, metrics.depth());
+            assertEquals(1, metrics.dropped());
+            blockWorker.countDown();
+        }
+    }
+
+
+    @Test
+    void test_submit_discardRequestsResynchronization() throws InterruptedException {
+        var blockWorker = new CountDownLatch(1);
+        var workerBusy = new CountDownLatch(1);
+        var resynchronized = new CountDownLatch(1);
+        try (var testSubject = new EventWorkerQueue(new ConsoleMonitor(), 1, 1, DISCARD, 0, (eventType, reference) -> {
+            workerBusy.countDown();
+            awaitQuietly(blockWorker);
+        }, resynchronized::countDown)) {
+            assertTrue(testSubject.submit(CREATED, reference("first")));
+            assertTrue(workerBusy.await(10, TimeUnit.SECONDS));
+            assertTrue(testSubject.submit(CREATED, reference("second")));
+
+            assertFalse(testSubject.submit(DELETED, reference("discarded")));
+
+            assertTrue(resynchronized.await(10, TimeUnit.SECONDS));
+            blockWorker.countDown();
+        }
+    }
+
+
+    @Test
+    void test_submit_blockWhenFull() throws InterruptedException {
+        var blockWorker = new CountDownLatch(1);
+        var workerBusy = new CountDownLatch(1);
+        var done = new CountDownLatch(4);
+        try (var testSubject = new EventWorkerQueue(new ConsoleMonitor(), 1, 2, BLOCK, (eventType, reference) -> {
+            workerBusy.countDown();
+            awaitQuietly(blockWorker);
+            handled.add(Map.entry(eventType, reference));
+            done.countDown();
+        })) {
+            testSubject.submit(UPDATED, reference("first"));
+            assertTrue(workerBusy.await(10, TimeUnit.SECONDS));
+            testSubject.submit(UPDATED, reference("second"));
+            testSubject.submit(UPDATED, reference("third"));
+
+            var producer = new Thread(() -> testSubject.submit(UPDATED, reference("waiting")));
+            producer.start();
+            producer.join(200);
+            // The producer waits for space in the queue
+            assertTrue(producer.isAlive());
+
+            blockWorker.countDown();
+            producer.join(10_000);
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        var expected = new ArrayList<Map.Entry<EventTypes, ReferenceKey>>();
+        for (var idShort: List.of("first", "second", "third", "waiting")) {
+            expected.add(Map.entry(UPDATED, reference(idShort)));
+        }
+        assertEquals(expected, handled);
+    }
+
+
+    @Test
+    void test_reportMetrics_infoOnlyWhenBusy() throws InterruptedException {
+        var monitor = mock(Monitor.class);
+        var blockWorker = new CountDownLatch(1);
+        var workerBusy = new CountDownLatch(1);
+        try (var testSubject = new EventWorkerQueue(monitor, 1, 2, DISCARD, (eventType, reference) -> {
+            workerBusy.countDown();
+            awaitQuietly(blockWorker);
+        })) {
+            testSubject.reportMetrics();
+            verify(monitor).debug(contains("depth: 0"));
+
+            testSubject.submit(UPDATED, reference("first"));
+            assertTrue(workerBusy.await(10, TimeUnit.SECONDS));
+            testSubject.submit(UPDATED, reference("second"));
+
+            testSubject.reportMetrics();
+            verify(monitor).info(contains("depth: 1"));
+            blockWorker.countDown();
+        }
+    }
+
+
+    @Test
+    void test_constructor_capacityBelowWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> new EventWorkerQueue(new ConsoleMonitor(), 4, 2, BLOCK, (eventType, reference) -> {
+        }));
+    }
+
+
+    @Test
+    void test_overflowPolicy_of() {
+        assertEquals(BLOCK, EventWorkerQueue.OverflowPolicy.of(null));
+        assertEquals(DISCARD, EventWorkerQueue.OverflowPolicy.of(" discard "));
+        assertThrows(IllegalArgumentException.class, () -> EventWorkerQueue.OverflowPolicy.of("unknown"));
+    }
+
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private static ReferenceKey reference(String idShort) {
+        return ReferenceKey.of(new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(List.of(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value("submodel").build(),
+                        new DefaultKey.Builder().type(KeyTypes.PROPERTY).value(idShort).build()))
+                .build());
+    }
+}
@@ -17,11 +17,15 @@ import org.eclipse.edc.spi.monitor.ConsoleMonitor;
 import org.eclipse.edc.spi.query.CriterionOperatorRegistry;
 import org.eclipse.edc.spi.query.QuerySpec;
 import org.eclipse.edc.spi.result.StoreResult;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static de.fraunhofer.iosb.app.testutils.AasCreator.getSubmodel;
 import static de.fraunhofer.iosb.constants.AasConstants.AAS_V30_NAMESPACE;
@@ -43,6 +47,7 @@ class EdcStoreHandlerTest {
     private EdcStoreHandler testSubject;
     private InMemoryAssetIndex assetIndex;
     private InMemoryContractDefinitionStore contractDefinitionStore;
+    private ForkJoinPool workerPool;
 
 
     private static void assertEqualAssets(Asset asset, Asset otherAsset) {
@@ -58,7 +63,14 @@ class EdcStoreHandlerTest {
     void setUp() {
         assetIndex = new InMemoryAssetIndex(criterionOperatorRegistry);
         contractDefinitionStore = new InMemoryContractDefinitionStore(criterionOperatorRegistry);
-        testSubject = new EdcStoreHandler(assetIndex, contractDefinitionStore, "provider");
+        workerPool = new ForkJoinPool(4);
+        testSubject = new EdcStoreHandler(assetIndex, contractDefinitionStore, "provider", workerPool);
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdown();
     }
 
 
@@ -110,6 +122,47 @@ class EdcStoreHandlerTest {
     }
 
 
+    @Test
+    void unregisterAll_previouslyRegistered_shouldSucceed() {
+        Map<PolicyBinding, String> assetIds = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            Submodel submodel = getSubmodel();
+            Asset asset = identifiableMapper.map(submodel);
+            PolicyBinding policyBinding = PolicyBinding.ofDefaults(AasUtils.toReference(submodel));
+            assertTrue(testSubject.register(policyBinding, asset).succeeded());
+            assetIds.put(policyBinding, asset.getId());
+        }
+        Submodel remaining = getSubmodel();
+        Asset remainingAsset = identifiableMapper.map(remaining);
+        PolicyBinding remainingPolicyBinding = PolicyBinding.ofDefaults(AasUtils.toReference(remaining));
+        assertTrue(testSubject.register(remainingPolicyBinding, remainingAsset).succeeded());
+
+        StoreResult<Void> result = testSubject.unregisterAll(assetIds);
+
+        assertTrue(result.succeeded());
+        assertEquals(1, assetIndex.countAssets(List.of()));
+        assertSingleContractDefinition(
+                remainingPolicyBinding.accessPolicyDefinitionId(),
+                remainingPolicyBinding.contractPolicyDefinitionId(),
+                remainingAsset.getId());
+    }
+
+
+    @Test
+    void unregisterAll_lastAssets_shouldRemoveContract() {
+        Submodel submodel = getSubmodel();
+        Asset asset = identifiableMapper.map(submodel);
+        PolicyBinding policyBinding = PolicyBinding.ofDefaults(AasUtils.toReference(submodel));
+        assertRegister(policyBinding, asset);
+
+        StoreResult<Void> result = testSubject.unregisterAll(Map.of(policyBinding, asset.getId()));
+
+        assertTrue(result.succeeded());
+        assertEquals(0, assetIndex.countAssets(List.of()));
+        assertTrue(contractDefinitionStore.findAll(QuerySpec.max()).toList().isEmpty());
+    }
+
+
     @Test
     void update_existingAsset_shouldSucceed() {
         Submodel submodel = getSubmodel();
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.app.handler.util;
+
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
+import org.eclipse.digitaltwin.aas4j.v3.model.Identifiable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEnvironment;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelElementCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static de.fraunhofer.iosb.app.testutils.AasCreator.getEnvironment;
+import static de.fraunhofer.iosb.app.testutils.AasCreator.getProperty;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class MappingHelperTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+
+    @Test
+    void test_map_parallelSameAsSequential() {
+        Environment environment = getEnvironment();
+
+        Map<ReferenceKey, String> sequential = MappingHelper.map(environment, this::name, this::name);
+        Map<ReferenceKey, String> parallel = MappingHelper.map(environment, this::name, this::name, pool);
+
+        assertEquals(sequential, parallel);
+    }
+
+
+    @Test
+    void test_map_everyElementMappedOnce() {
+        Environment environment = new DefaultEnvironment.Builder()
+                .submodels(IntStream.range(0, 8).mapToObj(this::submodel).toList())
+                .build();
+        var identifiableCalls = new AtomicInteger();
+        var elementCalls = new AtomicInteger();
+
+        Map<ReferenceKey, String> mapped = MappingHelper.map(environment,
+                identifiable -> {
+                    identifiableCalls.incrementAndGet();
+                    return identifiable.getIdShort();
+                },
+                (parent, element, children) -> {
+                    elementCalls.incrementAndGet();
+                    return element.getIdShort();
+                }, pool);
+
+        // Per submodel: one collection with two properties
+        assertEquals(8, identifiableCalls.get());
+        assertEquals(8 * 3, elementCalls.get());
+        assertEquals(8 + 8 * 3, mapped.size());
+    }
+
+
+    @Test
+    void test_map_parentReceivesMappedChildren() {
+        Environment environment = new DefaultEnvironment.Builder().submodels(List.of(submodel(0))).build();
+        Map<String, List<String>> childrenByParent = new ConcurrentHashMap<>();
+
+        MappingHelper.map(environment, Identifiable::getIdShort, (parent, element, children) -> {
+            childrenByParent.put(element.getIdShort(), children);
+            return element.getIdShort();
+        });
+
+        assertEquals(List.of("property-0-a", "property-0-b"), childrenByParent.get("collection-0"));
+        assertTrue(childrenByParent.get("property-0-a").isEmpty());
+        assertEquals(Set.of("collection-0", "property-0-a", "property-0-b"), childrenByParent.keySet());
+    }
+
+
+    private String name(Identifiable identifiable) {
+        return identifiable.getId();
+    }
+
+
+    private String name(Reference parent, SubmodelElement element, List<String> children) {
+        return parent.getKeys().get(parent.getKeys().size() - 1).getValue() + "/" + element.getIdShort() + children;
+    }
+
+
+    private Submodel submodel(int index) {
+        return new DefaultSubmodel.Builder()
+                .id("https://example.com/ids/sm/" + index)
+                .idShort("submodel-" + index)
+                .submodelElements(List.of(new DefaultSubmodelElementCollection.Builder()
+                        .idShort("collection-" + index)
+                        .value(List.of(getProperty("property-" + index + "-a"), getProperty("property-" + index + "-b")))
+                        .build()))
+                .build();
+    }
+}
@@ -24,6 +24,9 @@ import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 import org.eclipse.edc.web.spi.WebService;
 
+import java.time.Clock;
+import java.time.Duration;
+
 
 /**
  * Manage public api endpoints in a unified extension. This is due to multiple independent authentication request filters not working properly, since they cannot "let a request
@@ -34,6 +37,8 @@ import org.eclipse.edc.web.spi.WebService;
 public class PublicApiManagementExtension implements ServiceExtension {
 
     public static final String NAME = "Public API Endpoint Management";
+    // How long temporary endpoints stay valid if they are not used (seconds)
+    public static final String TEMPORARY_ENDPOINT_TTL = "edc.api.temporaryEndpointTtl";
 
     // Our authentication request filter needs this service to work:
     @Inject
@@ -46,7 +51,10 @@ public class PublicApiManagementExtension implements ServiceExtension {
     @Override
     public void initialize(ServiceExtensionContext context) {
         var monitor = context.getMonitor();
-        var filter = new CustomAuthenticationRequestFilter(apiAuthenticationRegistry, monitor);
+        var temporaryEndpointTtl = Duration.ofSeconds(context.getSetting(TEMPORARY_ENDPOINT_TTL,
+                CustomAuthenticationRequestFilter.TEMPORARY_ENDPOINT_TTL_DEFAULT.toSeconds()));
+        var filter = new CustomAuthenticationRequestFilter(apiAuthenticationRegistry, monitor, temporaryEndpointTtl,
+                Clock.systemUTC());
 
         // Register our filter at the EDC
         webService.registerResource(filter);
@@ -22,30 +22,53 @@ import org.eclipse.edc.api.auth.spi.AuthenticationRequestFilter;
 import org.eclipse.edc.api.auth.spi.registry.ApiAuthenticationRegistry;
 import org.eclipse.edc.spi.monitor.Monitor;
 
-import java.util.ArrayList;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.lang.String.format;
 
 
 /**
  * Custom AuthenticationRequestFilter filtering requests that go directly to public endpoints. Endpoints can be made public by adding them to this filter's list.
+ * Endpoints are indexed by suffix and method, so only endpoints of the requested path are checked. Temporary endpoints
+ * expire if they are not used within their time to live.
  */
 public class CustomAuthenticationRequestFilter extends AuthenticationRequestFilter {
 
+    public static final Duration TEMPORARY_ENDPOINT_TTL_DEFAULT = Duration.ofMinutes(5);
+
     private final Monitor monitor;
-    private final Collection<Endpoint> endpoints;
-    private final Collection<Endpoint> temporaryEndpoints;
+    private final Map<Key, Set<Endpoint>> endpoints = new ConcurrentHashMap<>();
+    // Temporary endpoints with their expiry time in epoch milliseconds
+    private final Map<Key, Map<Endpoint, Long>> temporaryEndpoints = new ConcurrentHashMap<>();
+    private final Duration temporaryEndpointTtl;
+    private final Clock clock;
 
 
     public CustomAuthenticationRequestFilter(ApiAuthenticationRegistry apiAuthenticationRegistry, Monitor monitor) {
+        this(apiAuthenticationRegistry, monitor, TEMPORARY_ENDPOINT_TTL_DEFAULT, Clock.systemUTC());
+    }
+
+
+    /**
+     * Class constructor
+     *
+     * @param apiAuthenticationRegistry Authenticates requests to non-public endpoints.
+     * @param monitor Logging.
+     * @param temporaryEndpointTtl How long a temporary endpoint stays valid if it is not used.
+     * @param clock Current time for expiry of temporary endpoints.
+     */
+    public CustomAuthenticationRequestFilter(ApiAuthenticationRegistry apiAuthenticationRegistry, Monitor monitor,
+                                             Duration temporaryEndpointTtl, Clock clock) {
         super(apiAuthenticationRegistry, "default");
         this.monitor = monitor;
-        endpoints = new ArrayList<>();
-        temporaryEndpoints = new ArrayList<>();
+        this.temporaryEndpointTtl = temporaryEndpointTtl;
+        this.clock = clock;
     }
 
 
@@ -55,18 +78,33 @@ public class CustomAuthenticationRequestFilter extends AuthenticationRequestFilt
     @Override
     public void filter(ContainerRequestContext requestContext) {
         Objects.requireNonNull(requestContext);
-        var requestedEndpoint = parseEndpoint(requestContext);
-        for (Endpoint endpoint: temporaryEndpoints) {
-            if (endpoint.isCoveredBy(requestedEndpoint)) {
-                monitor.debug(format("CustomAuthenticationRequestFilter: Accepting request to public temporary " +
-                        "endpoint %s", endpoint.suffix()));
-                temporaryEndpoints.remove(endpoint);
-                return;
+        var key = parseKey(requestContext);
+        if (key == null) {
+            super.filter(requestContext);
+            return;
+        }
+
+        var temporaryCandidates = temporaryEndpoints.get(key);
+        if (temporaryCandidates != null) {
+            var now = clock.millis();
+            for (var candidate: temporaryCandidates.entrySet()) {
+                var endpoint = candidate.getKey();
+                if (candidate.getValue() <= now) {
+                    temporaryCandidates.remove(endpoint);
+                }
+                // Only the request removing the endpoint is accepted, so it can be used once
+                else if (endpoint.areHeadersCoveredBy(requestContext.getHeaders()) &&
+                        temporaryCandidates.remove(endpoint) != null) {
+                    temporaryEndpoints.computeIfPresent(key, (k, remaining) -> remaining.isEmpty() ? null : remaining);
+                    monitor.debug(format("CustomAuthenticationRequestFilter: Accepting request to public temporary " +
+                            "endpoint %s", endpoint.suffix()));
+                    return;
+                }
             }
         }
 
-        for (Endpoint endpoint: endpoints) {
-            if (endpoint.isCoveredBy(requestedEndpoint)) {
+        for (Endpoint endpoint: endpoints.getOrDefault(key, Set.of())) {
+            if (endpoint.areHeadersCoveredBy(requestContext.getHeaders())) {
                 monitor.debug(format("CustomAuthenticationRequestFilter: Accepting request to public endpoint %s",
                         endpoint.suffix()));
                 return;
@@ -76,28 +114,69 @@ public class CustomAuthenticationRequestFilter extends AuthenticationRequestFilt
     }
 
 
-    private Endpoint parseEndpoint(ContainerRequestContext requestContext) {
-        var requestPath = requestContext.getUriInfo().getPath();
-        var method = HttpMethod.valueOf(requestContext.getMethod());
-        var headers = requestContext.getHeaders().entrySet().stream()
-                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue));
-
-        return new Endpoint(requestPath, method, headers);
+    /* Headers are not parsed here, they are only looked up if an endpoint is registered for this path and method */
+    private Key parseKey(ContainerRequestContext requestContext) {
+        try {
+            return new Key(requestContext.getUriInfo().getPath(), HttpMethod.valueOf(requestContext.getMethod()));
+        }
+        catch (IllegalArgumentException unknownMethod) {
+            return null;
+        }
     }
 
 
     public boolean addEndpoints(Collection<Endpoint> endpoints) {
-        var newEndpoints = endpoints.stream().filter(newEndpoint -> !this.endpoints.contains(newEndpoint)).toList();
-        return this.endpoints.addAll(newEndpoints);
+        var changed = false;
+        for (var endpoint: endpoints) {
+            var added = new boolean[1];
+            // Index entries are created and removed atomically per key
+            this.endpoints.compute(Key.of(endpoint), (key, indexed) -> {
+                var updated = indexed == null ? ConcurrentHashMap.<Endpoint>newKeySet() : indexed;
+                added[0] = updated.add(endpoint);
+                return updated;
+            });
+            changed |= added[0];
+        }
+        return changed;
     }
 
 
     public boolean removeEndpoints(Collection<Endpoint> endpoints) {
-        return this.endpoints.removeAll(endpoints);
+        var changed = false;
+        for (var endpoint: endpoints) {
+            var removed = new boolean[1];
+            this.endpoints.computeIfPresent(Key.of(endpoint), (key, indexed) -> {
+                removed[0] = indexed.remove(endpoint);
+                return indexed.isEmpty() ? null : indexed;
+            });
+            changed |= removed[0];
+        }
+        return changed;
     }
 
 
     public void addTemporaryEndpoint(Endpoint endpoint) {
-        temporaryEndpoints.add(endpoint);
+        var now = clock.millis();
+        removeExpiredTemporaryEndpoints(now);
+        temporaryEndpoints.compute(Key.of(endpoint), (key, indexed) -> {
+            var updated = indexed == null ? new ConcurrentHashMap<Endpoint, Long>() : indexed;
+            updated.put(endpoint, now + temporaryEndpointTtl.toMillis());
+            return updated;
+        });
+    }
+
+
+    private void removeExpiredTemporaryEndpoints(long now) {
+        temporaryEndpoints.keySet().forEach(key -> temporaryEndpoints.computeIfPresent(key, (k, indexed) -> {
+            indexed.values().removeIf(expiresAt -> expiresAt <= now);
+            return indexed.isEmpty() ? null : indexed;
+        }));
+    }
+
+
+    private record Key(String suffix, HttpMethod method) {
+        static Key of(Endpoint endpoint) {
+            return new Key(endpoint.suffix(), endpoint.method());
+        }
     }
 }
@@ -49,9 +49,22 @@ public record Endpoint(String suffix, HttpMethod method, Map<String, List<String
             return false;
         }
 
-        return this.customHeaders().entrySet().stream().allMatch(entry ->
-                other.customHeaders().containsKey(entry.getKey()) &&
-                        new HashSet<>(other.customHeaders().get(entry.getKey())).containsAll(entry.getValue()));
+        return areHeadersCoveredBy(other.customHeaders());
+    }
+
+
+    /**
+     * Check whether this endpoint's custom headers are contained in the given headers. Only the headers of this
+     * endpoint are looked up, so the given map is not copied or iterated.
+     *
+     * @param headers Headers, e.g., of a request.
+     * @return True if every custom header value of this endpoint is present in the given headers.
+     */
+    public boolean areHeadersCoveredBy(Map<String, List<String>> headers) {
+        return this.customHeaders().entrySet().stream().allMatch(entry -> {
+            var otherValues = headers.get(entry.getKey());
+            return otherValues != null && new HashSet<>(otherValues).containsAll(entry.getValue());
+        });
     }
 
 
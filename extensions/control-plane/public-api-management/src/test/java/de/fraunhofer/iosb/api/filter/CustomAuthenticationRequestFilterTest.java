@@ -18,7 +18,7 @@ package de.fraunhofer.iosb.api.filter;
 import de.fraunhofer.iosb.api.model.Endpoint;
 import de.fraunhofer.iosb.api.model.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
-import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.UriInfo;
 import org.eclipse.edc.api.auth.spi.AuthenticationService;
 import org.eclipse.edc.api.auth.spi.registry.ApiAuthenticationRegistry;
@@ -27,12 +27,19 @@ import org.eclipse.edc.web.spi.exception.AuthenticationFailedException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static de.fraunhofer.iosb.api.model.EndpointTest.createNormalEndpoint;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
@@ -57,7 +64,6 @@ class CustomAuthenticationRequestFilterTest {
     }
 
 
-    @SuppressWarnings("unchecked")
     @Test
     void filterGoThrough() {
         // Make a request that should be accepted by our filter.
@@ -71,9 +77,7 @@ class CustomAuthenticationRequestFilterTest {
         when(mockUriInfo.getPath()).thenReturn("/api/suffix/test");
         when(mockRequest.getUriInfo()).thenReturn(mockUriInfo);
         when(mockRequest.getMethod()).thenReturn("DELETE");
-        var mockMultiValueMap = mock(MultivaluedMap.class);
-        when(mockMultiValueMap.entrySet()).thenReturn(headers.entrySet());
-        when(mockRequest.getHeaders()).thenReturn(mockMultiValueMap);
+        when(mockRequest.getHeaders()).thenReturn(new MultivaluedHashMap<>(Map.of("y-api-key", "pasword")));
 
         // This should not be called
         when(mockApiAuthenticationRegistry.resolve("default").isAuthenticated(any())).thenThrow(IllegalAccessError.class);
@@ -83,7 +87,6 @@ class CustomAuthenticationRequestFilterTest {
     }
 
 
-    @SuppressWarnings("unchecked")
     @Test
     void filterWrongHttpMethod() {
         // Make a request that should not be accepted by our filter.
@@ -97,9 +100,7 @@ class CustomAuthenticationRequestFilterTest {
         when(mockUriInfo.getPath()).thenReturn("/api/suffix/test");
         when(mockRequest.getUriInfo()).thenReturn(mockUriInfo);
         when(mockRequest.getMethod()).thenReturn("DELETE");
-        var mockMultiValueMap = mock(MultivaluedMap.class);
-        when(mockMultiValueMap.entrySet()).thenReturn(headers.entrySet());
-        when(mockRequest.getHeaders()).thenReturn(mockMultiValueMap);
+        when(mockRequest.getHeaders()).thenReturn(new MultivaluedHashMap<>(Map.of("y-api-key", "pasword")));
 
         try {
             // This should delegate request to superclass
@@ -113,6 +114,66 @@ class CustomAuthenticationRequestFilterTest {
     }
 
 
+    @Test
+    void filterTemporaryEndpointOnlyOnce() {
+        var headers = Map.of("data-transfer-api-key", List.of("secret"));
+        customAuthenticationRequestFilter.addTemporaryEndpoint(new Endpoint("automated/receiveData/agreement",
+                HttpMethod.POST, headers));
+        when(mockApiAuthenticationRegistry.resolve("default").isAuthenticated(any())).thenReturn(false);
+
+        // First request passes
+        customAuthenticationRequestFilter.filter(mockRequest("automated/receiveData/agreement", "POST",
+                Map.of("data-transfer-api-key", "secret")));
+
+        // Second request with the same key is delegated to the superclass
+        assertThrows(AuthenticationFailedException.class, () -> customAuthenticationRequestFilter.filter(
+                mockRequest("automated/receiveData/agreement", "POST", Map.of("data-transfer-api-key", "secret"))));
+    }
+
+
+    @Test
+    void filterExpiredTemporaryEndpoint() {
+        var now = new AtomicLong();
+        var clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+        var filter = new CustomAuthenticationRequestFilter(mockApiAuthenticationRegistry, mock(Monitor.class),
+                Duration.ofSeconds(10), clock);
+        filter.addTemporaryEndpoint(new Endpoint("automated/receiveData/agreement", HttpMethod.POST,
+                Map.of("data-transfer-api-key", List.of("secret"))));
+        when(mockApiAuthenticationRegistry.resolve("default").isAuthenticated(any())).thenReturn(false);
+
+        now.set(Duration.ofSeconds(10).toMillis());
+
+        assertThrows(AuthenticationFailedException.class, () -> filter.filter(
+                mockRequest("automated/receiveData/agreement", "POST", Map.of("data-transfer-api-key", "secret"))));
+    }
+
+
+    private ContainerRequestContext mockRequest(String path, String method, Map<String, String> headers) {
+        var mockRequest = mock(ContainerRequestContext.class);
+        var mockUriInfo = mock(UriInfo.class);
+        when(mockUriInfo.getPath()).thenReturn(path);
+        when(mockRequest.getUriInfo()).thenReturn(mockUriInfo);
+        when(mockRequest.getMethod()).thenReturn(method);
+        when(mockRequest.getHeaders()).thenReturn(new MultivaluedHashMap<>(headers));
+        return mockRequest;
+    }
+
+
     @Test
     void addEndpoints() {
         // Pre: No endpoints
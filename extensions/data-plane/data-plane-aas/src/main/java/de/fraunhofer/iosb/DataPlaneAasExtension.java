@@ -16,9 +16,15 @@
 package de.fraunhofer.iosb;
 
 import de.fraunhofer.iosb.aas.lib.AasDataProcessorFactory;
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
+import de.fraunhofer.iosb.aas.lib.http.impl.NoOpRequestCoalescer;
+import de.fraunhofer.iosb.aas.lib.http.impl.SingleFlightRequestCoalescer;
 import de.fraunhofer.iosb.aas.lib.impl.AllAasDataProcessorFactory;
 import de.fraunhofer.iosb.dataplane.aas.pipeline.AasDataSinkFactory;
+import de.fraunhofer.iosb.dataplane.aas.pipeline.AasDataSource;
 import de.fraunhofer.iosb.dataplane.aas.pipeline.AasDataSourceFactory;
+import de.fraunhofer.iosb.dataplane.aas.pipeline.AttachmentTransferConfig;
+import de.fraunhofer.iosb.dataplane.aas.pipeline.AttachmentTransferExecutor;
 import de.fraunhofer.iosb.ssl.SelfSignedCertificateRetriever;
 import de.fraunhofer.iosb.ssl.impl.DefaultSelfSignedCertificateRetriever;
 import de.fraunhofer.iosb.ssl.impl.NoOpSelfSignedCertificateRetriever;
@@ -33,6 +39,8 @@ import org.eclipse.edc.spi.monitor.Monitor;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 
+import java.util.concurrent.ExecutorService;
+
 
 /**
  * Provides support for communicating with AAS services. Specifically this is:
@@ -46,6 +54,9 @@ import org.eclipse.edc.spi.system.ServiceExtensionContext;
  *         An interface allowing the registration of AAS services with
  *         self-signed SSL certificates this EDC is allowed to communicate with.
  *     </li>
+ *     <li>
+ *         Ranged, resumable transfers of File/Blob attachments.
+ *     </li>
  * </ul>
  */
 @Provides({ AasDataProcessorFactory.class })
@@ -56,6 +67,15 @@ public class DataPlaneAasExtension implements ServiceExtension {
 
     private static final String FOREIGN_SELF_SIGNED = "edc.dataplane.aas.acceptForeignSelfSignedCertificates";
     private static final String OWN_SELF_SIGNED = "edc.dataplane.aas.acceptOwnSelfSignedCertificates";
+    private static final String COALESCE_REQUESTS = "edc.dataplane.aas.coalesceRequests";
+    private static final String COALESCE_SPOOL_THRESHOLD = "edc.dataplane.aas.coalesceSpoolThreshold";
+    private static final long COALESCE_SPOOL_THRESHOLD_DEFAULT = 4 * 1024 * 1024;
+    private static final String ATTACHMENT_CHUNK_SIZE = "edc.dataplane.aas.attachmentChunkSize";
+    private static final String ATTACHMENT_PARALLELISM = "edc.dataplane.aas.attachmentParallelism";
+    private static final String ATTACHMENT_RETRIES = "edc.dataplane.aas.attachmentRetries";
+    private static final String ATTACHMENT_THREADS = "edc.dataplane.aas.attachmentThreads";
+    private static final String ATTACHMENT_MEMORY_BUDGET = "edc.dataplane.aas.attachmentMemoryBudget";
+    private static final String BATCH_PARALLELISM = "edc.dataplane.aas.batchParallelism";
 
     @Inject
     private PipelineService pipelineService;
@@ -64,6 +84,9 @@ public class DataPlaneAasExtension implements ServiceExtension {
     @Inject
     private RetryPolicy<Response> retryPolicy;
 
+    private AttachmentTransferExecutor attachmentTransferExecutor;
+    private ExecutorService batchExecutor;
+
 
     public void initialize(ServiceExtensionContext context) {
         var monitor = context.getMonitor();
@@ -71,14 +94,40 @@ public class DataPlaneAasExtension implements ServiceExtension {
         var allowForeignSelfSigned = context.getSetting(FOREIGN_SELF_SIGNED, false);
         var allowOwnSelfSigned = context.getSetting(OWN_SELF_SIGNED, false);
 
-        var aasDataSourceFactory = getAasDataSourceFactory(allowOwnSelfSigned, monitor);
+        RequestCoalescer requestCoalescer;
+        if (context.getSetting(COALESCE_REQUESTS, false)) {
+            requestCoalescer = new SingleFlightRequestCoalescer(
+                    context.getSetting(COALESCE_SPOOL_THRESHOLD, COALESCE_SPOOL_THRESHOLD_DEFAULT));
+        }
+        else {
+            requestCoalescer = new NoOpRequestCoalescer();
+        }
+
+        var attachmentTransferConfig = new AttachmentTransferConfig(
+                context.getSetting(ATTACHMENT_CHUNK_SIZE, AttachmentTransferConfig.DEFAULT.chunkSize()),
+                context.getSetting(ATTACHMENT_PARALLELISM, AttachmentTransferConfig.DEFAULT.parallelism()),
+                context.getSetting(ATTACHMENT_RETRIES, AttachmentTransferConfig.DEFAULT.retries()));
+
+        // Shared by all attachment transfers to bound threads and memory
+        attachmentTransferExecutor = new AttachmentTransferExecutor(
+                context.getSetting(ATTACHMENT_THREADS, AttachmentTransferExecutor.THREADS_DEFAULT),
+                context.getSetting(ATTACHMENT_MEMORY_BUDGET, AttachmentTransferExecutor.MEMORY_BUDGET_DEFAULT));
+
+        // Shared by all batch transfers to bound the number of elements fetched at the same time
+        batchExecutor = AasDataSource.newBatchExecutor(
+                context.getSetting(BATCH_PARALLELISM, AasDataSource.BATCH_PARALLELISM_DEFAULT));
+
+        var aasDataSourceFactory = getAasDataSourceFactory(allowOwnSelfSigned, requestCoalescer,
+                attachmentTransferConfig, monitor);
         pipelineService.registerFactory(aasDataSourceFactory);
         var aasDataSinkFactory = getAasDataSinkFactory(allowForeignSelfSigned, monitor);
         pipelineService.registerFactory(aasDataSinkFactory);
     }
 
 
-    private AasDataSourceFactory getAasDataSourceFactory(boolean ownSelfSigned, Monitor monitor) {
+    private AasDataSourceFactory getAasDataSourceFactory(boolean ownSelfSigned, RequestCoalescer requestCoalescer,
+                                                         AttachmentTransferConfig attachmentTransferConfig,
+                                                         Monitor monitor) {
         SelfSignedCertificateRetriever certRetriever;
         if (ownSelfSigned) {
             certRetriever = new DefaultSelfSignedCertificateRetriever();
@@ -88,7 +137,19 @@ public class DataPlaneAasExtension implements ServiceExtension {
         }
 
         var aasDataProcessorFactory = new AllAasDataProcessorFactory(certRetriever, okHttpClient, retryPolicy, monitor);
-        return new AasDataSourceFactory(monitor, aasDataProcessorFactory);
+        return new AasDataSourceFactory(monitor, aasDataProcessorFactory, requestCoalescer, attachmentTransferConfig,
+                attachmentTransferExecutor, batchExecutor);
+    }
+
+
+    @Override
+    public void shutdown() {
+        if (attachmentTransferExecutor != null) {
+            attachmentTransferExecutor.close();
+        }
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+        }
     }
 
 
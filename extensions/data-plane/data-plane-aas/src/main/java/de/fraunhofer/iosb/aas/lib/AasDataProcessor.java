@@ -15,6 +15,7 @@
  */
 package de.fraunhofer.iosb.aas.lib;
 
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
 import de.fraunhofer.iosb.dataplane.aas.pipeline.AasTransferRequestBody;
 import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
 import okhttp3.Headers;
@@ -41,6 +42,7 @@ import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_PATH;
 public class AasDataProcessor {
 
     private static final String APPLICATION_JSON = "application/json";
+    private static final String RANGE = "Range";
     private final EdcHttpClient httpClient;
 
 
@@ -57,6 +59,41 @@ public class AasDataProcessor {
      * @throws IOException If communication with AAS service fails.
      */
     public Response getFromAas(AasDataAddress sourceDataAddress) throws IOException {
+        return httpClient.execute(buildSourceRequest(sourceDataAddress));
+    }
+
+
+    /**
+     * Get data from an AAS service. Identical concurrent requests may share one upstream response.
+     *
+     * @param sourceDataAddress The address of the AAS service.
+     * @param requestCoalescer Decides whether the request is sent upstream or joins an identical request in flight.
+     * @return Response by the AAS service.
+     * @throws IOException If communication with AAS service fails.
+     */
+    public Response getFromAas(AasDataAddress sourceDataAddress, RequestCoalescer requestCoalescer) throws IOException {
+        return requestCoalescer.execute(buildSourceRequest(sourceDataAddress), httpClient::execute);
+    }
+
+
+    /**
+     * Get a byte range of data from an AAS service, e.g., a part of a File element's attachment.
+     *
+     * @param sourceDataAddress The address of the AAS service.
+     * @param firstByte Offset of the first byte to request.
+     * @param lastByte Offset of the last byte to request (inclusive).
+     * @return Response by the AAS service. If the service supports range requests, this is a 206 response.
+     * @throws IOException If communication with AAS service fails.
+     */
+    public Response getFromAas(AasDataAddress sourceDataAddress, long firstByte, long lastByte) throws IOException {
+        var request = buildSourceRequest(sourceDataAddress).newBuilder()
+                .header(RANGE, "bytes=%d-%d".formatted(firstByte, lastByte))
+                .build();
+        return httpClient.execute(request);
+    }
+
+
+    private Request buildSourceRequest(AasDataAddress sourceDataAddress) {
         String accessUrl = sourceDataAddress.getBaseUrl();
 
         if (accessUrl == null) {
@@ -98,15 +135,14 @@ public class AasDataProcessor {
             }
 
             requestUrlBuilder.addPathSegments(sourceDataAddress.getStringProperty(PROXY_PATH, ""));
+            // Serialization modifiers (level, extent) restrict the returned representation
+            sourceDataAddress.getQueryParameters().forEach(requestUrlBuilder::addQueryParameter);
         }
 
-        var request = requestBuilder
+        return requestBuilder
                 .url(requestUrlBuilder.build()) // .uri(HttpUrl) is marked as "internal"
                 // getAdditionalHeaders() includes authentication needed to access the service
-
                 .build();
-
-        return httpClient.execute(request);
     }
 
 
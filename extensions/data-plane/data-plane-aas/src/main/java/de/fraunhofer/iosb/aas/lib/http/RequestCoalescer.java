@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.aas.lib.http;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+
+/**
+ * Executes HTTP requests to AAS services, possibly sharing one upstream response between identical concurrent
+ * requests.
+ */
+public interface RequestCoalescer {
+
+    /**
+     * Execute a request. If an identical request is already in flight, implementations may wait for its response
+     * instead of sending the request again.
+     *
+     * @param request The request to execute.
+     * @param executor Executes the request upstream if it cannot be coalesced.
+     * @return Response for this caller. The caller is responsible for closing it.
+     * @throws IOException If communication with the AAS service fails.
+     */
+    Response execute(Request request, RequestExecutor executor) throws IOException;
+
+
+    @FunctionalInterface
+    interface RequestExecutor {
+        Response execute(Request request) throws IOException;
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.aas.lib.http.impl;
+
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Shares one upstream response between identical concurrent GET requests. The first caller (leader) executes the
+ * request and buffers the response body. Callers arriving while the request is in flight wait for the leader and each
+ * receive their own copy of the response. Bodies larger than the spool threshold are written to a temporary file which
+ * is deleted once every caller closed its response.
+ */
+public class SingleFlightRequestCoalescer implements RequestCoalescer {
+
+    private static final String GET = "GET";
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final long spoolThreshold;
+    private final Runnable joinListener;
+
+
+    /**
+     * Class constructor
+     *
+     * @param spoolThreshold Response bodies larger than this amount of bytes are spooled to disk instead of memory.
+     */
+    public SingleFlightRequestCoalescer(long spoolThreshold) {
+        this(spoolThreshold, () -> {
+        });
+    }
+
+
+    /* Notifies the listener whenever a caller joins a request in flight instead of executing it */
+    SingleFlightRequestCoalescer(long spoolThreshold, Runnable joinListener) {
+        this.spoolThreshold = spoolThreshold;
+        this.joinListener = joinListener;
+    }
+
+
+    @Override
+    public Response execute(Request request, RequestExecutor executor) throws IOException {
+        // Only side-effect free requests can be shared
+        if (!GET.equals(request.method()) || request.body() != null) {
+            return executor.execute(request);
+        }
+
+        var key = keyOf(request);
+        var candidate = new Flight();
+        var flight = inFlight.compute(key, (k, current) -> {
+            var target = current == null ? candidate : current;
+            target.references.incrementAndGet();
+            return target;
+        });
+
+        if (flight == candidate) {
+            lead(key, flight, request, executor);
+        }
+        else {
+            joinListener.run();
+        }
+
+        return flight.await().newResponse(request, flight);
+    }
+
+
+    private void lead(String key, Flight flight, Request request, RequestExecutor executor) {
+        try (var response = executor.execute(request)) {
+            flight.result.complete(SharedResponse.of(response, spoolThreshold));
+        }
+        catch (IOException | RuntimeException e) {
+            flight.result.completeExceptionally(e);
+        }
+        finally {
+            // No more callers can join after this, release the reference held by the map entry
+            inFlight.remove(key, flight);
+            flight.release();
+        }
+    }
+
+
+    private static String keyOf(Request request) {
+        // toMultimap lower-cases header names, TreeMap sorts them
+        return request.method() + " " + request.url() + " " + new TreeMap<>(request.headers().toMultimap());
+    }
+
+
+    private static final class Flight {
+
+        private final CompletableFuture<SharedResponse> result = new CompletableFuture<>();
+        // One reference for the in-flight map entry plus one per caller
+        private final AtomicInteger references = new AtomicInteger(1);
+
+
+        private SharedResponse await() throws IOException {
+            try {
+                return result.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release();
+                throw new IOException("Interrupted while waiting for coalesced response", e);
+            }
+            catch (ExecutionException e) {
+                release();
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                result.thenAccept(SharedResponse::delete);
+            }
+        }
+    }
+
+
+    private record SharedResponse(Protocol protocol, int code, String message, Headers headers, MediaType mediaType,
+                                  byte[] bytes, Path spoolFile, long contentLength) {
+
+        private static SharedResponse of(Response response, long spoolThreshold) throws IOException {
+            var body = response.body();
+            if (body == null) {
+                return new SharedResponse(response.protocol(), response.code(), response.message(),
+                        response.headers(), null, new byte[0], null, 0);
+            }
+
+            var memory = new ByteArrayOutputStream();
+            Path spoolFile = null;
+            OutputStream out = memory;
+            long contentLength = 0;
+            try (InputStream in = body.byteStream()) {
+                var chunk = new byte[CHUNK_SIZE];
+                int read;
+                while ((read = in.read(chunk)) != -1) {
+                    if (spoolFile == null && contentLength + read > spoolThreshold) {
+                        spoolFile = Files.createTempFile("aas-coalesced-", ".tmp");
+                        out = Files.newOutputStream(spoolFile);
+                        memory.writeTo(out);
+                    }
+                    out.write(chunk, 0, read);
+                    contentLength += read;
+                }
+            }
+            catch (IOException e) {
+                if (spoolFile != null) {
+                    out.close();
+                    Files.deleteIfExists(spoolFile);
+                }
+                throw e;
+            }
+            out.close();
+
+            return new SharedResponse(response.protocol(), response.code(), response.message(), response.headers(),
+                    body.contentType(), spoolFile == null ? memory.toByteArray() : null, spoolFile, contentLength);
+        }
+
+
+        private Response newResponse(Request request, Flight flight) throws IOException {
+            InputStream content;
+            try {
+                content = spoolFile == null ? new ByteArrayInputStream(bytes) : Files.newInputStream(spoolFile);
+            }
+            catch (IOException e) {
+                flight.release();
+                throw e;
+            }
+
+            var closed = new AtomicBoolean(false);
+            Source source = new ForwardingSource(Okio.source(content)) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    if (closed.compareAndSet(false, true)) {
+                        flight.release();
+                    }
+                }
+            };
+
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(code)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(Okio.buffer(source), mediaType, contentLength))
+                    .build();
+        }
+
+
+        private void delete() {
+            if (spoolFile != null) {
+                try {
+                    Files.deleteIfExists(spoolFile);
+                }
+                catch (IOException ignored) {
+                    // Temporary file, will be cleaned up by the operating system
+                }
+            }
+        }
+    }
+}
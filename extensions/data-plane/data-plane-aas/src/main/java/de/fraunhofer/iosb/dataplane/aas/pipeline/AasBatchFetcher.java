@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
+import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
+import okhttp3.MediaType;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource.Part;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamResult;
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+
+/**
+ * Fetches the elements of a batch data address in parallel from the same AAS service. The executor is shared by all
+ * batch transfers and owned by the caller.
+ */
+class AasBatchFetcher {
+
+    private static final String APPLICATION_JSON = "application/json";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final AasDataProcessor processor;
+    private final RequestCoalescer requestCoalescer;
+    private final ExecutorService executor;
+    private final Monitor monitor;
+
+
+    AasBatchFetcher(AasDataProcessor processor, RequestCoalescer requestCoalescer, ExecutorService executor,
+                    Monitor monitor) {
+        this.processor = processor;
+        this.requestCoalescer = requestCoalescer;
+        this.executor = executor;
+        this.monitor = monitor;
+    }
+
+
+    /**
+     * Fetch all elements referenced by a batch data address. Fails if any element could not be fetched.
+     *
+     * @param batchAddress The address containing the references.
+     * @return One part per element or, if requested, one part containing a JSON object mapping each reference to the
+     *         element.
+     */
+    StreamResult<Stream<Part>> fetch(AasDataAddress batchAddress) {
+        Map<String, AasDataAddress> elementAddresses;
+        try {
+            elementAddresses = batchAddress.getElementAddresses();
+        }
+        catch (IllegalStateException malformedReferences) {
+            return StreamResult.error(malformedReferences.getMessage());
+        }
+        if (elementAddresses.isEmpty()) {
+            return StreamResult.error("Batch data address contains no references");
+        }
+
+        List<Future<ElementResult>> futures = new ArrayList<>();
+        try {
+            elementAddresses.forEach((name, elementAddress) ->
+                    futures.add(executor.submit(() -> fetchElement(name, elementAddress))));
+
+            List<ElementResult> results = new ArrayList<>();
+            for (Future<ElementResult> future: futures) {
+                results.add(future.get());
+            }
+
+            var failures = results.stream().map(ElementResult::failure).filter(failure -> failure != null).toList();
+            if (!failures.isEmpty()) {
+                monitor.severe("Failed to fetch %s of %s batch elements".formatted(failures.size(), results.size()));
+                return StreamResult.error("Failed to fetch batch elements: %s".formatted(String.join("; ", failures)));
+            }
+
+            if (batchAddress.isAggregated()) {
+                return StreamResult.success(Stream.of(aggregate(results)));
+            }
+            return StreamResult.success(results.stream()
+                    .<Part>map(result -> new AasPart(result.name(), new ByteArrayInputStream(result.content()), result.mediaType())));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return StreamResult.error("Interrupted while fetching batch elements");
+        }
+        catch (ExecutionException | JsonProcessingException e) {
+            return StreamResult.error("Failed to fetch batch elements: %s".formatted(e.getMessage()));
+        }
+        finally {
+            // Do not keep fetching elements of a failed batch
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+
+    private ElementResult fetchElement(String name, AasDataAddress elementAddress) {
+        try (var response = processor.getFromAas(elementAddress, requestCoalescer)) {
+            var body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                return new ElementResult(name, null, null, "%s: %s - %s".formatted(name, response.code(), response.message()));
+            }
+            var mediaType = Optional.ofNullable(body.contentType()).map(MediaType::toString).orElse(APPLICATION_JSON);
+            return new ElementResult(name, body.bytes(), mediaType, null);
+        }
+        catch (IOException | IllegalStateException e) {
+            return new ElementResult(name, null, null, "%s: %s".formatted(name, e.getMessage()));
+        }
+    }
+
+
+    private Part aggregate(List<ElementResult> results) throws JsonProcessingException {
+        var aggregated = OBJECT_MAPPER.createObjectNode();
+        for (ElementResult result: results) {
+            try {
+                aggregated.set(result.name(), OBJECT_MAPPER.readTree(result.content()));
+            }
+            catch (IOException notJson) {
+                aggregated.put(result.name(), new String(result.content(), StandardCharsets.UTF_8));
+            }
+        }
+        return new AasPart("AAS Batch", new ByteArrayInputStream(OBJECT_MAPPER.writeValueAsBytes(aggregated)),
+                APPLICATION_JSON);
+    }
+
+
+    private record ElementResult(String name, byte[] content, String mediaType, String failure) {
+    }
+}
@@ -64,6 +64,13 @@ public class AasDataSinkFactory implements DataSinkFactory {
     @Override
     public @NotNull Result<Void> validateRequest(DataFlowStartMessage request) {
         try {
+            var problems = AasDataAddress.Builder.newInstance()
+                    .copyFrom(request.getDestinationDataAddress())
+                    .build()
+                    .validateDestinationModifiers();
+            if (!problems.isEmpty()) {
+                return Result.failure("Invalid AAS destination address: " + String.join(", ", problems));
+            }
             createSink(request);
         }
         catch (Exception e) {
@@ -15,9 +15,13 @@
  */
 package de.fraunhofer.iosb.dataplane.aas.pipeline;
 
+import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
 import de.fraunhofer.iosb.aas.lib.AasDataProcessorFactory;
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
+import de.fraunhofer.iosb.aas.lib.http.impl.NoOpRequestCoalescer;
 import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
 import okhttp3.MediaType;
+import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.StreamFailure;
@@ -30,6 +34,8 @@ import java.io.InputStream;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
@@ -41,21 +47,44 @@ import static java.lang.String.format;
  */
 public class AasDataSource implements DataSource {
 
+    public static final int BATCH_PARALLELISM_DEFAULT = 8;
     private static final int FORBIDDEN = 401;
     private static final int NOT_AUTHORIZED = 403;
     private static final int NOT_FOUND = 404;
+    private static final int PARTIAL_CONTENT = 206;
     private static final String APPLICATION_JSON = "application/json";
+    private static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+    private static final String CONTENT_RANGE = "Content-Range";
     private final AtomicReference<ResponseBodyStream> responseBodyStream = new AtomicReference<>();
     private String requestId;
     private Monitor monitor;
     private AasDataProcessorFactory aasDataProcessorFactory;
     private AasDataAddress aasDataAddress;
+    private RequestCoalescer requestCoalescer = new NoOpRequestCoalescer();
+    private AttachmentTransferConfig attachmentTransferConfig = AttachmentTransferConfig.DEFAULT;
+    private AttachmentTransferExecutor attachmentTransferExecutor;
+    private ExecutorService batchExecutor;
 
 
     private AasDataSource() {
     }
 
 
+    /**
+     * Create the executor fetching the elements of batch transfers. It is meant to be shared by all data sources.
+     *
+     * @param parallelism Maximum number of batch elements fetched at the same time over all batch transfers.
+     * @return The executor, to be shut down by its owner.
+     */
+    public static ExecutorService newBatchExecutor(int parallelism) {
+        return Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            var thread = new Thread(runnable, "aas-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
     @Override
     public StreamResult<Stream<Part>> openPartStream() {
         String baseUrlString = aasDataAddress.getBaseUrl();
@@ -79,7 +108,24 @@ public class AasDataSource implements DataSource {
         try {
             // NB: Do not close the response as the body input stream needs to be read after this method returns. The
             // response closes the body stream.
-            var response = aasDataProcessorResult.getContent().getFromAas(aasDataAddress);
+            var processor = aasDataProcessorResult.getContent();
+            if (aasDataAddress.isBatch()) {
+                return new AasBatchFetcher(processor, requestCoalescer, batchExecutor, monitor).fetch(aasDataAddress);
+            }
+
+            var response = aasDataAddress.isAttachment() ?
+                    requestAttachment(processor) :
+                    processor.getFromAas(aasDataAddress, requestCoalescer);
+
+            if (PARTIAL_CONTENT == response.code()) {
+                var totalLength = RangedAttachmentInputStream.totalLength(response.header(CONTENT_RANGE));
+                if (totalLength.isPresent()) {
+                    return openRangedPartStream(processor, response, totalLength.getAsLong());
+                }
+                // Cannot split the attachment without knowing its length, request it as a whole
+                response.close();
+                response = processor.getFromAas(aasDataAddress);
+            }
 
             if (response.isSuccessful()) {
                 var body = response.body();
@@ -89,8 +135,12 @@ public class AasDataSource implements DataSource {
                 }
                 var bodyStream = body.byteStream();
                 responseBodyStream.set(new ResponseBodyStream(body, bodyStream));
-                var mediaType =
-                        Optional.ofNullable(body.contentType()).map(MediaType::toString).orElse(APPLICATION_JSON);
+                if (aasDataAddress.isAttachment()) {
+                    // The AAS service does not support range requests, skip to the requested offset
+                    bodyStream.skipNBytes(aasDataAddress.getAttachmentOffset());
+                }
+                var mediaType = Optional.ofNullable(body.contentType()).map(MediaType::toString)
+                        .orElse(aasDataAddress.isAttachment() ? APPLICATION_OCTET_STREAM : APPLICATION_JSON);
                 return StreamResult.success(Stream.of(new AasPart("AAS Part", bodyStream, mediaType)));
 
             }
@@ -126,6 +176,26 @@ public class AasDataSource implements DataSource {
     }
 
 
+    private Response requestAttachment(AasDataProcessor processor) throws IOException {
+        var offset = aasDataAddress.getAttachmentOffset();
+        return processor.getFromAas(aasDataAddress, offset, offset + attachmentTransferConfig.chunkSize() - 1);
+    }
+
+
+    private StreamResult<Stream<Part>> openRangedPartStream(AasDataProcessor processor, Response firstResponse,
+                                                            long totalLength) throws IOException {
+        var body = Objects.requireNonNull(firstResponse.body());
+        var mediaType = Optional.ofNullable(body.contentType()).map(MediaType::toString).orElse(APPLICATION_OCTET_STREAM);
+
+        var rangedStream = new RangedAttachmentInputStream(processor, aasDataAddress, firstResponse,
+                aasDataAddress.getAttachmentOffset(), totalLength, attachmentTransferConfig, attachmentTransferExecutor,
+                monitor);
+        responseBodyStream.set(new ResponseBodyStream(body, rangedStream));
+
+        return StreamResult.success(Stream.of(new AasPart("AAS Part", rangedStream, mediaType)));
+    }
+
+
     @Override
     public void close() {
         var bodyStream = responseBodyStream.get();
@@ -183,11 +253,39 @@ public class AasDataSource implements DataSource {
         }
 
 
+        public Builder requestCoalescer(RequestCoalescer requestCoalescer) {
+            dataSource.requestCoalescer = requestCoalescer;
+            return this;
+        }
+
+
+        public Builder attachmentTransferConfig(AttachmentTransferConfig attachmentTransferConfig) {
+            dataSource.attachmentTransferConfig = attachmentTransferConfig;
+            return this;
+        }
+
+
+        public Builder attachmentTransferExecutor(AttachmentTransferExecutor attachmentTransferExecutor) {
+            dataSource.attachmentTransferExecutor = attachmentTransferExecutor;
+            return this;
+        }
+
+
+        public Builder batchExecutor(ExecutorService batchExecutor) {
+            dataSource.batchExecutor = batchExecutor;
+            return this;
+        }
+
+
         public AasDataSource build() {
             Objects.requireNonNull(dataSource.requestId, "requestId");
             Objects.requireNonNull(dataSource.aasDataProcessorFactory, "httpClient");
             Objects.requireNonNull(dataSource.monitor, "monitor");
             Objects.requireNonNull(dataSource.aasDataAddress, "aasDataAddress");
+            Objects.requireNonNull(dataSource.requestCoalescer, "requestCoalescer");
+            Objects.requireNonNull(dataSource.attachmentTransferConfig, "attachmentTransferConfig");
+            Objects.requireNonNull(dataSource.attachmentTransferExecutor, "attachmentTransferExecutor");
+            Objects.requireNonNull(dataSource.batchExecutor, "batchExecutor");
 
             return dataSource;
         }
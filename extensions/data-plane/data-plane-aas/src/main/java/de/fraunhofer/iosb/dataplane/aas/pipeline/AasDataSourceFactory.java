@@ -16,6 +16,7 @@
 package de.fraunhofer.iosb.dataplane.aas.pipeline;
 
 import de.fraunhofer.iosb.aas.lib.AasDataProcessorFactory;
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
 import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource;
 import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSourceFactory;
@@ -24,11 +25,21 @@ import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.types.domain.transfer.DataFlowStartMessage;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.AAS_DATA_TYPE;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.ATTACHMENT;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.ATTACHMENT_OFFSET;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.BATCH_MODE;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.CONTENT_MODIFIER;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.EXTENT;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.LEVEL;
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_BODY;
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_METHOD;
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_OPERATION;
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_PATH;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.REFERENCES;
 
 
 /**
@@ -38,11 +49,21 @@ public class AasDataSourceFactory implements DataSourceFactory {
 
     private final Monitor monitor;
     private final AasDataProcessorFactory aasDataProcessorFactory;
+    private final RequestCoalescer requestCoalescer;
+    private final AttachmentTransferConfig attachmentTransferConfig;
+    private final AttachmentTransferExecutor attachmentTransferExecutor;
+    private final ExecutorService batchExecutor;
 
 
-    public AasDataSourceFactory(Monitor monitor, AasDataProcessorFactory aasDataProcessorFactory) {
+    public AasDataSourceFactory(Monitor monitor, AasDataProcessorFactory aasDataProcessorFactory,
+                                RequestCoalescer requestCoalescer, AttachmentTransferConfig attachmentTransferConfig,
+                                AttachmentTransferExecutor attachmentTransferExecutor, ExecutorService batchExecutor) {
         this.monitor = monitor;
         this.aasDataProcessorFactory = aasDataProcessorFactory;
+        this.requestCoalescer = requestCoalescer;
+        this.attachmentTransferConfig = attachmentTransferConfig;
+        this.attachmentTransferExecutor = attachmentTransferExecutor;
+        this.batchExecutor = batchExecutor;
     }
 
 
@@ -56,6 +77,10 @@ public class AasDataSourceFactory implements DataSourceFactory {
     public DataSource createSource(DataFlowStartMessage request) {
         var dataSource = AasDataSource.Builder.newInstance()
                 .aasDataProcessorFactory(aasDataProcessorFactory)
+                .requestCoalescer(requestCoalescer)
+                .attachmentTransferConfig(attachmentTransferConfig)
+                .attachmentTransferExecutor(attachmentTransferExecutor)
+                .batchExecutor(batchExecutor)
                 .monitor(monitor)
                 .requestId(request.getId());
 
@@ -69,12 +94,55 @@ public class AasDataSourceFactory implements DataSourceFactory {
                 .proxyBody(destination.getStringProperty(PROXY_BODY))
                 .proxyPath(destination.getStringProperty(PROXY_PATH));
 
+        // Consumers can request the binary content of File/Blob elements and resume interrupted transfers
+        Optional.ofNullable(destination.getStringProperty(ATTACHMENT))
+                .ifPresent(attachment -> dataAddress.property(ATTACHMENT, attachment));
+        Optional.ofNullable(destination.getStringProperty(ATTACHMENT_OFFSET))
+                .map(AasDataSourceFactory::parseAttachmentOffset)
+                .ifPresent(dataAddress::attachmentOffset);
+
+        // Consumers can restrict the representation of the element to what they need, e.g., only its values
+        Optional.ofNullable(destination.getStringProperty(CONTENT_MODIFIER)).ifPresent(dataAddress::contentModifier);
+        Optional.ofNullable(destination.getStringProperty(LEVEL)).ifPresent(dataAddress::level);
+        Optional.ofNullable(destination.getStringProperty(EXTENT)).ifPresent(dataAddress::extent);
+
+        // Batch transfers: several elements within the transferred asset
+        Optional.ofNullable(destination.getStringProperty(REFERENCES))
+                .ifPresent(references -> dataAddress.property(REFERENCES, references));
+        Optional.ofNullable(destination.getStringProperty(BATCH_MODE)).ifPresent(dataAddress::batchMode);
+
+        var aasDataAddress = dataAddress.build();
+        var modifierProblems = aasDataAddress.validateModifiers();
+        if (!modifierProblems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid serialization modifiers: %s".formatted(String.join(", ", modifierProblems)));
+        }
+        var batchProblems = aasDataAddress.validateBatch();
+        if (!batchProblems.isEmpty()) {
+            throw new IllegalArgumentException("Invalid batch transfer: %s".formatted(String.join(", ", batchProblems)));
+        }
+
         return dataSource
-                .aasDataAddress(dataAddress.build())
+                .aasDataAddress(aasDataAddress)
                 .build();
     }
 
 
+    /* Offsets are supplied by the consumer, reject anything that would not result in a valid range request */
+    private static long parseAttachmentOffset(String offset) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(offset.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Attachment offset must be a non-negative integer but was %s".formatted(offset));
+        }
+        if (parsed < 0) {
+            throw new IllegalArgumentException("Attachment offset must be a non-negative integer but was %s".formatted(offset));
+        }
+        return parsed;
+    }
+
+
     @Override
     public @NotNull Result<Void> validateRequest(DataFlowStartMessage request) {
         try (var ignored = createSource(request)) {
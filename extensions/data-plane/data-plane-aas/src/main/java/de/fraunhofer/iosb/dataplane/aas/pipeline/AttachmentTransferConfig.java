@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+/**
+ * Configuration of ranged attachment transfers.
+ *
+ * @param chunkSize Size of one range request in bytes.
+ * @param parallelism Number of range requests fetched ahead of the reader in parallel.
+ * @param retries Number of times a failed range request is resumed before the transfer fails.
+ */
+public record AttachmentTransferConfig(int chunkSize, int parallelism, int retries) {
+
+    public static final AttachmentTransferConfig DEFAULT = new AttachmentTransferConfig(8 * 1024 * 1024, 4, 3);
+
+    public AttachmentTransferConfig {
+        if (chunkSize < 1 || parallelism < 1 || retries < 0) {
+            throw new IllegalArgumentException("Invalid attachment transfer configuration: chunkSize=%s, parallelism=%s, retries=%s"
+                    .formatted(chunkSize, parallelism, retries));
+        }
+    }
+}
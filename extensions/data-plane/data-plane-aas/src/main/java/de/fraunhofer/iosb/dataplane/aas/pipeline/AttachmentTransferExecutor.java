@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+
+/**
+ * Fetches chunks of ranged attachment transfers. All transfers share a bounded number of threads and a memory budget
+ * limiting the bytes of chunks held in memory at the same time.
+ */
+public class AttachmentTransferExecutor implements AutoCloseable {
+
+    public static final int THREADS_DEFAULT = 16;
+    public static final int MEMORY_BUDGET_DEFAULT = 64 * 1024 * 1024;
+
+    private final ExecutorService executor;
+    private final Semaphore budget;
+    private final int memoryBudget;
+
+
+    /**
+     * Class constructor
+     *
+     * @param threads Maximum number of chunks fetched at the same time over all transfers.
+     * @param memoryBudget Maximum number of bytes of fetched or prefetched chunks over all transfers.
+     */
+    public AttachmentTransferExecutor(int threads, int memoryBudget) {
+        if (threads < 1 || memoryBudget < 1) {
+            throw new IllegalArgumentException("Invalid attachment transfer executor configuration: threads=%s, memoryBudget=%s"
+                    .formatted(threads, memoryBudget));
+        }
+        this.memoryBudget = memoryBudget;
+        this.budget = new Semaphore(memoryBudget, true);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            var thread = new Thread(runnable, "aas-attachment");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Reserve memory for a chunk, waiting until it is available. Only call this while holding no other reservation,
+     * else transfers can wait for each other forever.
+     *
+     * @param bytes Size of the chunk.
+     * @return The reserved number of bytes to release later, capped at the memory budget.
+     * @throws InterruptedException Interrupted while waiting.
+     */
+    int reserve(int bytes) throws InterruptedException {
+        var permits = Math.min(bytes, memoryBudget);
+        budget.acquire(permits);
+        return permits;
+    }
+
+
+    /**
+     * Reserve memory for a chunk if it is available right now.
+     *
+     * @param bytes Size of the chunk.
+     * @return The reserved number of bytes to release later or 0 if the budget is exhausted.
+     */
+    int tryReserve(int bytes) {
+        var permits = Math.min(bytes, memoryBudget);
+        return budget.tryAcquire(permits) ? permits : 0;
+    }
+
+
+    void release(int reserved) {
+        if (reserved > 0) {
+            budget.release(reserved);
+        }
+    }
+
+
+    Future<byte[]> submit(Callable<byte[]> fetch) {
+        return executor.submit(fetch);
+    }
+
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
+import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
+import okhttp3.Response;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+
+/**
+ * Reads an attachment of an AAS element using HTTP range requests. Up to {@link AttachmentTransferConfig#parallelism()}
+ * chunks are fetched ahead of the reader in parallel, as far as the memory budget of the shared
+ * {@link AttachmentTransferExecutor} allows. If a range request fails or ends early, it is resumed from the last
+ * received byte instead of starting over. Each range response must start at or before the requested byte, otherwise the
+ * transfer fails instead of silently delivering other bytes.
+ * <p>
+ * The reader owns the stream, but {@link #close()} may be called from another thread (e.g., when the data source is
+ * closed). The window of prefetched chunks and the reserved memory are therefore guarded by the window's lock.
+ */
+class RangedAttachmentInputStream extends InputStream {
+
+    private static final int PARTIAL_CONTENT = 206;
+    private static final String CONTENT_RANGE_HEADER = "Content-Range";
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
+
+    private final AasDataProcessor processor;
+    private final AasDataAddress address;
+    private final AttachmentTransferConfig config;
+    private final Monitor monitor;
+    private final long totalLength;
+    private final AttachmentTransferExecutor executor;
+    private final Deque<Chunk> window = new ArrayDeque<>();
+
+    private long nextChunkStart;
+    private byte[] current = new byte[0];
+    // Memory reserved for the current chunk, guarded by the window's lock
+    private int currentReserved;
+    private int position;
+    private volatile boolean closed;
+
+
+    /**
+     * Class constructor
+     *
+     * @param processor Sends the range requests.
+     * @param address Address of the attachment.
+     * @param firstResponse A 206 response to the first range request starting at offset.
+     * @param offset Offset of the first byte of firstResponse.
+     * @param totalLength Total length of the attachment as stated by the Content-Range header.
+     * @param config Chunk size, parallelism and retries.
+     * @param executor Fetches the chunks, shared by all transfers.
+     * @param monitor Logging.
+     * @throws IOException Interrupted while waiting for memory for the first chunk.
+     */
+    RangedAttachmentInputStream(AasDataProcessor processor, AasDataAddress address, Response firstResponse, long offset,
+                                long totalLength, AttachmentTransferConfig config, AttachmentTransferExecutor executor,
+                                Monitor monitor) throws IOException {
+        this.processor = processor;
+        this.address = address;
+        this.config = config;
+        this.monitor = monitor;
+        this.totalLength = totalLength;
+        this.executor = executor;
+
+        var firstChunkEnd = chunkEnd(offset);
+        int reserved;
+        try {
+            reserved = executor.reserve(chunkLength(offset, firstChunkEnd));
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            firstResponse.close();
+            throw new IOException("Interrupted while waiting for memory to transfer attachment", e);
+        }
+        window.add(new Chunk(executor.submit(() -> fetch(offset, firstChunkEnd, firstResponse)), reserved));
+        nextChunkStart = firstChunkEnd + 1;
+        fillWindow();
+    }
+
+
+    /**
+     * Read the total length of a resource from a Content-Range header value like "bytes 0-1023/4096".
+     *
+     * @param contentRange The header value, can be null.
+     * @return The total length if the header is present and states it.
+     */
+    static OptionalLong totalLength(@Nullable String contentRange) {
+        return contentRangeGroup(contentRange, 2);
+    }
+
+
+    /**
+     * Read the first byte position from a Content-Range header value like "bytes 1024-2047/4096".
+     *
+     * @param contentRange The header value, can be null.
+     * @return The first byte position if the header is present and states it.
+     */
+    static OptionalLong rangeStart(@Nullable String contentRange) {
+        return contentRangeGroup(contentRange, 1);
+    }
+
+
+    private static OptionalLong contentRangeGroup(@Nullable String contentRange, int group) {
+        if (contentRange == null) {
+            return OptionalLong.empty();
+        }
+        var matcher = CONTENT_RANGE.matcher(contentRange.trim());
+        if (!matcher.matches() || "*".equals(matcher.group(group))) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Long.parseLong(matcher.group(group)));
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        if (closed || position == current.length && !advance()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+
+    @Override
+    public int read(byte[] buffer, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (closed || position == current.length && !advance()) {
+            return -1;
+        }
+        var count = Math.min(len, current.length - position);
+        System.arraycopy(current, position, buffer, off, count);
+        position += count;
+        return count;
+    }
+
+
+    @Override
+    public int available() {
+        return closed ? 0 : current.length - position;
+    }
+
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (window) {
+            window.forEach(chunk -> {
+                chunk.data().cancel(true);
+                executor.release(chunk.reserved());
+            });
+            window.clear();
+            // The buffer itself belongs to the reader and is dropped by it, only the memory is given back here
+            executor.release(currentReserved);
+            currentReserved = 0;
+        }
+    }
+
+
+    private boolean advance() throws IOException {
+        while (!closed) {
+            // The current chunk has been read completely
+            releaseCurrent();
+
+            var chunk = pollWindow();
+            if (chunk == null) {
+                if (closed || nextChunkStart >= totalLength) {
+                    return false;
+                }
+                // Prefetching ran out of memory, wait for memory for the next chunk while holding none
+                submitNext(true);
+                continue;
+            }
+
+            byte[] data;
+            try {
+                data = chunk.data().get();
+            }
+            catch (CancellationException closedConcurrently) {
+                return false;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IOException("Interrupted while reading attachment", e);
+            }
+            catch (ExecutionException e) {
+                close();
+                throw e.getCause() instanceof IOException ioException ? ioException : new IOException(e.getCause());
+            }
+            if (closed) {
+                return false;
+            }
+            current = data;
+            position = 0;
+            fillWindow();
+            if (current.length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /* Take the next chunk out of the window, its memory now belongs to the current chunk */
+    @Nullable
+    private Chunk pollWindow() {
+        synchronized (window) {
+            var chunk = window.poll();
+            if (chunk != null) {
+                currentReserved = chunk.reserved();
+            }
+            return chunk;
+        }
+    }
+
+
+    private void fillWindow() throws IOException {
+        while (window.size() < config.parallelism() && nextChunkStart < totalLength) {
+            if (!submitNext(false)) {
+                return;
+            }
+        }
+    }
+
+
+    /* Submit the next chunk if memory can be reserved for it. If wait is true, waits for the memory outside the lock. */
+    private boolean submitNext(boolean wait) throws IOException {
+        var from = nextChunkStart;
+        var to = chunkEnd(from);
+        int reserved;
+        if (wait) {
+            try {
+                reserved = executor.reserve(chunkLength(from, to));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IOException("Interrupted while waiting for memory to transfer attachment", e);
+            }
+        }
+        else {
+            reserved = executor.tryReserve(chunkLength(from, to));
+            if (reserved == 0) {
+                return false;
+            }
+        }
+        synchronized (window) {
+            if (closed) {
+                executor.release(reserved);
+                return false;
+            }
+            window.add(new Chunk(executor.submit(() -> fetch(from, to, null)), reserved));
+        }
+        nextChunkStart = to + 1;
+        return true;
+    }
+
+
+    private void releaseCurrent() {
+        synchronized (window) {
+            executor.release(currentReserved);
+            currentReserved = 0;
+        }
+        current = new byte[0];
+        position = 0;
+    }
+
+
+    private static int chunkLength(long from, long to) {
+        return (int) (to - from + 1);
+    }
+
+
+    private long chunkEnd(long from) {
+        return Math.min(from + config.chunkSize(), totalLength) - 1;
+    }
+
+
+    private byte[] fetch(long from, long to, @Nullable Response firstResponse) throws IOException {
+        var chunk = new byte[(int) (to - from + 1)];
+        var filled = 0;
+        var failures = 0;
+        var response = firstResponse;
+
+        while (filled < chunk.length) {
+            try (var rangeResponse = response != null ? response : processor.getFromAas(address, from + filled, to)) {
+                response = null;
+                var body = rangeResponse.body();
+                if (rangeResponse.code() != PARTIAL_CONTENT || body == null) {
+                    throw new IOException("Unexpected response to range request: %s - %s"
+                            .formatted(rangeResponse.code(), rangeResponse.message()));
+                }
+                var expectedStart = from + filled;
+                var start = rangeStart(rangeResponse.header(CONTENT_RANGE_HEADER));
+                if (start.isEmpty() || start.getAsLong() > expectedStart) {
+                    throw new RangeMismatchException("Range response starts at %s instead of %s: %s".formatted(
+                            start.isPresent() ? start.getAsLong() : "unknown", expectedStart,
+                            rangeResponse.header(CONTENT_RANGE_HEADER)));
+                }
+                try (var in = body.byteStream()) {
+                    // The server may return more than requested, skip what comes before the requested byte
+                    in.skipNBytes(expectedStart - start.getAsLong());
+                    int read;
+                    while (filled < chunk.length && (read = in.read(chunk, filled, chunk.length - filled)) != -1) {
+                        filled += read;
+                    }
+                }
+                if (filled < chunk.length) {
+                    throw new EOFException("Range response ended early");
+                }
+            }
+            catch (IOException e) {
+                // Retrying does not help if the server does not serve the requested range
+                if (e instanceof RangeMismatchException || ++failures > config.retries()) {
+                    throw e;
+                }
+                monitor.warning("Resuming attachment transfer at offset %s: %s".formatted(from + filled, e.getMessage()));
+            }
+        }
+
+        return chunk;
+    }
+
+
+    private record Chunk(Future<byte[]> data, int reserved) {
+    }
+
+
+    private static class RangeMismatchException extends IOException {
+
+        RangeMismatchException(String message) {
+            super(message);
+        }
+    }
+}
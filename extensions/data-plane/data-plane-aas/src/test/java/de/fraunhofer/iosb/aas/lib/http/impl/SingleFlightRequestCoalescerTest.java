@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.aas.lib.http.impl;
+
+import de.fraunhofer.iosb.aas.lib.http.RequestCoalescer;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class SingleFlightRequestCoalescerTest {
+
+    private static final String BODY = "{\"idShort\":\"coalesced\"}";
+    private static final MediaType JSON = MediaType.get("application/json");
+
+
+    @Test
+    void testConcurrentIdenticalRequestsShareResponse() throws Exception {
+        testConcurrentIdenticalRequests(Long.MAX_VALUE);
+    }
+
+
+    @Test
+    void testConcurrentIdenticalRequestsShareSpooledResponse() throws Exception {
+        testConcurrentIdenticalRequests(0);
+    }
+
+
+    @Test
+    void testPostNotCoalesced() throws IOException {
+        var testSubject = new SingleFlightRequestCoalescer(Long.MAX_VALUE);
+        var calls = new AtomicInteger();
+        var request = new Request.Builder()
+                .url("http://localhost/api/v3.0/submodels")
+                .post(RequestBody.create(BODY, JSON))
+                .build();
+
+        testSubject.execute(request, r -> respond(r, calls)).close();
+        testSubject.execute(request, r -> respond(r, calls)).close();
+
+        assertEquals(2, calls.get());
+    }
+
+
+    @Test
+    void testDifferentHeadersNotCoalesced() throws IOException {
+        var testSubject = new SingleFlightRequestCoalescer(Long.MAX_VALUE);
+        var calls = new AtomicInteger();
+
+        testSubject.execute(get("x-api-key", "a"), r -> respond(r, calls)).close();
+        testSubject.execute(get("x-api-key", "b"), r -> respond(r, calls)).close();
+
+        assertEquals(2, calls.get());
+    }
+
+
+    private void testConcurrentIdenticalRequests(long spoolThreshold) throws Exception {
+        var followerAttached = new CountDownLatch(1);
+        var testSubject = new SingleFlightRequestCoalescer(spoolThreshold, followerAttached::countDown);
+        var calls = new AtomicInteger();
+        var leaderStarted = new CountDownLatch(1);
+
+        // The upstream only responds once the follower joined the in-flight request
+        var leader = CompletableFuture.supplyAsync(() -> readBody(testSubject, r -> {
+            leaderStarted.countDown();
+            await(followerAttached);
+            return respond(r, calls);
+        }));
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        var follower = CompletableFuture.supplyAsync(() -> readBody(testSubject, r -> respond(r, calls)));
+        assertTrue(followerAttached.await(5, TimeUnit.SECONDS));
+
+        assertEquals(BODY, leader.get(5, TimeUnit.SECONDS));
+        assertEquals(BODY, follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+
+    private String readBody(SingleFlightRequestCoalescer testSubject,
+                            RequestCoalescer.RequestExecutor executor) {
+        try (var response = testSubject.execute(get("x-api-key", "a"), executor)) {
+            assertEquals(200, response.code());
+            return response.body().string();
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    private Request get(String headerName, String headerValue) {
+        return new Request.Builder()
+                .url("http://localhost/api/v3.0/submodels")
+                .header(headerName, headerValue)
+                .get()
+                .build();
+    }
+
+
+    private Response respond(Request request, AtomicInteger calls) {
+        calls.incrementAndGet();
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(BODY, JSON))
+                .build();
+    }
+
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
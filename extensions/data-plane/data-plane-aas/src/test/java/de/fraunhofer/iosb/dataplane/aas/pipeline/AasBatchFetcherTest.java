@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
+import de.fraunhofer.iosb.aas.lib.http.impl.NoOpRequestCoalescer;
+import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.edc.connector.dataplane.spi.pipeline.DataSource.Part;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.BATCH_MODE_AGGREGATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+
+class AasBatchFetcherTest {
+
+    private static final String BASE_URL = "http://localhost:8080";
+    private final AasDataProcessor processor = mock(AasDataProcessor.class);
+    private final ExecutorService executor = AasDataSource.newBatchExecutor(4);
+    private final AasBatchFetcher testSubject = new AasBatchFetcher(processor, new NoOpRequestCoalescer(), executor,
+            new ConsoleMonitor());
+
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+
+    @Test
+    void testFetchParts() throws IOException {
+        when(processor.getFromAas(any(AasDataAddress.class), any())).thenAnswer(invocation ->
+                respond(200, invocation.<AasDataAddress>getArgument(0).getReference().getKeys().get(1).getValue()));
+
+        var result = testSubject.fetch(batchAddress(null, "a", "b", "c"));
+
+        assertTrue(result.succeeded());
+        var contents = result.getContent().map(this::read).toList();
+        assertEquals(List.of("\"a\"", "\"b\"", "\"c\""), contents);
+        // The shared executor outlives a single batch
+        assertFalse(executor.isShutdown());
+    }
+
+
+    @Test
+    void testFetchAggregated() throws IOException {
+        when(processor.getFromAas(any(AasDataAddress.class), any())).thenAnswer(invocation ->
+                respond(200, invocation.<AasDataAddress>getArgument(0).getReference().getKeys().get(1).getValue()));
+
+        var result = testSubject.fetch(batchAddress(BATCH_MODE_AGGREGATED, "a", "b"));
+
+        assertTrue(result.succeeded());
+        var parts = result.getContent().toList();
+        assertEquals(1, parts.size());
+        var aggregated = new ObjectMapper().readTree(read(parts.get(0)));
+        assertEquals(2, aggregated.size());
+    }
+
+
+    @Test
+    void testFetchFailsIfElementFails() throws IOException {
+        when(processor.getFromAas(any(AasDataAddress.class), any())).thenReturn(respond(404, "missing"));
+
+        var result = testSubject.fetch(batchAddress(null, "a", "b"));
+
+        assertTrue(result.failed());
+    }
+
+
+    private AasDataAddress batchAddress(String batchMode, String... idShorts) {
+        var builder = AasDataAddress.Builder.newInstance()
+                .baseUrl(BASE_URL)
+                .reference(reference())
+                .references(Arrays.stream(idShorts).map(this::reference).toList());
+        if (batchMode != null) {
+            builder.batchMode(batchMode);
+        }
+        return builder.build();
+    }
+
+
+    private Reference reference(String... idShorts) {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value("submodel").build())
+                .build();
+        for (String idShort: idShorts) {
+            reference.getKeys().add(new DefaultKey.Builder().type(KeyTypes.PROPERTY).value(idShort).build());
+        }
+        return reference;
+    }
+
+
+    private Response respond(int code, String value) {
+        return new Response.Builder()
+                .request(new Request.Builder().url(BASE_URL).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create("\"%s\"".formatted(value), MediaType.get("application/json")))
+                .build();
+    }
+
+
+    private String read(Part part) {
+        try {
+            return new String(part.openStream().readAllBytes());
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package de.fraunhofer.iosb.dataplane.aas.pipeline;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
 import de.fraunhofer.iosb.aas.lib.AasDataProcessorFactory;
+import de.fraunhofer.iosb.aas.lib.http.impl.NoOpRequestCoalescer;
 import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
 import okhttp3.Protocol;
 import okhttp3.Request;
@@ -29,14 +30,21 @@ import org.eclipse.edc.spi.monitor.ConsoleMonitor;
 import org.eclipse.edc.spi.result.Result;
 import org.eclipse.edc.spi.types.domain.DataAddress;
 import org.eclipse.edc.spi.types.domain.transfer.DataFlowStartMessage;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
 
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.ATTACHMENT;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.ATTACHMENT_OFFSET;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.CONTENT_MODIFIER;
 import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_OPERATION;
+import static de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress.PROXY_PATH;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.mock;
@@ -48,13 +56,77 @@ import static org.mockito.Mockito.when;
 class AasDataSourceFactoryTest {
 
     private final AasDataProcessorFactory mockedDataProcessorFactory = mock(AasDataProcessorFactory.class);
+    private AttachmentTransferExecutor attachmentTransferExecutor;
+    private ExecutorService batchExecutor;
     private AasDataSourceFactory testSubject;
 
 
     @BeforeEach
     void setUp() {
+        attachmentTransferExecutor = new AttachmentTransferExecutor(1, AttachmentTransferExecutor.MEMORY_BUDGET_DEFAULT);
+        batchExecutor = AasDataSource.newBatchExecutor(1);
         testSubject = new AasDataSourceFactory(new ConsoleMonitor().withPrefix(this.getClass().getSimpleName()),
-                mockedDataProcessorFactory);
+                mockedDataProcessorFactory, new NoOpRequestCoalescer(), AttachmentTransferConfig.DEFAULT,
+                attachmentTransferExecutor, batchExecutor);
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        attachmentTransferExecutor.close();
+        batchExecutor.shutdownNow();
+    }
+
+
+    @Test
+    void test_validateRequest_invalidAttachmentOffset() {
+        assertTrue(testSubject.validateRequest(attachmentRequest("abc")).failed());
+        assertTrue(testSubject.validateRequest(attachmentRequest("-1")).failed());
+    }
+
+
+    @Test
+    void test_validateRequest_validAttachmentOffset() {
+        assertTrue(testSubject.validateRequest(attachmentRequest("1024")).succeeded());
+    }
+
+
+    @Test
+    void test_validateRequest_modifierWithProxy() {
+        assertTrue(testSubject.validateRequest(request(DataAddress.Builder.newInstance()
+                .type("HttpData")
+                .property(PROXY_OPERATION, "{}")
+                .property(CONTENT_MODIFIER, "value")
+                .build())).failed());
+        assertTrue(testSubject.validateRequest(request(DataAddress.Builder.newInstance()
+                .type("HttpData")
+                .property(PROXY_PATH, "submodel-elements/temperature")
+                .property(ATTACHMENT, "true")
+                .build())).failed());
+        assertTrue(testSubject.validateRequest(request(DataAddress.Builder.newInstance()
+                .type("HttpData")
+                .property(CONTENT_MODIFIER, "value")
+                .build())).succeeded());
+    }
+
+
+    private DataFlowStartMessage attachmentRequest(String attachmentOffset) {
+        return request(DataAddress.Builder.newInstance()
+                .type("HttpData")
+                .property(ATTACHMENT, "true")
+                .property(ATTACHMENT_OFFSET, attachmentOffset)
+                .build());
+    }
+
+
+    private DataFlowStartMessage request(DataAddress destination) {
+        var request = mock(DataFlowStartMessage.class);
+        when(request.getId()).thenReturn("testId");
+        when(request.getSourceDataAddress()).thenReturn(AasDataAddress.Builder.newInstance()
+                .baseUrl("https://localhost:1234")
+                .build());
+        when(request.getDestinationDataAddress()).thenReturn(destination);
+        return request;
     }
 
 
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.dataplane.aas.pipeline;
+
+import de.fraunhofer.iosb.aas.lib.AasDataProcessor;
+import de.fraunhofer.iosb.dataplane.aas.spi.AasDataAddress;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+
+class RangedAttachmentInputStreamTest {
+
+    private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+    private final AasDataAddress address = AasDataAddress.Builder.newInstance().baseUrl("http://localhost:8080").build();
+    private final byte[] attachment = randomBytes(10_000);
+    private final AttachmentTransferExecutor executor = new AttachmentTransferExecutor(4, 1_000_000);
+
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+
+    @Test
+    void testTotalLength() {
+        assertEquals(4096, RangedAttachmentInputStream.totalLength("bytes 0-1023/4096").orElseThrow());
+        assertTrue(RangedAttachmentInputStream.totalLength("bytes 0-1023/*").isEmpty());
+        assertTrue(RangedAttachmentInputStream.totalLength(null).isEmpty());
+    }
+
+
+    @Test
+    void testRangeStart() {
+        assertEquals(1024, RangedAttachmentInputStream.rangeStart("bytes 1024-2047/4096").orElseThrow());
+        assertEquals(1024, RangedAttachmentInputStream.rangeStart("bytes 1024-2047/*").orElseThrow());
+        assertTrue(RangedAttachmentInputStream.rangeStart("bytes */4096").isEmpty());
+        assertTrue(RangedAttachmentInputStream.rangeStart(null).isEmpty());
+    }
+
+
+    @Test
+    void testReadsAllChunks() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range(invocation.getArgument(1), invocation.getArgument(2), Integer.MAX_VALUE));
+
+        var config = new AttachmentTransferConfig(1000, 3, 0);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            assertArrayEquals(attachment, testSubject.readAllBytes());
+        }
+    }
+
+
+    @Test
+    void testReadsAllChunksWithinMemoryBudget() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range(invocation.getArgument(1), invocation.getArgument(2), Integer.MAX_VALUE));
+
+        // The budget only allows one chunk in memory at a time, no chunks are fetched ahead of the reader
+        var config = new AttachmentTransferConfig(1000, 3, 0);
+        try (var smallBudget = new AttachmentTransferExecutor(4, 1000);
+             var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                     attachment.length, config, smallBudget, new ConsoleMonitor())) {
+            assertArrayEquals(attachment, testSubject.readAllBytes());
+        }
+    }
+
+
+    @Test
+    void testReleasesMemoryOnClose() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range(invocation.getArgument(1), invocation.getArgument(2), Integer.MAX_VALUE));
+
+        var config = new AttachmentTransferConfig(1000, 3, 0);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            testSubject.read();
+        }
+
+        // All reserved memory is available again
+        assertEquals(1_000_000, executor.tryReserve(1_000_000));
+    }
+
+
+    @Test
+    void testResumesFromOffset() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        var failedOnce = new AtomicBoolean(false);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    long from = invocation.getArgument(1);
+                    long to = invocation.getArgument(2);
+                    // First response of the chunk starting at 3000 breaks off after 100 bytes
+                    return range(from, to, from == 3000 && !failedOnce.getAndSet(true) ? 100 : Integer.MAX_VALUE);
+                });
+
+        var config = new AttachmentTransferConfig(1000, 2, 1);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            assertArrayEquals(attachment, testSubject.readAllBytes());
+        }
+        assertTrue(failedOnce.get());
+    }
+
+
+    @Test
+    void testFailsAfterRetries() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong())).thenThrow(new IOException("connection reset"));
+
+        var config = new AttachmentTransferConfig(1000, 1, 2);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            assertThrows(IOException.class, testSubject::readAllBytes);
+        }
+    }
+
+
+    @Test
+    void testFailsOnRangeStartingAfterRequestedOffset() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range(invocation.getArgument(1), invocation.getArgument(2), Integer.MAX_VALUE));
+
+        // The server answers the first request with other bytes than requested
+        var config = new AttachmentTransferConfig(1000, 1, 2);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(500, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            assertThrows(IOException.class, testSubject::readAllBytes);
+        }
+        // Not retried, the server would answer the same way again
+        verify(processor, never()).getFromAas(any(), eq(0L), anyLong());
+    }
+
+
+    @Test
+    void testSkipsBytesBeforeRequestedOffset() throws IOException {
+        var processor = mock(AasDataProcessor.class);
+        // The server starts every range 100 bytes before the requested offset
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range((long) invocation.getArgument(1) - 100, invocation.getArgument(2), Integer.MAX_VALUE));
+
+        var config = new AttachmentTransferConfig(1000, 3, 0);
+        try (var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor())) {
+            assertArrayEquals(attachment, testSubject.readAllBytes());
+        }
+    }
+
+
+    @Test
+    void testCloseFromOtherThread() throws Exception {
+        var processor = mock(AasDataProcessor.class);
+        when(processor.getFromAas(any(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> range(invocation.getArgument(1), invocation.getArgument(2), Integer.MAX_VALUE));
+
+        var config = new AttachmentTransferConfig(1000, 3, 0);
+        var testSubject = new RangedAttachmentInputStream(processor, address, range(0, 999, Integer.MAX_VALUE), 0,
+                attachment.length, config, executor, new ConsoleMonitor());
+        assertEquals(attachment[0] & 0xff, testSubject.read());
+
+        var closer = new Thread(testSubject::close);
+        closer.start();
+        closer.join();
+
+        assertEquals(-1, testSubject.read());
+        assertEquals(1_000_000, executor.tryReserve(1_000_000));
+    }
+
+
+    private Response range(long from, long to, int maxBytes) {
+        var bytes = Arrays.copyOfRange(attachment, (int) from, (int) Math.min(to + 1, from + maxBytes));
+        return new Response.Builder()
+                .request(new Request.Builder().url(address.getBaseUrl()).build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(206)
+                .message("Partial Content")
+                .header("Content-Range", "bytes %d-%d/%d".formatted(from, to, attachment.length))
+                .body(ResponseBody.create(bytes, OCTET_STREAM))
+                .build();
+    }
+
+
+    private static byte[] randomBytes(int length) {
+        var bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -16,6 +16,7 @@
 package de.fraunhofer.iosb.client.repository;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.client.AasServerClient;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
@@ -46,4 +47,15 @@ public interface AasRepositoryClient extends AasServerClient {
      * @return The policy binding.
      */
     PolicyBinding getPolicyBinding(Reference reference);
+
+
+    /**
+     * Returns a policy binding stored with the context pertaining to the AAS repository behind this client.
+     *
+     * @param referenceKey Key of the reference of the policy binding to return
+     * @return The policy binding.
+     */
+    default PolicyBinding getPolicyBinding(ReferenceKey referenceKey) {
+        return getPolicyBinding(referenceKey.reference());
+    }
 }
@@ -16,10 +16,14 @@
 package de.fraunhofer.iosb.client.repository.local;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.client.repository.AasRepositoryClient;
 import de.fraunhofer.iosb.model.context.repository.AasRepositoryContext;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
 
@@ -62,10 +66,28 @@ public abstract class LocalAasRepositoryClient<CTX extends AasRepositoryContext>
     }
 
 
+    @Override
+    public PolicyBinding getPolicyBinding(ReferenceKey referenceKey) {
+        return context.getPolicyBinding(referenceKey);
+    }
+
+
     /**
      * Intentionally added this abstract function to signal no unauthorized/connect exceptions are thrown when using a subclass of LocalAasRepositoryClient.
      *
      * @return Environment.
      */
     public abstract Environment getEnvironment();
+
+
+    /**
+     * Returns a single AAS element of the repository. By default, the element is resolved within the whole environment, implementations with direct access to the
+     * repository's storage should override this.
+     *
+     * @param reference Reference to the AAS element.
+     * @return The AAS element or null if it does not exist.
+     */
+    public @Nullable Referable resolve(Reference reference) {
+        return AasUtils.resolve(reference, getEnvironment());
+    }
 }
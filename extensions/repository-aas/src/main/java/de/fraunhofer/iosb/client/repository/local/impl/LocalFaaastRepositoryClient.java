@@ -26,11 +26,11 @@ import de.fraunhofer.iosb.ilt.faaast.service.model.messagebus.event.change.Eleme
 import de.fraunhofer.iosb.ilt.faaast.service.model.messagebus.event.change.ElementUpdateEventMessage;
 import de.fraunhofer.iosb.model.context.repository.local.impl.LocalFaaastRepositoryContext;
 import org.eclipse.digitaltwin.aas4j.v3.model.Environment;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultEnvironment;
 import org.eclipse.edc.spi.EdcException;
 
-import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -72,6 +72,18 @@ public class LocalFaaastRepositoryClient extends LocalAasRepositoryClient<LocalF
     }
 
 
+    /**
+     * Returns a single AAS element directly from the FA³ST persistence without loading the whole environment.
+     *
+     * @param reference Reference to the AAS element.
+     * @return The AAS element or null if it does not exist.
+     */
+    @Override
+    public Referable resolve(Reference reference) {
+        return context.getReferable(reference);
+    }
+
+
     /**
      * Attach a consumer to an event emitted by the FA³ST service.
      *
@@ -82,15 +94,15 @@ public class LocalFaaastRepositoryClient extends LocalAasRepositoryClient<LocalF
     public UUID subscribeTo(EventTypes eventType, BiConsumer<Reference, Class<?>> consumer) {
         SubscriptionId subscriptionId;
         try {
-            List<Reference> references = context.getReferences();
-            if (references.isEmpty()) {
+            if (context.getReferences().isEmpty()) {
                 subscriptionId = context.subscribe(SubscriptionInfo.create(eventTypeMapping.get(eventType),
                         message -> doHandle(message, consumer)));
             }
             else {
                 subscriptionId = context.subscribe(SubscriptionInfo.create(eventTypeMapping.get(eventType),
                         message -> doHandle(message, consumer),
-                        references::contains));
+                        // Also accepts descendants of bindings including descendants
+                        element -> element != null && context.eligibleForRegistration(element)));
             }
 
             subscriptions.put(subscriptionId.getValue(), subscriptionId);
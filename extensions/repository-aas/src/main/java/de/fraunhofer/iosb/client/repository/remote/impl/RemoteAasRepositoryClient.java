@@ -19,6 +19,7 @@ import de.fraunhofer.iosb.aas.lib.auth.AuthenticationMethod;
 import de.fraunhofer.iosb.aas.lib.auth.impl.BasicAuth;
 import de.fraunhofer.iosb.aas.lib.auth.impl.BearerAuth;
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.aas.lib.util.InetTools;
 import de.fraunhofer.iosb.client.exception.UnauthorizedException;
 import de.fraunhofer.iosb.client.repository.AasRepositoryClient;
@@ -150,6 +151,12 @@ public class RemoteAasRepositoryClient implements AasRepositoryClient {
     }
 
 
+    @Override
+    public PolicyBinding getPolicyBinding(ReferenceKey referenceKey) {
+        return context.getPolicyBinding(referenceKey);
+    }
+
+
     @Override
     public boolean requiresAuthentication() {
         return context.getAuthenticationMethod().getHeader(vault) != null;
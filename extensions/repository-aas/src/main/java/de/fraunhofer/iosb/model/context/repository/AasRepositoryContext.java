@@ -16,8 +16,8 @@
 package de.fraunhofer.iosb.model.context.repository;
 
 import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import de.fraunhofer.iosb.aas.lib.model.ReferenceKey;
 import de.fraunhofer.iosb.aas.lib.util.InetTools;
-import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
 import de.fraunhofer.iosb.model.context.AasServerContext;
 import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 
@@ -25,7 +25,6 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 
 
 /**
@@ -34,6 +33,7 @@ import java.util.Optional;
 public abstract class AasRepositoryContext extends AasServerContext {
 
     private final List<PolicyBinding> policyBindings;
+    private final PolicyBindingIndex policyBindingIndex;
     private final boolean onlySubmodels;
 
 
@@ -42,6 +42,7 @@ public abstract class AasRepositoryContext extends AasServerContext {
         super(uri, defaultAccessPolicyDefinitionId, defaultContractPolicyDefinitionId);
         this.policyBindings = policyBindings;
         this.onlySubmodels = onlySubmodels;
+        this.policyBindingIndex = new PolicyBindingIndex(policyBindings);
     }
 
 
@@ -56,25 +57,38 @@ public abstract class AasRepositoryContext extends AasServerContext {
 
 
     /**
-     * Returns a policy binding for a given reference. Warning: this function returns a policy binding regardless of whether an element should be registered or not. Use
+     * Returns a policy binding for a given reference. If the referred element is not bound itself, the binding of its closest ancestor including descendants is applied to it.
+     * Warning: this function returns a policy binding regardless of whether an element should be registered or not. Use
      * {@link #eligibleForRegistration(Reference reference)} for that.
      *
      * @param reference Reference for which a policy binding is to be returned.
      * @return The policy binding.
      */
     public PolicyBinding getPolicyBinding(Reference reference) {
-        return policyBindingIfPresent(reference)
-                .orElse(new PolicyBinding.Builder()
-                        .withReferredElement(ReferenceHelper.asString(reference))
-                        .withAccessPolicyDefinitionId(defaultAccessPolicyDefinitionId)
-                        .withContractPolicyDefinitionId(defaultContractPolicyDefinitionId)
-                        .build());
+        return getPolicyBinding(ReferenceKey.of(reference));
+    }
+
+
+    /**
+     * Returns a policy binding for a given reference key, see {@link #getPolicyBinding(Reference)}.
+     *
+     * @param referenceKey Key of the reference for which a policy binding is to be returned.
+     * @return The policy binding.
+     */
+    public PolicyBinding getPolicyBinding(ReferenceKey referenceKey) {
+        return policyBindingIndex.find(referenceKey.reference())
+                .map(policyBinding -> policyBinding.referredElementKey().equals(referenceKey) ? policyBinding :
+                        // Inherited from an ancestor
+                        new PolicyBinding(referenceKey.reference(), policyBinding.accessPolicyDefinitionId(), policyBinding.contractPolicyDefinitionId(), false,
+                                referenceKey))
+                .orElseGet(() -> new PolicyBinding(referenceKey.reference(), defaultAccessPolicyDefinitionId, defaultContractPolicyDefinitionId, false,
+                        referenceKey));
     }
 
 
     @Override
     public boolean eligibleForRegistration(Reference reference) {
-        return policyBindings.isEmpty() || policyBindingIfPresent(reference).isPresent();
+        return policyBindingIndex.isEmpty() || policyBindingIndex.find(reference).isPresent();
     }
 
 
@@ -99,13 +113,6 @@ public abstract class AasRepositoryContext extends AasServerContext {
     }
 
 
-    private Optional<PolicyBinding> policyBindingIfPresent(Reference reference) {
-        return policyBindings.stream()
-                .filter(policyBinding -> Objects.equals(reference, policyBinding.referredElement()))
-                .findFirst();
-    }
-
-
     public abstract static class AbstractBuilder<T extends AasRepositoryContext, B extends AasServerContext.AbstractBuilder<T, B>> extends AasServerContext.AbstractBuilder<T, B> {
         protected URI uri;
         protected List<PolicyBinding> policyBindings;
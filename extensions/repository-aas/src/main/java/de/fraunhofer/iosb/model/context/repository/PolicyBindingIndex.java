@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.model.context.repository;
+
+import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+
+/**
+ * Prefix tree of policy bindings over the keys of their referred elements. Looking up the binding of an element takes one step per key of its reference, regardless of the number
+ * of bindings. Bindings including descendants are found for all elements below them that are not bound themselves. Not modifiable after construction.
+ */
+final class PolicyBindingIndex {
+
+    private final Node root = new Node();
+    private final boolean empty;
+
+
+    PolicyBindingIndex(List<PolicyBinding> policyBindings) {
+        policyBindings.forEach(this::add);
+        empty = policyBindings.isEmpty();
+    }
+
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+
+    /**
+     * Returns the policy binding of the referred element itself or, if there is none, the binding of its closest ancestor that includes descendants.
+     *
+     * @param reference Reference to the element.
+     * @return The policy binding applying to the element, if any.
+     */
+    Optional<PolicyBinding> find(Reference reference) {
+        Node node = root;
+        PolicyBinding inherited = null;
+
+        for (Key key: reference.getKeys()) {
+            if (node.policyBinding != null && node.policyBinding.includeDescendants()) {
+                inherited = node.policyBinding;
+            }
+            node = node.children.get(new Segment(key.getType(), key.getValue()));
+            if (node == null) {
+                return Optional.ofNullable(inherited);
+            }
+        }
+
+        return Optional.ofNullable(node.policyBinding != null ? node.policyBinding : inherited);
+    }
+
+
+    private void add(PolicyBinding policyBinding) {
+        Node node = root;
+        for (Key key: policyBinding.referredElement().getKeys()) {
+            node = node.children.computeIfAbsent(new Segment(key.getType(), key.getValue()), segment -> new Node());
+        }
+        // If several bindings refer to the same element, the first one is used
+        if (node.policyBinding == null) {
+            node.policyBinding = policyBinding;
+        }
+    }
+
+
+    private static final class Node {
+        private final Map<Segment, Node> children = new HashMap<>();
+        private PolicyBinding policyBinding;
+    }
+
+
+    private record Segment(KeyTypes type, String value) {
+    }
+}
@@ -21,14 +21,20 @@ import de.fraunhofer.iosb.ilt.faaast.service.messagebus.MessageBus;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.modifier.QueryModifier;
 import de.fraunhofer.iosb.ilt.faaast.service.model.api.paging.PagingInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.model.exception.PersistenceException;
+import de.fraunhofer.iosb.ilt.faaast.service.model.exception.ResourceNotFoundException;
 import de.fraunhofer.iosb.ilt.faaast.service.model.messagebus.SubscriptionId;
 import de.fraunhofer.iosb.ilt.faaast.service.model.messagebus.SubscriptionInfo;
 import de.fraunhofer.iosb.ilt.faaast.service.persistence.Persistence;
+import de.fraunhofer.iosb.ilt.faaast.service.util.ReferenceHelper;
 import de.fraunhofer.iosb.model.context.repository.AasRepositoryContext;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
 import org.eclipse.digitaltwin.aas4j.v3.model.ConceptDescription;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
 import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
 import org.eclipse.edc.spi.EdcException;
+import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
 import java.util.List;
@@ -123,6 +129,34 @@ public class LocalFaaastRepositoryContext extends AasRepositoryContext {
     }
 
 
+    /**
+     * Returns a single AAS element currently stored in the FA³ST service, looked up by its identifier or, for submodel elements, its path within the submodel.
+     *
+     * @param reference Reference to the AAS element.
+     * @return The AAS element or null if it does not exist.
+     */
+    public @Nullable Referable getReferable(Reference reference) {
+        Key root = ReferenceHelper.getRoot(reference);
+        try {
+            if (reference.getKeys().size() > 1) {
+                return persistence.getSubmodelElement(reference, QueryModifier.DEFAULT);
+            }
+            return switch (root.getType()) {
+                case ASSET_ADMINISTRATION_SHELL -> persistence.getAssetAdministrationShell(root.getValue(), QueryModifier.DEFAULT);
+                case SUBMODEL -> persistence.getSubmodel(root.getValue(), QueryModifier.DEFAULT);
+                case CONCEPT_DESCRIPTION -> persistence.getConceptDescription(root.getValue(), QueryModifier.DEFAULT);
+                default -> null;
+            };
+        }
+        catch (ResourceNotFoundException resourceNotFoundException) {
+            return null;
+        }
+        catch (PersistenceException persistenceException) {
+            throw new EdcException(String.format(ERR_MSG_TEMPLATE, "Getting element", getUri()), persistenceException);
+        }
+    }
+
+
     public static class Builder extends AbstractBuilder<LocalFaaastRepositoryContext, Builder> {
         private MessageBus<?> messageBus;
         private Persistence<?> persistence;
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.client.repository.local.impl;
+
+import de.fraunhofer.iosb.model.config.impl.faaast.FaaastRepositoryConfig;
+import de.fraunhofer.iosb.model.context.repository.local.impl.LocalFaaastRepositoryContext;
+import de.fraunhofer.iosb.repository.impl.faaast.FaaastRepositoryManager;
+import org.eclipse.digitaltwin.aas4j.v3.dataformat.core.util.AasUtils;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.edc.spi.monitor.ConsoleMonitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+
+class LocalFaaastRepositoryClientTest {
+
+    private FaaastRepositoryManager repositoryManager;
+    private LocalFaaastRepositoryClient testSubject;
+
+
+    @BeforeEach
+    void setUp() {
+        repositoryManager = new FaaastRepositoryManager(new ConsoleMonitor(), () -> "localhost");
+        var context = repositoryManager.startRepository(FaaastRepositoryConfig.Builder.newInstance()
+                .model(Path.of("./src/test/resources/aasEnvironment.json"))
+                .port(getFreePort())
+                .ssl(false)
+                .build());
+        testSubject = new LocalFaaastRepositoryClient((LocalFaaastRepositoryContext) context);
+    }
+
+
+    @AfterEach
+    void tearDown() {
+        repositoryManager.stopAll();
+    }
+
+
+    @Test
+    void test_resolve_sameAsEnvironment() {
+        var submodel = reference(KeyTypes.SUBMODEL, "https://example.org/submodel/2");
+        var property = reference(KeyTypes.SUBMODEL, "https://example.org/submodel/1");
+        property.getKeys().add(new DefaultKey.Builder().type(KeyTypes.PROPERTY).value("IntegerValue").build());
+
+        var environment = testSubject.getEnvironment();
+
+        assertNotNull(testSubject.resolve(submodel));
+        assertEquals(AasUtils.resolve(submodel, environment), testSubject.resolve(submodel));
+        assertNotNull(testSubject.resolve(property));
+        assertEquals(AasUtils.resolve(property, environment), testSubject.resolve(property));
+    }
+
+
+    @Test
+    void test_resolve_notExisting() {
+        assertNull(testSubject.resolve(reference(KeyTypes.SUBMODEL, "https://example.org/submodel/does-not-exist")));
+    }
+
+
+    private static Reference reference(KeyTypes type, String id) {
+        return new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(type).value(id).build())
+                .build();
+    }
+}
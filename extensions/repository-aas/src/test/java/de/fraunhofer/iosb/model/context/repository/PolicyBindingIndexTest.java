@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021 Fraunhofer IOSB, eine rechtlich nicht selbstaendige
+ * Einrichtung der Fraunhofer-Gesellschaft zur Foerderung der angewandten
+ * Forschung e.V.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.fraunhofer.iosb.model.context.repository;
+
+import de.fraunhofer.iosb.aas.lib.model.PolicyBinding;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class PolicyBindingIndexTest {
+
+    @Test
+    void test_find_exact() {
+        var binding = new PolicyBinding(reference("submodel", "collection"), "access", "contract");
+        var testSubject = new PolicyBindingIndex(List.of(binding));
+
+        assertEquals(Optional.of(binding), testSubject.find(reference("submodel", "collection")));
+        assertTrue(testSubject.find(reference("submodel")).isEmpty());
+        assertTrue(testSubject.find(reference("submodel", "collection", "property")).isEmpty());
+        assertTrue(testSubject.find(reference("otherSubmodel", "collection")).isEmpty());
+    }
+
+
+    @Test
+    void test_find_inheritedByDescendants() {
+        var submodelBinding = new PolicyBinding(reference("submodel"), "access", "contract", true);
+        var propertyBinding = new PolicyBinding(reference("submodel", "collection", "property"), "otherAccess", "otherContract");
+        var testSubject = new PolicyBindingIndex(List.of(submodelBinding, propertyBinding));
+
+        assertEquals(Optional.of(submodelBinding), testSubject.find(reference("submodel")));
+        assertEquals(Optional.of(submodelBinding), testSubject.find(reference("submodel", "collection")));
+        assertEquals(Optional.of(submodelBinding), testSubject.find(reference("submodel", "collection", "otherProperty")));
+        // Own binding takes precedence
+        assertEquals(Optional.of(propertyBinding), testSubject.find(reference("submodel", "collection", "property")));
+        assertTrue(testSubject.find(reference("otherSubmodel")).isEmpty());
+    }
+
+
+    @Test
+    void test_find_firstBindingWins() {
+        var first = new PolicyBinding(reference("submodel"), "access", "contract");
+        var second = new PolicyBinding(reference("submodel"), "otherAccess", "otherContract");
+
+        assertEquals(Optional.of(first), new PolicyBindingIndex(List.of(first, second)).find(reference("submodel")));
+    }
+
+
+    private static Reference reference(String submodelId, String... idShortPath) {
+        var reference = new DefaultReference.Builder()
+                .type(ReferenceTypes.MODEL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value(submodelId).build())
+                .build();
+        for (int i = 0; i < idShortPath.length; i++) {
+            var type = i < idShortPath.length - 1 ? KeyTypes.SUBMODEL_ELEMENT_COLLECTION : KeyTypes.PROPERTY;
+            reference.getKeys().add(new DefaultKey.Builder().type(type).value(idShortPath[i]).build());
+        }
+        return reference;
+    }
+}